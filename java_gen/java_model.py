@@ -81,6 +81,10 @@ class JavaModel(object):
         OFExperimenter=set(('data','subtype')),
         OFActionExperimenter=set(('data',)),
         OFBsnTlv=set(('type',)))
+    # registry of message interfaces whose trailing octets member 'data' is also exposed as a
+    # ByteBuf (getDataBuf() / Builder.setData(ByteBuf)), to avoid copying packet payloads
+    # set(java_names)
+    data_buf_interfaces = set(('OFPacketIn', 'OFPacketOut'))
     # interfaces that are virtual
     virtual_interfaces = set(['OFOxm', 'OFInstruction', 'OFFlowMod', 'OFBsnVport', 'OFOxs' ])
 
@@ -181,6 +185,12 @@ class JavaModel(object):
     def all_classes(self):
         return [clazz for interface in self.interfaces for clazz in interface.versioned_classes]
 
+    @property
+    @memoize
+    def list_element_types(self):
+        """ names of the interfaces that occur as elements of list members (see gen_list_jtype) """
+        return set(getattr(m.java_type, "element_type", None) for i in self.interfaces for m in i.members) - set([None])
+
     @property
     @memoize
     def enums(self):
@@ -325,6 +335,11 @@ class OFFactory(namedtuple("OFFactory", ("package", "name", "members", "remove_p
         else:
             return n
 
+    def entry_reader_method_name(self, member):
+        """ name of the factory method returning the OFEntryStreamReader for member """
+        n = self.method_name(member, builder=False)
+        return "get" + n[0].upper() + n[1:] + "EntryReader"
+
     def of_version(self, version):
         for fc in self.factory_classes:
             if fc.version == version:
@@ -412,6 +427,11 @@ class JavaOFInterface(object):
         else:
             self.parent_interface = None
 
+    @property
+    def is_message(self):
+        """ true iff this interface is an OpenFlow message, i.e., of_header or one of its subinterfaces """
+        return self.c_name == "of_header" or loxi_utils.class_is_message(self.c_name)
+
     @property
     @memoize
     def all_parent_interfaces(self):
@@ -670,6 +690,21 @@ class JavaOFInterface(object):
     def versioned_classes(self):
             return [ self.versioned_class(version) for version in self.all_versions ]
 
+    @property
+    @memoize
+    def streamable_entries(self):
+        """ the 'entries' list member of this message interface, if the entries of at least one
+            versioned class can be streamed (see JavaOFClass.streamable_entries). None otherwise """
+        if any(c.streamable_entries is not None for c in self.versioned_classes if model.generate_class(c)):
+            return self.member_by_name("entries")
+        return None
+
+    @property
+    def has_data_buf(self):
+        """ true iff the 'data' member of this interface is also exposed as a ByteBuf
+            (see JavaModel.data_buf_interfaces) """
+        return self.name in model.data_buf_interfaces
+
 #######################################################################
 ### (Versioned) Classes
 #######################################################################
@@ -808,6 +843,144 @@ class JavaOFClass(object):
     def discriminator(self):
         return find(lambda m: isinstance(m, OFDiscriminatorMember), self.ir_class.members)
 
+    @property
+    @memoize
+    def has_lazy_lists(self):
+        """ whether this is a message class with list members that its LAZY_READER reads into
+            LazyOFLists (see JavaMember.lazy_read_op). READER always decodes lists eagerly. """
+        return self.is_message and any(not m.is_virtual and m.is_data and m.lazy_read_op(self.version)
+                                       for m in self.members)
+
+    @property
+    @memoize
+    def element_length_op(self):
+        """ Java expression that returns the wire length of an instance of this class that
+            starts at 'index' of ByteBuf 'bb', without decoding it. Used to index the elements
+            of lazily decoded lists (see LazyOFList). Only defined for classes that occur as
+            list elements; None if the length cannot be determined from a fixed offset. """
+        if self.is_message or self.interface.name not in model.list_element_types:
+            return None
+        def unaligned(c):
+            return (not c.align or c.length_includes_align) and all(unaligned(s) for s in c.subclasses)
+        if not unaligned(self):
+            return None
+        if self.is_fixed_length:
+            return str(self.length)
+        length = find(lambda m: m.is_length_value, self.members)
+        if length is None or length.offset is None:
+            return None
+        return length.java_type.absolute_read_op(self.version, offset="index + %d" % length.offset)
+
+    @property
+    @memoize
+    def variable_length_members(self):
+        """ the data members of this class whose wire length depends on their value """
+        return [ m for m in self.data_members if not m.member.is_fixed_length ]
+
+    @property
+    def memoizes_wire_length(self):
+        """ whether getWireLength() stores its result: only if a variable length member is a list,
+            whose length takes a pass over its elements. All other lengths follow in constant
+            time from the static layout and the lengths of arrays, strings and nested objects. """
+        return any(m.java_type.element_type is not None or
+                   m.java_type in (java_type.oxm_list, java_type.oxs_list)
+                   for m in self.variable_length_members)
+
+    @property
+    def fixed_wire_length(self):
+        """ the part of the wire length of this class that does not depend on the values of
+            its variable length members (see variable_length_members) """
+        return self.min_length - sum(m.member.base_length for m in self.variable_length_members)
+
+    @property
+    def has_length_member(self):
+        return any(m.is_length_value for m in self.members)
+
+    @property
+    @memoize
+    def data_buf(self):
+        """ the trailing octets member 'data' of this message class, if its interface exposes
+            it as a ByteBuf (see JavaOFInterface.has_data_buf). None otherwise """
+        if not self.interface.has_data_buf or self.is_virtual:
+            return None
+        wire_members = [ m for m in self.members if not m.is_virtual ]
+        last = wire_members[-1]
+        if last.name != "data" or not last.is_data or last.java_type.public_type != "byte[]":
+            raise Exception("%s: data is not the trailing octets member" % self.name)
+        return last
+
+    @property
+    @memoize
+    def data_offset_op(self):
+        """ Java expression that returns the offset of the data_buf member of an instance of
+            this class that starts at 'start' of ByteBuf 'bb', without decoding it. The lengths
+            of the preceding variable length members are read from their length fields.
+            None if the offset cannot be determined that way. """
+        data = self.data_buf
+        if data is None:
+            return None
+        if data.offset is not None:
+            return "start + %d" % data.offset
+        fixed = 0
+        terms = []
+        for m in self.members:
+            if m.is_virtual:
+                continue
+            if m is data:
+                break
+            position = " + ".join(["start + %d" % fixed] + terms)
+            if m.member.is_fixed_length:
+                fixed += m.member.base_length
+            elif m.is_data and m.java_type.element_type is not None:
+                field_length = find(lambda f: f.is_field_length_value and f.member.field_name == m.member.name, self.members)
+                if field_length is None or field_length.offset is None:
+                    return None
+                terms.append(field_length.java_type.absolute_read_op(self.version, offset="start + %d" % field_length.offset))
+            elif m.is_data and m.member.oftype == "of_match_t":
+                match = model.interface_by_name("OFMatchV3")
+                if not match.has_version(self.version):
+                    return None
+                match_class = match.versioned_class(self.version)
+                length = find(lambda l: l.is_length_value, match_class.members)
+                term = length.java_type.absolute_read_op(self.version, offset="%s + %d" % (position, length.offset))
+                if match_class.align and not match_class.length_includes_align:
+                    term = "((%s + %d) & ~%d)" % (term, match_class.align - 1, match_class.align - 1)
+                terms.append(term)
+            else:
+                return None
+        return " + ".join(["start + %d" % fixed] + terms)
+
+    @property
+    def streamable_entries(self):
+        """ the 'entries' list member of this message class, if it is the last member on the
+            wire, so its elements can be streamed to a consumer (see JType.stream_op).
+            None otherwise. """
+        if not self.is_message or self.is_virtual:
+            return None
+        wire_members = [ m for m in self.members if not m.is_virtual ]
+        if not wire_members:
+            return None
+        last = wire_members[-1]
+        if last.name == "entries" and last.is_data and last.java_type.element_type is not None:
+            return last
+        return None
+
+    @property
+    def peekable_discriminator(self):
+        """ the discriminator member of this virtual class, if its value can be read at a fixed
+            offset without consuming the input (see JType.absolute_read_op). None otherwise. """
+        disc = find(lambda m: m.is_discriminator, self.members)
+        if disc is None or disc.offset is None:
+            return None
+        if disc.java_type.absolute_read_op(self.version, offset="0", pub_type=False) is None:
+            return None
+        return disc
+
+    @property
+    def is_message(self):
+        """ true iff this class is an OpenFlow message, i.e., of_header or one of its subclasses """
+        return self.interface.c_name == "of_header" or loxi_utils.class_is_message(self.interface.c_name)
+
     @property
     def is_extension(self):
         return type_maps.message_is_extension(self.c_name, -1)
@@ -906,6 +1079,30 @@ class JavaMember(object):
         except:
             return False
 
+    def lazy_read_op(self, version, length=None):
+        """ return a Java expression that reads this list member into a LazyOFList, which
+            decodes its elements on demand. See JType.read_op for 'length'.
+            @return the expression, or None if this is not a list member, or the length of the
+                    list elements cannot be determined without decoding them """
+        element_type = getattr(self.java_type, "element_type", None)
+        if element_type is None:
+            return None
+        interface = model.interface_by_name(element_type)
+        if interface is None or not interface.has_version(version):
+            return None
+        clazz = interface.versioned_class(version)
+        if not model.generate_class(clazz) or clazz.element_length_op is None:
+            return None
+        if length is None:
+            length = "length - (bb.readerIndex() - start)"
+        return "LazyOFList.read(bb, {}, {}.READER, {}.ELEMENT_LENGTH)".format(length, clazz.name, clazz.name)
+
+    @property
+    def offset(self):
+        """ @return the fixed byte offset of this member from the start of the object on the wire,
+            or None if it follows a variable length member """
+        return getattr(self.member, "offset", None)
+
     @property
     def is_field_length_value(self):
         return isinstance(self.member, OFFieldLengthMember)
@@ -75,17 +75,18 @@ def format_primitive_literal(t, value):
 ANY = 0xFFFFFFFFFFFFFFFF
 
 class VersionOp:
-    def __init__(self, version=ANY, read=None, write=None, default=None, funnel=None, normalize=None):
+    def __init__(self, version=ANY, read=None, write=None, default=None, funnel=None, normalize=None, absolute=None):
         self.version = version
         self.read = read
         self.write = write
         self.default = default
         self.funnel = funnel
         self.normalize = normalize
+        self.absolute = absolute
 
     def __str__(self):
-        return "[Version: %d, Read: '%s', Write: '%s', Default: '%s', Funnel: '%s', Normalize: '%s' ]" % \
-            (self.version, self.read, self.write, self.default, self.funnel, self.normalize )
+        return "[Version: %d, Read: '%s', Write: '%s', Default: '%s', Funnel: '%s', Normalize: '%s', Absolute: '%s' ]" % \
+            (self.version, self.read, self.write, self.default, self.funnel, self.normalize, self.absolute )
 
 ### FIXME: This class should really be cleaned up
 class JType(object):
@@ -99,13 +100,19 @@ class JType(object):
         if priv_type is None:
             priv_type = pub_type
         self.priv_type = priv_type  # the internal storage type
+        self.element_type = None    # for lists: the java type of the elements, e.g. 'OFAction'
+        self.is_enum = False        # whether the type is an enum, read by its serializer
         self.ops = {}
 
     def set_priv_type(self, priv_type):
         self.priv_type = priv_type
         return self
 
-    def op(self, version=ANY, read=None, write=None, default=None, funnel=None, normalize=None, pub_type=ANY):
+    def set_element_type(self, element_type):
+        self.element_type = element_type
+        return self
+
+    def op(self, version=ANY, read=None, write=None, default=None, funnel=None, normalize=None, absolute=None, pub_type=ANY):
         """
         define operations to be performed for reading and writing this type
         (when read_op, write_op is called). The operations 'read' and 'write'
@@ -117,11 +124,13 @@ class JType(object):
                                 private type(False) or both (ALL)
         @param read read expression (either string or callable)s
         @param write write expression (either string or callable)
+        @param absolute expression that reads the value at the absolute offset $offset of bb,
+                        without moving the reader index (optional)
         """
 
         pub_types = [ pub_type ] if pub_type is not ANY else [ False, True ]
         for pub_type in pub_types:
-            self.ops[(version, pub_type)] = VersionOp(version, read, write, default, funnel, normalize)
+            self.ops[(version, pub_type)] = VersionOp(version, read, write, default, funnel, normalize, absolute)
         return self
 
     def format_value(self, value, pub_type=True):
@@ -200,6 +209,27 @@ class JType(object):
             )
 
 
+    def wire_length_op(self, version=None, name=None, pub_type=True):
+        """ return a Java expression that evaluates to the number of bytes write_op writes for
+        the variable length value of this JType contained in Java expression 'name'.
+        Derived from the write op of the type.
+        @return string containing generated Java expression.
+        """
+        marker = "__value__"
+        write = self.write_op(version, marker, pub_type=pub_type)
+        if write == "ChannelUtils.writeList(bb, %s)" % marker:
+            op = "ChannelUtils.getWireLength(%s)" % marker
+        elif write == "bb.writeBytes(%s)" % marker:
+            op = "%s.length" % marker
+        elif write == "%s.writeTo(bb)" % marker:
+            op = "%s.getWireLength()" % marker
+        elif write == "ChannelUtils.writeFixedLengthString(bb, %s, %s.length())" % (marker, marker):
+            op = "%s.length()" % marker
+        else:
+            raise Exception("Cannot determine wire length of type %s from write op '%s'" % (self.pub_type, write))
+        return op.replace(marker, name)
+
+
     def default_op(self, version=None, pub_type=True):
         """ return a Java stanza that returns a default value of this JType.
         @param version JavaOFVersion
@@ -220,11 +250,40 @@ class JType(object):
             default_value = name
         )
 
+    def absolute_read_op(self, version=None, offset=None, pub_type=True):
+        """ return a Java expression that reads a value of this JType from ByteBuf bb at the
+        absolute index 'offset', leaving the reader index of bb untouched. Used by the lazy
+        message views, which decode fields on demand from a retained slice, and by the virtual
+        class readers to peek at discriminators.
+        @param offset string, Java expression evaluating to the absolute index in bb
+        @return string containing generated Java expression, or None if this JType
+                does not define an absolute read for the given version.
+        """
+        ver = ANY if version is None else version.int_version
+        for key in ((ver, pub_type), (ANY, pub_type)):
+            if key in self.ops and self.ops[key].absolute is not None:
+                return self.get_op("absolute", version, pub_type, None, dict(offset=offset))
+        return None
+
+    def stream_op(self, version, consumer, length=None):
+        """ return a Java stanza that reads the elements of a list of this JType one at a time
+        and passes them to the java.util.function.Consumer given by the Java expression
+        'consumer', instead of collecting them. See read_op for 'length'.
+        @return string containing generated Java expression, or None if this JType is not a list
+        """
+        if self.element_type is None:
+            return None
+        if length is None:
+            length = "length - (bb.readerIndex() - start)"
+        return "ChannelUtils.readListElements(bb, {}, {}Ver{}.READER, {})".format(
+                length, self.element_type, version.dotless_version, consumer)
+
     def skip_op(self, version=None, length=None):
         """ return a java stanza that skips an instance of JType in the input ByteBuf 'bb'.
             This is used in the Reader implementations for virtual classes (because after the
             discriminator field, the concrete Reader instance will re-read all the fields)
-            Currently just delegates to read_op + throws away the result."""
+            Currently just delegates to read_op + throws away the result. Only used for
+            virtual classes whose discriminator cannot be peeked (see absolute_read_op)."""
         return self.read_op(version, length)
 
     def funnel_op(self, version=None, name=None, pub_type=True):
@@ -263,12 +322,22 @@ def gen_enum_jtype(java_name, is_bitmask=False):
 
     serializer = "{}SerializerVer$version".format(java_name)
 
-    return JType(java_type)\
+    jtype = JType(java_type)\
             .op(read="{}.readFrom(bb)".format(serializer),
                 write="{}.writeTo(bb, $name)".format(serializer),
                 default=default_value,
-                funnel="{}.putTo($name, sink)".format(serializer)
+                funnel="{}.putTo($name, sink)".format(serializer),
+                pub_type=False
+               )\
+            .op(read="{}.readFrom(bb)".format(serializer),
+                write="{}.writeTo(bb, $name)".format(serializer),
+                default=default_value,
+                funnel="{}.putTo($name, sink)".format(serializer),
+                absolute=None if is_bitmask else "{}.ofWireValue(bb, $offset)".format(serializer),
+                pub_type=True
                )
+    jtype.is_enum = not is_bitmask
+    return jtype
 
 def gen_list_jtype(java_base_name):
     # read op assumes the class has a public final static field READER that implements
@@ -280,7 +349,8 @@ def gen_list_jtype(java_base_name):
             write='ChannelUtils.writeList(bb, $name)',
             default="ImmutableList.<{}>of()".format(java_base_name),
             funnel='FunnelUtils.putList($name, sink)'
-            )
+            ) \
+        .set_element_type(java_base_name)
 
 def gen_fixed_length_string_jtype(length):
     return JType('String').op(
@@ -294,36 +364,39 @@ def gen_fixed_length_string_jtype(length):
 # FIXME: This list needs to be pruned / cleaned up. Most of these are schematic.
 
 u8 =  JType('short', 'byte') \
-        .op(read='U8.f(bb.readByte())', write='bb.writeByte(U8.t($name))', normalize="U8.normalize($name)", pub_type=True) \
-        .op(read='bb.readByte()', write='bb.writeByte($name)', pub_type=False)
+        .op(read='U8.f(bb.readByte())', write='bb.writeByte(U8.t($name))', normalize="U8.normalize($name)",
+            absolute='U8.f(bb.getByte($offset))', pub_type=True) \
+        .op(read='bb.readByte()', write='bb.writeByte($name)', absolute='bb.getByte($offset)', pub_type=False)
 u8_list =  JType('List<U8>') \
-        .op(read='ChannelUtils.readList(bb, $length, U8.READER)',
+        .op(read='U8List.read(bb, $length)',
             write='ChannelUtils.writeList(bb, $name)',
-            default='ImmutableList.<U8>of()',
+            default='U8List.EMPTY',
             funnel='FunnelUtils.putList($name, sink)'
            )
 u16 = JType('int', 'short') \
-        .op(read='U16.f(bb.readShort())', write='bb.writeShort(U16.t($name))', normalize="U16.normalize($name)", pub_type=True) \
-        .op(read='bb.readShort()', write='bb.writeShort($name)', pub_type=False)
+        .op(read='U16.f(bb.readShort())', write='bb.writeShort(U16.t($name))', normalize="U16.normalize($name)",
+            absolute='U16.f(bb.getShort($offset))', pub_type=True) \
+        .op(read='bb.readShort()', write='bb.writeShort($name)', absolute='bb.getShort($offset)', pub_type=False)
 u16_list = JType('List<U16>', 'short[]') \
-        .op(read='ChannelUtils.readList(bb, $length, U16.READER)',
+        .op(read='U16List.read(bb, $length)',
             write='ChannelUtils.writeList(bb, $name)',
-            default='ImmutableList.<U16>of()',
+            default='U16List.EMPTY',
             funnel='FunnelUtils.putList($name, sink)')
 u32 = JType('long', 'int') \
-        .op(read='U32.f(bb.readInt())', write='bb.writeInt(U32.t($name))', normalize="U32.normalize($name)", pub_type=True) \
-        .op(read='bb.readInt()', write='bb.writeInt($name)', pub_type=False)
+        .op(read='U32.f(bb.readInt())', write='bb.writeInt(U32.t($name))', normalize="U32.normalize($name)",
+            absolute='U32.f(bb.getInt($offset))', pub_type=True) \
+        .op(read='bb.readInt()', write='bb.writeInt($name)', absolute='bb.getInt($offset)', pub_type=False)
 u32_list = JType('List<U32>', 'int[]') \
         .op(
-                read='ChannelUtils.readList(bb, $length, U32.READER)',
+                read='U32List.read(bb, $length)',
                 write='ChannelUtils.writeList(bb, $name)',
-                default="ImmutableList.<U32>of()",
+                default="U32List.EMPTY",
                 funnel="FunnelUtils.putList($name, sink)")
 u64_list = JType('List<U64>', 'int[]') \
         .op(
-                read='ChannelUtils.readList(bb, $length, U64.READER)',
+                read='U64List.read(bb, $length)',
                 write='ChannelUtils.writeList(bb, $name)',
-                default="ImmutableList.<U64>of()",
+                default="U64List.EMPTY",
                 funnel="FunnelUtils.putList($name, sink)")
 u8obj = JType('U8', 'U8') \
         .op(read='U8.of(bb.readByte())', write='bb.writeByte($name.getRaw())', default="U8.ZERO")
@@ -332,15 +405,18 @@ u16obj = JType('U16', 'U16') \
 u32obj = JType('U32', 'U32') \
         .op(read='U32.of(bb.readInt())', write='bb.writeInt($name.getRaw())', default="U32.ZERO")
 u64 = JType('U64', 'long') \
-        .op(read='U64.ofRaw(bb.readLong())', write='bb.writeLong($name.getValue())', default="U64.ZERO", pub_type=True) \
-        .op(read='bb.readLong()', write='bb.writeLong($name)', pub_type=False)
+        .op(read='U64.ofRaw(bb.readLong())', write='bb.writeLong($name.getValue())', default="U64.ZERO",
+            absolute='U64.ofRaw(bb.getLong($offset))', pub_type=True) \
+        .op(read='bb.readLong()', write='bb.writeLong($name)', absolute='bb.getLong($offset)', pub_type=False)
 u128 = JType("U128") \
         .op(read='U128.read16Bytes(bb)',
             write='$name.write16Bytes(bb)',
             default='U128.ZERO')
 of_port = JType("OFPort") \
-         .op(version=1, read="OFPort.read2Bytes(bb)", write="$name.write2Bytes(bb)", default="OFPort.ANY") \
-         .op(version=ANY, read="OFPort.read4Bytes(bb)", write="$name.write4Bytes(bb)", default="OFPort.ANY")
+         .op(version=1, read="OFPort.read2Bytes(bb)", write="$name.write2Bytes(bb)", default="OFPort.ANY",
+             absolute="OFPort.ofShort(bb.getShort($offset))") \
+         .op(version=ANY, read="OFPort.read4Bytes(bb)", write="$name.write4Bytes(bb)", default="OFPort.ANY",
+             absolute="OFPort.of(bb.getInt($offset))")
 # the same OFPort, but with a default value of ZERO, only for OF10 match
 of_port_match_v1 = JType("OFPort") \
          .op(version=1, read="OFPort.read2Bytes(bb)", write="$name.write2Bytes(bb)", default="OFPort.ZERO")
@@ -368,14 +444,15 @@ of_time = JType('OFTime') \
          .op(read='OFTimeVer$version.READER.readFrom(bb)', \
              write='$name.writeTo(bb)')
 group_mod_cmd = JType('OFGroupModCommand', 'short') \
-        .op(version=ANY, read="bb.readShort()", write="bb.writeShort($name)")
+        .op(version=ANY, read="bb.readShort()", write="bb.writeShort($name)", absolute="bb.getShort($offset)")
 flow_mod_cmd = JType('OFFlowModCommand', 'short') \
-        .op(version=1, read="bb.readShort()", write="bb.writeShort($name)") \
-        .op(version=ANY, read="bb.readByte()", write="bb.writeByte($name)")
+        .op(version=1, read="bb.readShort()", write="bb.writeShort($name)", absolute="bb.getShort($offset)") \
+        .op(version=ANY, read="bb.readByte()", write="bb.writeByte($name)", absolute="bb.getByte($offset)")
 mac_addr = JType('MacAddress') \
         .op(read="MacAddress.read6Bytes(bb)", \
             write="$name.write6Bytes(bb)",
-            default="MacAddress.NONE")
+            default="MacAddress.NONE",
+            absolute="MacAddress.of(bb.getUnsignedInt($offset) << 16 | bb.getUnsignedShort(($offset) + 4))")
 vxlan_ni = JType('VxlanNI') \
         .op(read="VxlanNI.read4Bytes(bb)", \
             write="$name.write4Bytes(bb)",
@@ -394,7 +471,8 @@ str64 = gen_fixed_length_string_jtype(64)
 ipv4 = JType("IPv4Address") \
         .op(read="IPv4Address.read4Bytes(bb)", \
             write="$name.write4Bytes(bb)",
-            default='IPv4Address.NONE')
+            default='IPv4Address.NONE',
+            absolute="IPv4Address.of(bb.getInt($offset))")
 ipv4_list =  JType('List<IPv4Address>') \
         .op(read='ChannelUtils.readList(bb, $length, IPv4Address.READER)',
             write='ChannelUtils.writeList(bb, $name)',
@@ -417,7 +495,8 @@ transport_port = JType("TransportPort")\
 eth_type = JType("EthType")\
         .op(read="EthType.read2Bytes(bb)",
             write="$name.write2Bytes(bb)",
-            default="EthType.NONE")
+            default="EthType.NONE",
+            absolute="EthType.of(bb.getUnsignedShort($offset))")
 vlan_vid = JType("VlanVid")\
         .op(version=ANY, read="VlanVid.read2Bytes(bb)", write="$name.write2Bytes(bb)", default="VlanVid.ZERO")
 vlan_vid_match = JType("OFVlanVidMatch")\
@@ -506,17 +585,20 @@ port_bitmap_512 = JType('OFBitMask512') \
 table_id = JType("TableId") \
         .op(read='TableId.readByte(bb)',
             write='$name.writeByte(bb)',
-            default='TableId.ALL')
+            default='TableId.ALL',
+            absolute='TableId.of(bb.getUnsignedByte($offset))')
 table_id_default_zero = JType("TableId") \
         .op(read='TableId.readByte(bb)',
             write='$name.writeByte(bb)',
-            default='TableId.ZERO')
+            default='TableId.ZERO',
+            absolute='TableId.of(bb.getUnsignedByte($offset))')
 of_aux_id = JType("OFAuxId") \
         .op(read='OFAuxId.readByte(bb)',
             write='$name.writeByte(bb)',
-            default='OFAuxId.MAIN')
+            default='OFAuxId.MAIN',
+            absolute='OFAuxId.of(bb.getUnsignedByte($offset))')
 of_version = JType("OFVersion", 'byte') \
-            .op(read='bb.readByte()', write='bb.writeByte($name)')
+            .op(read='bb.readByte()', write='bb.writeByte($name)', absolute='bb.getByte($offset)')
 
 port_speed = JType("PortSpeed")
 
@@ -526,23 +608,26 @@ of_message = JType("OFMessage")\
                 write="$name.writeTo(bb)")
 
 of_type = JType("OFType", 'byte') \
-            .op(read='bb.readByte()', write='bb.writeByte($name)')
+            .op(read='bb.readByte()', write='bb.writeByte($name)', absolute='bb.getByte($offset)')
 action_type= gen_enum_jtype("OFActionType")\
                .set_priv_type("short")\
-               .op(read='bb.readShort()', write='bb.writeShort($name)', pub_type=False)
+               .op(read='bb.readShort()', write='bb.writeShort($name)', absolute='bb.getShort($offset)', pub_type=False)
 instruction_type = gen_enum_jtype("OFInstructionType")\
                .set_priv_type('short') \
-               .op(read='bb.readShort()', write='bb.writeShort($name)', pub_type=False)
+               .op(read='bb.readShort()', write='bb.writeShort($name)', absolute='bb.getShort($offset)', pub_type=False)
 buffer_id = JType("OFBufferId") \
-            .op(read="OFBufferId.of(bb.readInt())", write="bb.writeInt($name.getInt())", default="OFBufferId.NO_BUFFER")
+            .op(read="OFBufferId.of(bb.readInt())", write="bb.writeInt($name.getInt())", default="OFBufferId.NO_BUFFER",
+                absolute="OFBufferId.of(bb.getInt($offset))")
 boolean = JType("boolean", "byte") \
         .op(read='(bb.readByte() != 0)',
             write='bb.writeByte($name ? 1 : 0)',
-            default="false")
+            default="false",
+            absolute='(bb.getByte($offset) != 0)')
 datapath_id = JType("DatapathId") \
         .op(read='DatapathId.of(bb.readLong())',
             write='bb.writeLong($name.getLong())',
-            default='DatapathId.NONE')
+            default='DatapathId.NONE',
+            absolute='DatapathId.of(bb.getLong($offset))')
 action_type_set = JType("Set<OFActionType>") \
         .op(read='ChannelUtilsVer10.readSupportedActions(bb)',
             write='ChannelUtilsVer10.writeSupportedActions(bb, $name)',
@@ -556,7 +641,8 @@ of_group_default_any = JType("OFGroup") \
 of_group_default_any = JType("OFGroup") \
          .op(version=ANY, read="OFGroup.read4Bytes(bb)", write="$name.write4Bytes(bb)", default="OFGroup.ANY")
 buffer_id = JType("OFBufferId") \
-         .op(read="OFBufferId.of(bb.readInt())", write="bb.writeInt($name.getInt())", default="OFBufferId.NO_BUFFER")
+         .op(read="OFBufferId.of(bb.readInt())", write="bb.writeInt($name.getInt())", default="OFBufferId.NO_BUFFER",
+             absolute="OFBufferId.of(bb.getInt($offset))")
 lag_id = JType("LagId") \
          .op(version=ANY, read="LagId.read4Bytes(bb)", write="$name.write4Bytes(bb)", default="LagId.NONE")
 vrf = JType("VRF") \
@@ -942,12 +1028,12 @@ def convert_to_jtype(obj_name, field_name, c_type):
         return action_type
     elif field_name == "err_type":
         return JType("OFErrorType", 'short') \
-            .op(read='bb.readShort()', write='bb.writeShort($name)')
+            .op(read='bb.readShort()', write='bb.writeShort($name)', absolute='bb.getShort($offset)')
     elif loxi_utils.class_is(obj_name, "of_error_msg") and field_name == "data":
         return error_cause_data
     elif field_name == "stats_type":
         return JType("OFStatsType", 'short') \
-            .op(read='bb.readShort()', write='bb.writeShort($name)')
+            .op(read='bb.readShort()', write='bb.writeShort($name)', absolute='bb.getShort($offset)')
     elif field_name == "type" and re.match(r'of_instruction.*', obj_name):
         return instruction_type
     elif loxi_utils.class_is(obj_name, "of_flow_mod") and field_name == "table_id" and c_type == "uint8_t":
@@ -984,11 +1070,16 @@ def convert_to_jtype(obj_name, field_name, c_type):
 
 #### Enum specific wiretype definitions
 enum_wire_types = {
-        "uint8_t": JType("byte").op(read="bb.readByte()", write="bb.writeByte($name)"),
-        "uint16_t": JType("short").op(read="bb.readShort()", write="bb.writeShort($name)"),
-        "uint32_t": JType("int").op(read="bb.readInt()", write="bb.writeInt($name)"),
-        "uint64_t": JType("long").op(read="bb.readLong()", write="bb.writeLong($name)"),
-        "uint128_t": JType("long").op(read="bb.readLong()", write="bb.writeLong($name)"),
+        "uint8_t": JType("byte").op(read="bb.readByte()", write="bb.writeByte($name)",
+                absolute="bb.getByte($offset)"),
+        "uint16_t": JType("short").op(read="bb.readShort()", write="bb.writeShort($name)",
+                absolute="bb.getShort($offset)"),
+        "uint32_t": JType("int").op(read="bb.readInt()", write="bb.writeInt($name)",
+                absolute="bb.getInt($offset)"),
+        "uint64_t": JType("long").op(read="bb.readLong()", write="bb.writeLong($name)",
+                absolute="bb.getLong($offset)"),
+        "uint128_t": JType("long").op(read="bb.readLong()", write="bb.writeLong($name)",
+                absolute="bb.getLong($offset)"),
 }
 
 def convert_enum_wire_type_to_jtype(wire_type):
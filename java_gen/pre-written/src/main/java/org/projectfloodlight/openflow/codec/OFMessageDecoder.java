@@ -0,0 +1,75 @@
+package org.projectfloodlight.openflow.codec;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageBatchReader;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+
+/**
+ * Netty decoder that frames inbound bytes by the length field of the OpenFlow header and
+ * decodes them into {@link OFMessage}s.
+ *
+ * All complete messages available in the cumulated buffer are decoded in a single pass by an
+ * {@link OFMessageBatchReader}; an incomplete trailing message is detected from its header
+ * without attempting to decode it.
+ * Until a version is pinned, messages of all supported versions are accepted (as required
+ * for the HELLO exchange). Once the connection has negotiated its version, call
+ * {@link #pinVersion(OFVersion)}: from then on, only messages of that version are decoded, and
+ * any other version is reported as an {@link OFParseError}, wrapped in a
+ * {@link io.netty.handler.codec.DecoderException}. As the stream cannot be re-synchronized after
+ * a protocol error, the bytes received so far are discarded in that case.
+ *
+ * A decoder instance holds per-connection state and must not be shared between channels.
+ */
+public class OFMessageDecoder extends ByteToMessageDecoder {
+    private OFMessageBatchReader reader;
+
+    /** Creates a decoder that accepts messages of all supported versions until a version is pinned */
+    public OFMessageDecoder() {
+        this(null);
+    }
+
+    /** Creates a decoder that is pinned to the given version from the start
+     *
+     * @param version the version to accept, or null to accept all supported versions
+     */
+    public OFMessageDecoder(@Nullable OFVersion version) {
+        this.reader = version != null ? OFMessageBatchReader.forVersion(version) : OFMessageBatchReader.generic();
+    }
+
+    /**
+     * Restricts this decoder to messages of the given version, typically after the version has
+     * been negotiated by the HELLO exchange. Must be called from the event loop of the channel.
+     *
+     * @param version the negotiated version
+     */
+    public void pinVersion(@Nonnull OFVersion version) {
+        this.reader = OFMessageBatchReader.forVersion(version);
+    }
+
+    /** @return the version this decoder is pinned to, or null if none has been pinned */
+    @Nullable
+    public OFVersion getPinnedVersion() {
+        return reader.getVersion();
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws OFParseError {
+        try {
+            reader.readAll(in, out::add);
+        } catch (OFParseError e) {
+            // the stream cannot be re-synchronized after a protocol error; drop what is left of it
+            in.skipBytes(in.readableBytes());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.projectfloodlight.openflow.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.PromiseNotifier;
+
+/**
+ * Netty encoder that coalesces outbound {@link OFMessage}s into pooled buffers.
+ *
+ * Instead of allocating and writing one buffer per message, messages written to the channel
+ * are serialized back to back into a single buffer, which is passed down the pipeline on the
+ * next flush. The promises of the coalesced writes complete together with the write of
+ * the batch.
+ *
+ * A batch is also passed down (without flushing) once it reaches the batch size limit, which
+ * is the lower of the configured maximum and the write buffer high watermark of the channel.
+ * That way, bytes held in the encoder are accounted for by the channel outbound buffer in a
+ * timely manner, and {@link io.netty.channel.Channel#isWritable()} keeps reflecting the
+ * backlog of the connection.
+ *
+ * Like {@link OFMessageDecoder}, the encoder can be pinned to the version negotiated by the
+ * HELLO exchange; writes of messages of any other version are then failed with an
+ * {@link IllegalArgumentException}.
+ *
+ * Like {@link io.netty.handler.codec.MessageToByteEncoder}, the encoder releases the messages
+ * written to it once they have been serialized, or have failed to, so that reference-counted
+ * messages such as {@link org.projectfloodlight.openflow.protocol.OFRawMessage}s are not
+ * leaked.
+ *
+ * Other outbound objects (e.g., {@link ByteBuf}s) are passed through unchanged, after any
+ * pending batch, so that the order of writes is preserved.
+ *
+ * An encoder instance holds per-connection state and must not be shared between channels.
+ */
+public class OFMessageEncoder extends ChannelOutboundHandlerAdapter {
+    /** default upper limit for the size of a batch, in bytes */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64 * 1024;
+    /** initial capacity of the buffer for a batch */
+    private static final int INITIAL_BATCH_CAPACITY = 1024;
+
+    private final int maxBatchSize;
+    private OFVersion pinnedVersion;
+
+    private ByteBuf batch;
+    private final List<ChannelPromise> batchPromises = new ArrayList<>();
+
+    /** Creates an encoder with the {@link #DEFAULT_MAX_BATCH_SIZE default maximum batch size}. */
+    public OFMessageEncoder() {
+        this(DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Creates an encoder with the given maximum batch size.
+     *
+     * @param maxBatchSize size in bytes after which a batch is passed down the pipeline even
+     *        without a flush.
+     */
+    public OFMessageEncoder(int maxBatchSize) {
+        Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be positive, was: %s", maxBatchSize);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Restricts this encoder to messages of the given version, typically after the version has
+     * been negotiated by the HELLO exchange. Must be called from the event loop of the channel.
+     *
+     * @param version the negotiated version
+     */
+    public void pinVersion(@Nonnull OFVersion version) {
+        this.pinnedVersion = Preconditions.checkNotNull(version, "version must not be null");
+    }
+
+    /** @return the version this encoder is pinned to, or null if none has been pinned */
+    @Nullable
+    public OFVersion getPinnedVersion() {
+        return pinnedVersion;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!(msg instanceof OFMessage)) {
+            writeBatch(ctx);
+            ctx.write(msg, promise);
+            return;
+        }
+
+        OFMessage message = (OFMessage) msg;
+        try {
+            OFVersion pinned = pinnedVersion;
+            if (pinned != null && message.getVersion() != pinned) {
+                promise.setFailure(new IllegalArgumentException("Cannot write message of version "
+                        + message.getVersion() + " on a connection pinned to " + pinned + ": " + message));
+                return;
+            }
+
+            if (batch == null)
+                batch = ctx.alloc().ioBuffer(INITIAL_BATCH_CAPACITY);
+            int start = batch.writerIndex();
+            try {
+                message.writeTo(batch);
+            } catch (RuntimeException e) {
+                batch.writerIndex(start);
+                promise.setFailure(e);
+                return;
+            }
+        } finally {
+            ReferenceCountUtil.release(message);
+        }
+        if (!promise.isVoid())
+            batchPromises.add(promise);
+
+        if (batch.readableBytes() >= batchSizeLimit(ctx))
+            writeBatch(ctx);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        writeBatch(ctx);
+        ctx.flush();
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        writeBatch(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        writeBatch(ctx);
+    }
+
+    private int batchSizeLimit(ChannelHandlerContext ctx) {
+        return Math.min(maxBatchSize, ctx.channel().config().getWriteBufferHighWaterMark());
+    }
+
+    /** passes the pending batch, if any, down the pipeline */
+    private void writeBatch(ChannelHandlerContext ctx) {
+        ByteBuf buf = batch;
+        if (buf == null)
+            return;
+        batch = null;
+
+        if (!buf.isReadable()) {
+            buf.release();
+            return;
+        }
+        if (batchPromises.isEmpty()) {
+            ctx.write(buf, ctx.voidPromise());
+        } else if (batchPromises.size() == 1) {
+            ctx.write(buf, batchPromises.get(0));
+        } else {
+            ChannelPromise[] promises = batchPromises.toArray(new ChannelPromise[0]);
+            ctx.write(buf).addListener(new PromiseNotifier<Void, ChannelFuture>(promises));
+        }
+        batchPromises.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package org.projectfloodlight.openflow.protocol;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Hands out one reusable message builder per thread, e.g., for writing fire-and-forget
+ * messages such as packet-outs and flow-adds without allocating a builder (and, via
+ * {@link OFMessage.Builder#writeTo(io.netty.buffer.ByteBuf)}, a message) for each of them:
+ *
+ * <pre>
+ * OFBuilderPool&lt;OFPacketOut.Builder&gt; packetOuts = factory.builderPool(OFFactory::buildPacketOut);
+ * ...
+ * packetOuts.get().setInPort(inPort).setActions(actions).setData(data).writeTo(bb);
+ * </pre>
+ *
+ * The builder returned by {@link #get()} is owned by the calling thread, and only until its
+ * next call of {@link #get()} on the same pool: it must neither be kept nor be handed to other
+ * threads.
+ *
+ * @param <B> the type of the builders
+ */
+public final class OFBuilderPool<B extends OFMessage.Builder> {
+    private final OFFactory factory;
+    private final Function<? super OFFactory, ? extends B> creator;
+    private final ThreadLocal<B> builders = new ThreadLocal<>();
+
+    /**
+     * @param factory the factory to create the builders with
+     * @param creator creates a builder from the factory, e.g., {@code OFFactory::buildFlowAdd}
+     */
+    public OFBuilderPool(@Nonnull OFFactory factory, @Nonnull Function<? super OFFactory, ? extends B> creator) {
+        this.factory = checkNotNull(factory, "factory must not be null");
+        this.creator = checkNotNull(creator, "creator must not be null");
+    }
+
+    /**
+     * Returns the builder of the calling thread, {@link OFMessage.Builder#reset() reset} to its
+     * initial state, with the next xid of the factory, like builders newly created by the
+     * factory.
+     *
+     * @return the builder of the calling thread
+     */
+    public B get() {
+        B builder = builders.get();
+        if (builder == null) {
+            builder = creator.apply(factory);
+            builders.set(builder);
+            return builder;
+        }
+        builder.reset().setXid(factory.nextXid());
+        return builder;
+    }
+}
@@ -0,0 +1,36 @@
+package org.projectfloodlight.openflow.protocol;
+
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reads a message with a list of entries (e.g., a flow stats reply), streaming the entries to
+ * a consumer one at a time instead of collecting them in a list. This allows to aggregate
+ * large stats replies without holding all of their entries in memory at once.
+ *
+ * Obtained from the OFFactory, e.g., {@link OFFactory#getFlowStatsReplyEntryReader()}.
+ *
+ * @param <M> the type of message read
+ * @param <E> the type of the entries
+ */
+public interface OFEntryStreamReader<M extends OFMessage, E> {
+    /** Read the next message from the given byte buffer, passing its entries to the consumer.
+     *
+     *  The byte buffer post-conditions are the same as for {@link OFMessageReader#readFrom(ByteBuf)}.
+     *  The consumer is only called once the complete message is available in the buffer.
+     *
+     * @param bb input byte buffer
+     * @param consumer receives the entries of the message, in order
+     * @return the message, with an empty list of entries, or null if not enough data is
+     *         available in the buffer
+     * @throws OFParseError if a protocol error occurs.
+     */
+    @Nullable
+    M readEntries(@Nonnull ByteBuf bb, @Nonnull Consumer<? super E> consumer) throws OFParseError;
+}
@@ -0,0 +1,181 @@
+package org.projectfloodlight.openflow.protocol;
+
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Decodes all complete OpenFlow messages available in a buffer in a single call.
+ *
+ * In contrast to calling {@link OFFactories#getGenericReader()} in a loop, the batch reader
+ * frames the messages by their length header before handing them to the version specific
+ * reader, so an incomplete trailing message is detected without attempting to decode it.
+ * The readers for all supported versions are resolved once, at construction time.
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @see #generic()
+ * @see #genericViews()
+ * @see #forVersion(OFVersion)
+ */
+public final class OFMessageBatchReader {
+    /** length of the common OpenFlow header (version, type, length, xid) */
+    public static final int HEADER_LENGTH = OFMessageHeader.HEADER_LENGTH;
+
+    private static final OFMessageBatchReader GENERIC = new OFMessageBatchReader(null, false);
+    private static final OFMessageBatchReader GENERIC_VIEWS = new OFMessageBatchReader(null, true);
+    /** batch readers restricted to a single version, indexed by OFVersion ordinal */
+    private static final OFMessageBatchReader[] BY_VERSION;
+    static {
+        OFVersion[] versions = OFVersion.values();
+        BY_VERSION = new OFMessageBatchReader[versions.length];
+        for (OFVersion version : versions)
+            BY_VERSION[version.ordinal()] = new OFMessageBatchReader(version, false);
+    }
+
+    /** the only version accepted, or null if all supported versions are accepted */
+    private final OFVersion version;
+    /** message readers, indexed by OFVersion ordinal; null for versions not accepted */
+    private final OFMessageReader<OFMessage>[] readers;
+
+    @SuppressWarnings("unchecked")
+    private OFMessageBatchReader(@Nullable OFVersion version, boolean views) {
+        this.version = version;
+        readers = new OFMessageReader[OFVersion.values().length];
+        for (OFVersion v : OFVersion.values()) {
+            if (version == null || v == version) {
+                OFFactory factory = OFFactories.getFactory(v);
+                readers[v.ordinal()] = views ? factory.getViewReader() : factory.getReader();
+            }
+        }
+    }
+
+    /** @return a batch reader that decodes messages of all supported versions */
+    public static OFMessageBatchReader generic() {
+        return GENERIC;
+    }
+
+    /** @return a batch reader that produces {@link OFMessageView}s for messages of all supported
+     *  versions. The consumer is responsible for releasing the views. */
+    public static OFMessageBatchReader genericViews() {
+        return GENERIC_VIEWS;
+    }
+
+    /** @return a batch reader that decodes messages of the given version only. Messages of any
+     *  other version are reported as an {@link OFParseError}. */
+    public static OFMessageBatchReader forVersion(@Nonnull OFVersion version) {
+        return BY_VERSION[Preconditions.checkNotNull(version, "version must not be null").ordinal()];
+    }
+
+    /** @return the only version this reader accepts, or null if it accepts all supported versions */
+    @Nullable
+    public OFVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * Decodes all complete messages available in the buffer and passes them to the consumer,
+     * in order.
+     *
+     * After the method returns, the reader index of the buffer is positioned at the start of
+     * the first incomplete message (or at the writer index, if there is none).
+     *
+     * @param bb the buffer to read from
+     * @param consumer receives the decoded messages
+     * @return the number of bytes that remain pending in the buffer, i.e., belong to a message
+     *         that has not been completely received yet
+     * @throws OFParseError if a protocol error occurs. Messages preceding the offending one
+     *         have been consumed, and the reader index of the buffer is positioned at the start
+     *         of the offending message.
+     */
+    public int readAll(@Nonnull ByteBuf bb, @Nonnull Consumer<? super OFMessage> consumer)
+            throws OFParseError {
+        int index = bb.readerIndex();
+        final int end = bb.writerIndex();
+        while (end - index >= HEADER_LENGTH) {
+            int length = frameLength(bb, index, end);
+            if (length < 0)
+                break;
+            consumer.accept(readFrame(bb, index, length));
+            index += length;
+        }
+        bb.readerIndex(index);
+        return end - index;
+    }
+
+    /**
+     * Decodes complete messages available in the buffer into the given array, starting at
+     * index 0, until either the array is full or no complete message is left in the buffer.
+     *
+     * After the method returns, the reader index of the buffer is positioned after the last
+     * decoded message; {@link ByteBuf#readableBytes()} reports the pending bytes.
+     *
+     * @param bb the buffer to read from
+     * @param messages the array to store the decoded messages in; may be reused across calls
+     * @return the number of messages stored in the array
+     * @throws OFParseError if a protocol error occurs. Messages preceding the offending one
+     *         have been consumed, and the reader index of the buffer is positioned at the start
+     *         of the offending message.
+     */
+    public int readAll(@Nonnull ByteBuf bb, @Nonnull OFMessage[] messages) throws OFParseError {
+        int index = bb.readerIndex();
+        final int end = bb.writerIndex();
+        int count = 0;
+        while (count < messages.length && end - index >= HEADER_LENGTH) {
+            int length = frameLength(bb, index, end);
+            if (length < 0)
+                break;
+            messages[count++] = readFrame(bb, index, length);
+            index += length;
+        }
+        bb.readerIndex(index);
+        return count;
+    }
+
+    /** @return the length of the message starting at index, or -1 if it is not complete */
+    private static int frameLength(ByteBuf bb, int index, int end) throws OFParseError {
+        int length = bb.getUnsignedShort(index + 2);
+        if (length < HEADER_LENGTH) {
+            bb.readerIndex(index);
+            throw new OFParseError("Wrong length: Expected to be >= " + HEADER_LENGTH + ", was: " + length);
+        }
+        return end - index >= length ? length : -1;
+    }
+
+    private OFMessage readFrame(ByteBuf bb, int index, int length) throws OFParseError {
+        bb.readerIndex(index);
+        OFMessageReader<OFMessage> reader = reader(bb.getUnsignedByte(index));
+        OFMessage message;
+        try {
+            message = reader.readFrom(bb);
+        } catch (OFParseError e) {
+            bb.readerIndex(index);
+            throw e;
+        }
+        if (message == null) {
+            bb.readerIndex(index);
+            throw new OFParseError("Message of length " + length + " could not be decoded from a complete frame");
+        }
+        // position the buffer after the frame, even if the reader did not consume all of it
+        bb.readerIndex(index + length);
+        return message;
+    }
+
+    private OFMessageReader<OFMessage> reader(int wireVersion) throws OFParseError {
+        OFVersion v = OFVersion.ofWireVersion(wireVersion);
+        if (v == null)
+            throw new OFParseError("Unknown wire version: " + wireVersion);
+        OFMessageReader<OFMessage> reader = readers[v.ordinal()];
+        if (reader == null)
+            throw new OFParseError("Received message of wire version " + wireVersion
+                    + " on a reader restricted to " + version);
+        return reader;
+    }
+}
@@ -0,0 +1,163 @@
+package org.projectfloodlight.openflow.protocol;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.nio.channels.GatheringByteChannel;
+
+import javax.annotation.Nonnull;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Serializes a batch of OpenFlow messages into a {@link CompositeByteBuf} of pooled direct
+ * chunks, e.g., for bulk flow programming after a switch connects.
+ *
+ * Each chunk has a capacity of the maximum chunk size, and is filled with as many complete
+ * messages as fit; messages are never split across chunks (a message longer than the maximum
+ * chunk size gets a chunk of its own). As the {@link OFObject#getWireLength() wire length} of
+ * each message is known up front, chunks never have to grow, and the batch is never copied
+ * into a contiguous buffer. The batch can be handed to netty via {@link #finish()}, or be
+ * written to a {@link GatheringByteChannel} with a single gathering write per call via
+ * {@link #writeTo(GatheringByteChannel)}.
+ *
+ * Instances are not thread-safe. A writer holds pooled buffers until the batch is finished
+ * or {@link #release() released}.
+ */
+public final class OFMessageBatchWriter {
+    /** default capacity of the chunks of a batch, in bytes */
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 64 * 1024;
+
+    private final ByteBufAllocator alloc;
+    private final int maxChunkSize;
+
+    private CompositeByteBuf batch;
+    private ByteBuf chunk;
+    private int messageCount;
+    private long byteCount;
+
+    /** Creates a writer with chunks of {@link #DEFAULT_MAX_CHUNK_SIZE} from the default pooled allocator */
+    public OFMessageBatchWriter() {
+        this(PooledByteBufAllocator.DEFAULT, DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * @param alloc the allocator to obtain the chunks from
+     * @param maxChunkSize the capacity of the chunks, in bytes
+     */
+    public OFMessageBatchWriter(@Nonnull ByteBufAllocator alloc, int maxChunkSize) {
+        this.alloc = checkNotNull(alloc, "alloc must not be null");
+        checkArgument(maxChunkSize > 0, "maxChunkSize must be positive, was: %s", maxChunkSize);
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * Appends a message to the batch.
+     *
+     * @param message the message to write
+     * @return this writer
+     */
+    public OFMessageBatchWriter write(@Nonnull OFMessage message) {
+        int length = message.getWireLength();
+        if (chunk == null || chunk.maxWritableBytes() < length) {
+            addChunk();
+            int capacity = Math.max(length, maxChunkSize);
+            chunk = alloc.directBuffer(capacity, capacity);
+        }
+        int start = chunk.writerIndex();
+        try {
+            message.writeTo(chunk);
+        } catch (RuntimeException e) {
+            chunk.writerIndex(start);
+            throw e;
+        }
+        messageCount++;
+        byteCount += chunk.writerIndex() - start;
+        return this;
+    }
+
+    /**
+     * Appends messages to the batch, in order.
+     *
+     * @param messages the messages to write
+     * @return this writer
+     */
+    public OFMessageBatchWriter writeAll(@Nonnull Iterable<? extends OFMessage> messages) {
+        for (OFMessage message : messages)
+            write(message);
+        return this;
+    }
+
+    /** @return the number of messages written to the current batch */
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    /** @return the number of bytes written to the current batch */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Writes as much of the pending bytes of the batch to the channel as the channel accepts,
+     * with a single gathering write. Bytes not accepted by a non-blocking channel remain
+     * pending, and are written by the next call. Messages written to the writer afterwards
+     * start a new chunk.
+     *
+     * @param channel the channel to write to
+     * @return the number of bytes written
+     * @throws IOException if the channel fails
+     */
+    public int writeTo(@Nonnull GatheringByteChannel channel) throws IOException {
+        addChunk();
+        if (batch == null || !batch.isReadable())
+            return 0;
+        int written = batch.readBytes(channel, batch.readableBytes());
+        batch.discardReadComponents();
+        return written;
+    }
+
+    /** @return the number of bytes that have not been written to a channel yet */
+    public int getPendingBytes() {
+        return (batch != null ? batch.readableBytes() : 0) + (chunk != null ? chunk.readableBytes() : 0);
+    }
+
+    /**
+     * Completes the current batch, and resets the writer and its counts for the next batch.
+     *
+     * @return the pending bytes of the batch. The caller takes ownership of the buffer, and is
+     *         responsible for releasing it (e.g., by writing it to a netty channel).
+     */
+    public CompositeByteBuf finish() {
+        addChunk();
+        CompositeByteBuf result = batch != null ? batch : alloc.compositeDirectBuffer(Integer.MAX_VALUE);
+        batch = null;
+        messageCount = 0;
+        byteCount = 0;
+        return result;
+    }
+
+    /** Releases the buffers of the current batch, and resets the writer and its counts. */
+    public void release() {
+        finish().release();
+    }
+
+    /** adds the current chunk, if any, to the batch */
+    private void addChunk() {
+        ByteBuf c = chunk;
+        if (c == null)
+            return;
+        chunk = null;
+        if (!c.isReadable()) {
+            c.release();
+            return;
+        }
+        if (batch == null)
+            batch = alloc.compositeDirectBuffer(Integer.MAX_VALUE);
+        batch.addComponent(true, c);
+    }
+}
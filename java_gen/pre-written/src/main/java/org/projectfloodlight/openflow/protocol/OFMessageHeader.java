@@ -0,0 +1,174 @@
+package org.projectfloodlight.openflow.protocol;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.ver10.OFStatsTypeSerializerVer10;
+import org.projectfloodlight.openflow.protocol.ver10.OFTypeSerializerVer10;
+import org.projectfloodlight.openflow.protocol.ver11.OFStatsTypeSerializerVer11;
+import org.projectfloodlight.openflow.protocol.ver11.OFTypeSerializerVer11;
+import org.projectfloodlight.openflow.protocol.ver12.OFStatsTypeSerializerVer12;
+import org.projectfloodlight.openflow.protocol.ver12.OFTypeSerializerVer12;
+import org.projectfloodlight.openflow.protocol.ver13.OFStatsTypeSerializerVer13;
+import org.projectfloodlight.openflow.protocol.ver13.OFTypeSerializerVer13;
+import org.projectfloodlight.openflow.protocol.ver14.OFStatsTypeSerializerVer14;
+import org.projectfloodlight.openflow.protocol.ver14.OFTypeSerializerVer14;
+import org.projectfloodlight.openflow.protocol.ver15.OFStatsTypeSerializerVer15;
+import org.projectfloodlight.openflow.protocol.ver15.OFTypeSerializerVer15;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reads the header fields of an OpenFlow message directly from a ByteBuf, without decoding
+ * the message. Intended for routing and filtering messages before (or instead of) decoding
+ * them.
+ *
+ * All methods read at absolute offsets relative to the reader index of the buffer and leave
+ * the reader and writer indexes untouched. None of them allocate. The methods returning
+ * the message type, the stats type, or the experimenter require the respective fields to
+ * be readable; use {@link #isComplete(ByteBuf)} to check for a complete message first.
+ */
+public final class OFMessageHeader {
+    /** length of the common OpenFlow header (version, type, length, xid) */
+    public static final int HEADER_LENGTH = 8;
+
+    /** returned by {@link #getExperimenter(ByteBuf)} for non-experimenter messages */
+    public static final long NO_EXPERIMENTER = -1L;
+
+    private static final int OFFSET_TYPE = 1;
+    private static final int OFFSET_LENGTH = 2;
+    private static final int OFFSET_XID = 4;
+    private static final int OFFSET_STATS_TYPE = 8;
+    private static final int OFFSET_EXPERIMENTER = 8;
+    private static final int OFFSET_STATS_EXPERIMENTER_10 = 12;
+    private static final int OFFSET_STATS_EXPERIMENTER = 16;
+
+    private OFMessageHeader() {
+    }
+
+    /** @return true iff the buffer contains a complete header, and the number of readable
+     *          bytes is at least the length of the message announced in the header */
+    public static boolean isComplete(@Nonnull ByteBuf bb) {
+        return bb.readableBytes() >= HEADER_LENGTH && bb.readableBytes() >= getLength(bb);
+    }
+
+    /** @return the unsigned wire version of the message. Requires one readable byte. */
+    public static int getWireVersion(@Nonnull ByteBuf bb) {
+        return bb.getUnsignedByte(bb.readerIndex());
+    }
+
+    /** @return the OpenFlow version of the message
+     *  @throws OFParseError if the wire version is unknown
+     */
+    @Nonnull
+    public static OFVersion getVersion(@Nonnull ByteBuf bb) throws OFParseError {
+        int wireVersion = getWireVersion(bb);
+        OFVersion version = OFVersion.ofWireVersion(wireVersion);
+        if (version == null)
+            throw new OFParseError("Unknown wire version: " + wireVersion);
+        return version;
+    }
+
+    /** @return the type of the message
+     *  @throws OFParseError if the wire version or the type is unknown
+     */
+    @Nonnull
+    public static OFType getType(@Nonnull ByteBuf bb) throws OFParseError {
+        OFVersion version = getVersion(bb);
+        byte type = bb.getByte(bb.readerIndex() + OFFSET_TYPE);
+        try {
+            switch (version) {
+                case OF_10:
+                    return OFTypeSerializerVer10.ofWireValue(type);
+                case OF_11:
+                    return OFTypeSerializerVer11.ofWireValue(type);
+                case OF_12:
+                    return OFTypeSerializerVer12.ofWireValue(type);
+                case OF_13:
+                    return OFTypeSerializerVer13.ofWireValue(type);
+                case OF_14:
+                    return OFTypeSerializerVer14.ofWireValue(type);
+                case OF_15:
+                    return OFTypeSerializerVer15.ofWireValue(type);
+                default:
+                    throw new OFParseError("Unknown version: " + version);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new OFParseError(e);
+        }
+    }
+
+    /** @return the length of the message in bytes, as announced in the header */
+    public static int getLength(@Nonnull ByteBuf bb) {
+        return bb.getUnsignedShort(bb.readerIndex() + OFFSET_LENGTH);
+    }
+
+    /** @return the transaction id of the message */
+    public static long getXid(@Nonnull ByteBuf bb) {
+        return bb.getUnsignedInt(bb.readerIndex() + OFFSET_XID);
+    }
+
+    /** @return true iff the message is a stats (multipart) request or reply
+     *  @throws OFParseError if the wire version is unknown
+     */
+    public static boolean isStats(@Nonnull ByteBuf bb) throws OFParseError {
+        OFVersion version = getVersion(bb);
+        byte type = bb.getByte(bb.readerIndex() + OFFSET_TYPE);
+        if (version == OFVersion.OF_10)
+            return type == OFTypeSerializerVer10.STATS_REQUEST_VAL || type == OFTypeSerializerVer10.STATS_REPLY_VAL;
+        else
+            // the stats type codes are identical for OF 1.1 and later
+            return type == OFTypeSerializerVer13.STATS_REQUEST_VAL || type == OFTypeSerializerVer13.STATS_REPLY_VAL;
+    }
+
+    /** @return the stats (multipart) type of the message, or null if the message is not a
+     *          stats request or reply
+     *  @throws OFParseError if the wire version or the stats type is unknown
+     */
+    @Nullable
+    public static OFStatsType getStatsType(@Nonnull ByteBuf bb) throws OFParseError {
+        if (!isStats(bb))
+            return null;
+        short statsType = bb.getShort(bb.readerIndex() + OFFSET_STATS_TYPE);
+        try {
+            switch (getVersion(bb)) {
+                case OF_10:
+                    return OFStatsTypeSerializerVer10.ofWireValue(statsType);
+                case OF_11:
+                    return OFStatsTypeSerializerVer11.ofWireValue(statsType);
+                case OF_12:
+                    return OFStatsTypeSerializerVer12.ofWireValue(statsType);
+                case OF_13:
+                    return OFStatsTypeSerializerVer13.ofWireValue(statsType);
+                case OF_14:
+                    return OFStatsTypeSerializerVer14.ofWireValue(statsType);
+                case OF_15:
+                    return OFStatsTypeSerializerVer15.ofWireValue(statsType);
+                default:
+                    throw new OFParseError("Unknown version: " + getVersion(bb));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new OFParseError(e);
+        }
+    }
+
+    /** @return the unsigned experimenter id of an experimenter message or an experimenter
+     *          stats request/reply, or {@link #NO_EXPERIMENTER} for all other messages
+     *  @throws OFParseError if the wire version is unknown
+     */
+    public static long getExperimenter(@Nonnull ByteBuf bb) throws OFParseError {
+        OFVersion version = getVersion(bb);
+        int start = bb.readerIndex();
+        byte type = bb.getByte(start + OFFSET_TYPE);
+        // the experimenter type code is identical for all versions
+        if (type == OFTypeSerializerVer13.EXPERIMENTER_VAL)
+            return bb.getUnsignedInt(start + OFFSET_EXPERIMENTER);
+        if (isStats(bb)
+                && bb.getShort(start + OFFSET_STATS_TYPE) == OFStatsTypeSerializerVer13.EXPERIMENTER_VAL) {
+            return bb.getUnsignedInt(start +
+                    (version == OFVersion.OF_10 ? OFFSET_STATS_EXPERIMENTER_10 : OFFSET_STATS_EXPERIMENTER));
+        }
+        return NO_EXPERIMENTER;
+    }
+}
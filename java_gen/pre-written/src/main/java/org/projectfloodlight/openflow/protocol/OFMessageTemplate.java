@@ -0,0 +1,342 @@
+package org.projectfloodlight.openflow.protocol;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.MacAddress;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.U64;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * A pre-encoded message with patchable fixed-width fields, for emitting many messages that
+ * only differ in a few values (e.g., the flow-mods and packet-outs of reactive forwarding).
+ *
+ * A template is defined from a supplier of fully populated message builders, plus a setter for
+ * each field that should be patchable. When the template is built, the message is serialized
+ * once; the wire offset of each field is then located by serializing the message with two probe
+ * values for the field, and comparing the results. Stamping a new message copies the template
+ * bytes and overwrites the fields in place, without going through the builders and writers:
+ *
+ * <pre>
+ * OFMessageTemplate.Definition&lt;OFFlowAdd.Builder&gt; def = OFMessageTemplate.define(
+ *         () -&gt; factory.buildFlowAdd().setMatch(match).setActions(actions));
+ * OFMessageTemplate.Field&lt;U64&gt; cookie = def.addField(OFFlowAdd.Builder::setCookie, FieldCodec.u64());
+ * OFMessageTemplate&lt;OFFlowAdd.Builder&gt; template = def.build();
+ *
+ * OFMessageTemplate&lt;OFFlowAdd.Builder&gt;.Stamp stamp = template.newStamp();
+ * stamp.setXid(xid).set(cookie, U64.of(42)).writeTo(bb);
+ * </pre>
+ *
+ * Only fields whose encoding has the same width for all values can be patched (e.g., cookies,
+ * ports, and the values of fixed width OXMs and set-field actions). A field whose probes change
+ * the message in more than one place, or change its length, is rejected when the template is
+ * built; so is a field whose setter changes bytes of the template message outside of the
+ * field, e.g., an OpenFlow 1.0 match field that is wildcarded in the template message.
+ *
+ * Templates are immutable and thread-safe; stamps are not, and are meant to be reused by a
+ * single thread.
+ *
+ * @param <B> the builder type of the message
+ */
+public final class OFMessageTemplate<B extends OFMessage.Builder> {
+    private static final int OFFSET_XID = 4;
+    private static final int XID_LENGTH = 4;
+
+    /** Encodes the values of a patchable field. All values must encode to the same width. */
+    public interface FieldCodec<V> {
+        /** @return the number of bytes {@link #write(ByteBuf, Object)} writes */
+        int getWidth();
+
+        /** writes the wire representation of value to bb, at its writer index */
+        void write(ByteBuf bb, V value);
+
+        /**
+         * @param i 0 or 1
+         * @return one of two distinct values used to locate the field in the message. The
+         *         encodings of the two probes should differ in every byte.
+         */
+        V probe(int i);
+
+        /** @return a codec for 64 bit values, e.g., cookies */
+        static FieldCodec<U64> u64() {
+            return new SimpleCodec<>(8, (bb, v) -> bb.writeLong(v.getValue()),
+                    U64.of(0x0101010101010101L), U64.of(0x0202020202020202L));
+        }
+
+        /** @return a codec for MAC addresses, e.g., the value of an ETH_DST OXM */
+        static FieldCodec<MacAddress> macAddress() {
+            return new SimpleCodec<>(6, (bb, v) -> v.write6Bytes(bb),
+                    MacAddress.of(0x010101010101L), MacAddress.of(0x020202020202L));
+        }
+
+        /** @return a codec for IPv4 addresses, e.g., the value of an IPV4_DST OXM */
+        static FieldCodec<IPv4Address> ipv4Address() {
+            return new SimpleCodec<>(4, (bb, v) -> v.write4Bytes(bb),
+                    IPv4Address.of(0x01010101), IPv4Address.of(0x02020202));
+        }
+
+        /** @return a codec for ports in messages of the given version (2 bytes in OpenFlow
+         *  1.0, 4 bytes otherwise) */
+        static FieldCodec<OFPort> port(@Nonnull OFVersion version) {
+            if (version == OFVersion.OF_10)
+                return new SimpleCodec<>(2, (bb, v) -> v.write2Bytes(bb),
+                        OFPort.of(0x0101), OFPort.of(0x0202));
+            else
+                return new SimpleCodec<>(4, (bb, v) -> v.write4Bytes(bb),
+                        OFPort.of(0x01010101), OFPort.of(0x02020202));
+        }
+    }
+
+    private static final class SimpleCodec<V> implements FieldCodec<V> {
+        private final int width;
+        private final BiConsumer<ByteBuf, V> writer;
+        private final V probe0;
+        private final V probe1;
+
+        SimpleCodec(int width, BiConsumer<ByteBuf, V> writer, V probe0, V probe1) {
+            this.width = width;
+            this.writer = writer;
+            this.probe0 = probe0;
+            this.probe1 = probe1;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public void write(ByteBuf bb, V value) {
+            writer.accept(bb, value);
+        }
+
+        @Override
+        public V probe(int i) {
+            return i == 0 ? probe0 : probe1;
+        }
+    }
+
+    /** A patchable field of a template. Obtained from {@link Definition#addField}. */
+    public static final class Field<V> {
+        private final Definition<?> definition;
+        private final int index;
+        private final FieldCodec<V> codec;
+
+        private Field(Definition<?> definition, int index, FieldCodec<V> codec) {
+            this.definition = definition;
+            this.index = index;
+            this.codec = codec;
+        }
+    }
+
+    /** Collects the patchable fields of a template. Not thread-safe. */
+    public static final class Definition<B extends OFMessage.Builder> {
+        private final Supplier<B> builderSupplier;
+        private final List<BiConsumer<B, ?>> setters = new ArrayList<>();
+        private final List<Field<?>> fields = new ArrayList<>();
+
+        private Definition(Supplier<B> builderSupplier) {
+            this.builderSupplier = builderSupplier;
+        }
+
+        /**
+         * Adds a patchable field.
+         *
+         * @param setter sets the field on a builder obtained from the supplier
+         * @param codec encodes the values of the field
+         * @return a handle to set the field on a {@link Stamp}
+         */
+        public <V> Field<V> addField(@Nonnull BiConsumer<B, V> setter, @Nonnull FieldCodec<V> codec) {
+            Field<V> field = new Field<>(this, fields.size(), checkNotNull(codec, "codec must not be null"));
+            setters.add(checkNotNull(setter, "setter must not be null"));
+            fields.add(field);
+            return field;
+        }
+
+        /**
+         * Serializes the message and locates the wire offsets of the fields.
+         *
+         * @return the template
+         * @throws IllegalArgumentException if a field cannot be located unambiguously
+         */
+        public OFMessageTemplate<B> build() {
+            byte[] wire = serialize(builderSupplier.get().build());
+            checkArgument(wire.length >= OFFSET_XID + XID_LENGTH, "Message too short: %s", wire.length);
+            int[] offsets = new int[fields.size()];
+            for (int i = 0; i < fields.size(); i++) {
+                offsets[i] = locate(wire, fields.get(i), setters.get(i));
+                checkArgument(!overlaps(offsets[i], fields.get(i).codec.getWidth(), OFFSET_XID, XID_LENGTH),
+                        "Field %s overlaps the xid", i);
+                for (int j = 0; j < i; j++) {
+                    checkArgument(!overlaps(offsets[i], fields.get(i).codec.getWidth(),
+                            offsets[j], fields.get(j).codec.getWidth()), "Fields %s and %s overlap", j, i);
+                }
+            }
+            return new OFMessageTemplate<>(this, wire, offsets);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V> int locate(byte[] wire, Field<V> field, BiConsumer<B, ?> untypedSetter) {
+            BiConsumer<B, V> setter = (BiConsumer<B, V>) untypedSetter;
+            FieldCodec<V> codec = field.codec;
+            int width = codec.getWidth();
+            int length = wire.length;
+
+            byte[][] probes = new byte[2][];
+            byte[][] encoded = new byte[2][];
+            for (int p = 0; p < 2; p++) {
+                B builder = builderSupplier.get();
+                setter.accept(builder, codec.probe(p));
+                probes[p] = serialize(builder.build());
+                checkArgument(probes[p].length == length,
+                        "Field %s changes the message length from %s to %s", field.index, length, probes[p].length);
+                ByteBuf bb = Unpooled.buffer(width);
+                codec.write(bb, codec.probe(p));
+                checkArgument(bb.readableBytes() == width,
+                        "Codec of field %s wrote %s bytes, expected %s", field.index, bb.readableBytes(), width);
+                encoded[p] = new byte[width];
+                bb.readBytes(encoded[p]);
+            }
+
+            int first = -1, last = -1;
+            for (int i = 0; i < length; i++) {
+                // builders may assign a new xid to each message
+                if (i >= OFFSET_XID && i < OFFSET_XID + XID_LENGTH)
+                    continue;
+                if (probes[0][i] != probes[1][i]) {
+                    if (first < 0)
+                        first = i;
+                    last = i;
+                }
+            }
+            checkArgument(first >= 0, "Field %s does not change the message", field.index);
+            checkArgument(last - first < width, "Field %s changes the message in more than one place", field.index);
+
+            int offset = -1;
+            for (int candidate = Math.max(0, last - width + 1); candidate <= first && candidate + width <= length; candidate++) {
+                if (matches(probes[0], candidate, encoded[0]) && matches(probes[1], candidate, encoded[1])) {
+                    checkArgument(offset < 0, "Field %s cannot be located unambiguously", field.index);
+                    offset = candidate;
+                }
+            }
+            checkArgument(offset >= 0, "Encoding of field %s not found in the message", field.index);
+
+            // setting the field must not change anything else, e.g., the OpenFlow 1.0 wildcards
+            for (int i = 0; i < length; i++) {
+                if ((i >= OFFSET_XID && i < OFFSET_XID + XID_LENGTH) || (i >= offset && i < offset + width))
+                    continue;
+                checkArgument(probes[0][i] == wire[i],
+                        "Field %s changes the message outside of the field, at offset %s", field.index, i);
+            }
+            return offset;
+        }
+    }
+
+    private final Definition<B> definition;
+    private final byte[] wire;
+    private final int[] offsets;
+
+    private OFMessageTemplate(Definition<B> definition, byte[] wire, int[] offsets) {
+        this.definition = definition;
+        this.wire = wire;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Starts the definition of a template.
+     *
+     * @param builderSupplier supplies a new, fully populated builder of the message on every call
+     * @return the definition, to add patchable fields to
+     */
+    public static <B extends OFMessage.Builder> Definition<B> define(@Nonnull Supplier<B> builderSupplier) {
+        return new Definition<>(checkNotNull(builderSupplier, "builderSupplier must not be null"));
+    }
+
+    /** @return the length of the stamped messages on the wire, in bytes */
+    public int getWireLength() {
+        return wire.length;
+    }
+
+    /** @return a new stamp, initialized with the template message */
+    public Stamp newStamp() {
+        return new Stamp();
+    }
+
+    /**
+     * A mutable copy of the template bytes, in which the fields can be overwritten. Fields that
+     * have not been set keep the value of the template message (or the value they have been
+     * set to last). Not thread-safe.
+     */
+    public final class Stamp {
+        private final byte[] bytes;
+        private final ByteBuf patch;
+
+        private Stamp() {
+            bytes = wire.clone();
+            patch = Unpooled.wrappedBuffer(bytes);
+        }
+
+        /** sets the xid of the message */
+        public Stamp setXid(long xid) {
+            patch.setInt(OFFSET_XID, (int) xid);
+            return this;
+        }
+
+        /** sets the given field of the message */
+        public <V> Stamp set(@Nonnull Field<V> field, @Nonnull V value) {
+            checkArgument(field.definition == definition, "Field is not defined in this template");
+            checkNotNull(value, "value must not be null");
+            patch.writerIndex(offsets[field.index]);
+            field.codec.write(patch, value);
+            return this;
+        }
+
+        /** writes the stamped message to bb */
+        public void writeTo(ByteBuf bb) {
+            bb.writeBytes(bytes);
+        }
+
+        /** @return a new array with the wire representation of the stamped message */
+        public byte[] toWireBytes() {
+            return bytes.clone();
+        }
+
+        /** @return the stamped message, decoded
+         *  @throws OFParseError if the message cannot be decoded */
+        public OFMessage decode() throws OFParseError {
+            return OFFactories.getGenericReader().readFrom(Unpooled.wrappedBuffer(bytes));
+        }
+    }
+
+    private static byte[] serialize(OFMessage message) {
+        byte[] result = new byte[message.getWireLength()];
+        ByteBuf bb = Unpooled.wrappedBuffer(result);
+        bb.writerIndex(0);
+        message.writeTo(bb);
+        return result;
+    }
+
+    private static boolean matches(byte[] bytes, int offset, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes[offset + i] != expected[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean overlaps(int offset1, int width1, int offset2, int width2) {
+        return offset1 < offset2 + width2 && offset2 < offset1 + width1;
+    }
+}
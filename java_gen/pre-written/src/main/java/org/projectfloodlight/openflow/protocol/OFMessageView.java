@@ -0,0 +1,38 @@
+package org.projectfloodlight.openflow.protocol;
+
+import io.netty.util.ReferenceCounted;
+
+/**
+ * A lazily decoded, read-only view of an {@link OFMessage}, backed by a retained slice of
+ * the buffer the message was read from.
+ *
+ * Views are obtained from {@link OFFactory#getViewReader()} or
+ * {@link OFFactories#getGenericViewReader()}. Fields located at a fixed offset in the
+ * message, including enums and the match, are decoded by an absolute read on every call of
+ * their getter, and the trailing data of packet-ins and packet-outs is copied from its
+ * offset. All other fields (e.g., those following a list or a match) cause the complete
+ * message to be decoded once via {@link #toMessage()}, and are served from that message
+ * afterwards. {@link #writeTo(io.netty.buffer.ByteBuf)} copies the original wire bytes
+ * without decoding.
+ *
+ * <b>Ownership</b>: a view holds a reference on the underlying buffer. The consumer of the
+ * view must {@link #release()} it when done. The view must not be accessed after it has been
+ * released; to keep the message around, convert it with {@link #toMessage()} before
+ * releasing the view.
+ *
+ * <b>Equality</b>: views are only equal to other views of the same message type with the
+ * same wire bytes, and are never equal to immutable messages. To compare a view with a
+ * message, compare its {@link #toMessage()}.
+ */
+public interface OFMessageView extends OFMessage, ReferenceCounted {
+    /** Returns the fully decoded, immutable message represented by this view. The message is
+     *  decoded at most once; subsequent calls return the same instance.
+     *
+     * @return the decoded message
+     * @throws IllegalStateException if the buffered message cannot be parsed
+     */
+    OFMessage toMessage();
+
+    /** @return the length of the viewed message on the wire, in bytes */
+    int getWireLength();
+}
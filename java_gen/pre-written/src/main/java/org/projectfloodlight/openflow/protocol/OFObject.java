@@ -2,10 +2,33 @@ package org.projectfloodlight.openflow.protocol;
 
 import org.projectfloodlight.openflow.types.PrimitiveSinkable;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 
 /**
  * Base interface of all OpenFlow objects (e.g., messages, actions, stats, etc.)
  */
 public interface OFObject extends Writeable, PrimitiveSinkable {
     OFVersion getVersion();
+
+    /**
+     * Serializes this object into a new buffer from the given allocator. The buffer is sized
+     * exactly to the {@link #getWireLength() wire length} of the object, so it never needs
+     * to grow.
+     *
+     * @param alloc the allocator to obtain the buffer from
+     * @return a buffer containing the wire representation of this object. The caller is
+     *         responsible for releasing it.
+     */
+    default ByteBuf writeTo(ByteBufAllocator alloc) {
+        int length = getWireLength();
+        ByteBuf bb = alloc.buffer(length, length);
+        try {
+            writeTo(bb);
+            return bb;
+        } catch (RuntimeException e) {
+            bb.release();
+            throw e;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package org.projectfloodlight.openflow.protocol;
 
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -7,6 +8,7 @@ import java.util.Map;
 import org.projectfloodlight.openflow.exceptions.OFParseError;
 import org.projectfloodlight.openflow.protocol.match.MatchField;
 import org.projectfloodlight.openflow.protocol.match.MatchFields;
+import org.projectfloodlight.openflow.protocol.match.Prerequisite;
 import org.projectfloodlight.openflow.protocol.oxm.OFOxm;
 import org.projectfloodlight.openflow.types.OFValueType;
 import org.projectfloodlight.openflow.types.PrimitiveSinkable;
@@ -15,25 +17,123 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Objects;
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Iterators;
 import com.google.common.hash.PrimitiveSink;
 
 import io.netty.buffer.ByteBuf;
 
+/** An immutable list of OXMs, with at most one OXM per match field, ordered by match field.
+ *
+ * <b>Interning</b>: when enabled via {@link #enableInterning()}, all lists created by
+ * {@link #ofList(Iterable)}, {@link #of(OFOxm...)}, the {@link Builder} and the match readers are
+ * hash-consed: equal OXMs and equal lists share one instance, held in weak concurrent tables.
+ * This reduces the heap used by large numbers of similar matches (e.g., a mirror of the flow
+ * tables of many switches), and lets {@link #equals(Object)} short-circuit on identity. It costs
+ * a table lookup per OXM and list created. Interning is disabled by default.
+ *
+ * <b>Representation</b>: the OXMs are held in a dense array sorted by the ordinal of their
+ * match field, together with a bitmap of the ordinals present. {@link #get(MatchField)} tests
+ * the bitmap, and finds the index of the OXM in the array by counting the bits set below its
+ * ordinal.
+ */
 public class OFOxmList implements Iterable<OFOxm<?>>, Writeable, PrimitiveSinkable {
     private static final Logger logger = LoggerFactory.getLogger(OFOxmList.class);
 
-    private final Map<MatchFields, OFOxm<?>> oxmMap;
+    /** the interners used for new lists, null if interning is disabled */
+    private static volatile Interning interning;
 
-    public final static OFOxmList EMPTY = new OFOxmList(ImmutableMap.<MatchFields, OFOxm<?>>of());
+    private static final OFOxm<?>[] NO_OXMS = new OFOxm<?>[0];
+    private static final long[] NO_FIELDS = new long[0];
 
-    private OFOxmList(Map<MatchFields, OFOxm<?>> oxmMap) {
-        this.oxmMap = oxmMap;
+    /** the OXMs of this list, sorted by the ordinal of their match field */
+    private final OFOxm<?>[] oxms;
+    /** bitmap of the ordinals of the match fields of oxms, trimmed to the highest set word */
+    private final long[] fields;
+    /** bitmap of the ordinals of the match fields of oxms whose prerequisites are satisfied,
+     *  computed on first use; volatile, as the array is published after it is filled */
+    private volatile long[] validFields;
+
+    public final static OFOxmList EMPTY = new OFOxmList(NO_OXMS, NO_FIELDS);
+
+    private OFOxmList(OFOxm<?>[] oxms, long[] fields) {
+        this.oxms = oxms;
+        this.fields = fields;
     }
 
     @SuppressWarnings("unchecked")
     public <T extends OFValueType<T>> OFOxm<T> get(MatchField<T> matchField) {
-        return (OFOxm<T>) oxmMap.get(matchField.id);
+        int ordinal = matchField.id.ordinal();
+        int word = ordinal >>> 6;
+        if(word >= fields.length)
+            return null;
+        long bit = 1L << ordinal;
+        if((fields[word] & bit) == 0)
+            return null;
+        int index = Long.bitCount(fields[word] & (bit - 1));
+        for(int i = 0; i < word; i++)
+            index += Long.bitCount(fields[i]);
+        return (OFOxm<T>) oxms[index];
+    }
+
+    /**
+     * Returns whether this list has an OXM for the match field, and the prerequisites of the
+     * field are satisfied by the OXMs of this list, as by {@link MatchField#arePrerequisitesOK}
+     * for a match with this list. The prerequisites of all fields are checked at once, on the
+     * first call; subsequent calls test a bit.
+     *
+     * @param matchField the match field
+     * @return whether the OXM of the field is in effect
+     */
+    public boolean arePrerequisitesOK(MatchField<?> matchField) {
+        long[] valid = validFields;
+        if(valid == null) {
+            valid = computeValidFields();
+            validFields = valid;
+        }
+        int ordinal = matchField.id.ordinal();
+        int word = ordinal >>> 6;
+        return word < valid.length && (valid[word] & (1L << ordinal)) != 0;
+    }
+
+    private long[] computeValidFields() {
+        long[] valid = new long[fields.length];
+        long[] checked = new long[fields.length];
+        for(OFOxm<?> oxm : oxms)
+            checkPrerequisites(oxm.getMatchField(), valid, checked);
+        return valid;
+    }
+
+    /** @return whether the field is present and its prerequisites are satisfied; memoized in valid */
+    private boolean checkPrerequisites(MatchField<?> matchField, long[] valid, long[] checked) {
+        int ordinal = matchField.id.ordinal();
+        int word = ordinal >>> 6;
+        long bit = 1L << ordinal;
+        if(word >= fields.length || (fields[word] & bit) == 0)
+            return false;
+        if((checked[word] & bit) != 0)
+            return (valid[word] & bit) != 0;
+        // marked before recursing, so that cyclic prerequisites are not satisfied
+        checked[word] |= bit;
+        for(Prerequisite<?> prerequisite : matchField.getPrerequisites()) {
+            if(!isSatisfied(prerequisite, valid, checked))
+                return false;
+        }
+        valid[word] |= bit;
+        return true;
+    }
+
+    private <T extends OFValueType<T>> boolean isSatisfied(Prerequisite<T> prerequisite, long[] valid,
+            long[] checked) {
+        MatchField<T> matchField = prerequisite.getMatchField();
+        return checkPrerequisites(matchField, valid, checked)
+                && prerequisite.isSatisfiedBy(get(matchField).getValue());
+    }
+
+    /** @return the number of OXMs in this list */
+    public int size() {
+        return oxms.length;
     }
 
     public static class Builder {
@@ -60,14 +160,17 @@ public class OFOxmList implements Iterable<OFOxm<?>>, Writeable, PrimitiveSinkab
         }
     }
 
+    /** @return an iterator over the OXMs of this list, in the order of their match fields */
     @Override
     public Iterator<OFOxm<?>> iterator() {
-        return oxmMap.values().iterator();
+        return Iterators.forArray(oxms);
     }
 
     public static OFOxmList ofList(Iterable<OFOxm<?>> oxmList) {
-        Map<MatchFields, OFOxm<?>> map = new EnumMap<>(
-                MatchFields.class);
+        // insertion sort by match field ordinal: lists are short
+        OFOxm<?>[] sorted = new OFOxm<?>[8];
+        int size = 0;
+        Interning interning = OFOxmList.interning;
         for (OFOxm<?> o : oxmList) {
             OFOxm<?> canonical = o.getCanonical();
 
@@ -75,27 +178,67 @@ public class OFOxmList implements Iterable<OFOxm<?>>, Writeable, PrimitiveSinkab
                 logger.debug("OFOxmList: normalized non-canonical OXM {} to {}", o, canonical);
             }
 
-            if(canonical != null)
-                map.put(canonical.getMatchField().id, canonical);
+            if(canonical != null) {
+                if(interning != null)
+                    canonical = interning.oxms.intern(canonical);
+                int ordinal = canonical.getMatchField().id.ordinal();
+                int pos = size;
+                while(pos > 0 && sorted[pos - 1].getMatchField().id.ordinal() > ordinal)
+                    pos--;
+                if(pos > 0 && sorted[pos - 1].getMatchField().id.ordinal() == ordinal) {
+                    // a later OXM for the same field replaces an earlier one
+                    sorted[pos - 1] = canonical;
+                    continue;
+                }
+                if(size == sorted.length)
+                    sorted = Arrays.copyOf(sorted, size * 2);
+                System.arraycopy(sorted, pos, sorted, pos + 1, size - pos);
+                sorted[pos] = canonical;
+                size++;
+            }
+
+        }
+        OFOxmList list = create(sorted, size);
+        return interning != null ? interning.lists.intern(list) : list;
+    }
 
+    /** @return a list of the first size OXMs of sorted, which are sorted by field ordinal */
+    private static OFOxmList create(OFOxm<?>[] sorted, int size) {
+        if(size == 0)
+            return EMPTY;
+        long[] fields = new long[(sorted[size - 1].getMatchField().id.ordinal() >>> 6) + 1];
+        for(int i = 0; i < size; i++) {
+            int ordinal = sorted[i].getMatchField().id.ordinal();
+            fields[ordinal >>> 6] |= 1L << ordinal;
         }
-        return new OFOxmList(map);
+        return new OFOxmList(size == sorted.length ? sorted : Arrays.copyOf(sorted, size), fields);
     }
 
     public static OFOxmList of(OFOxm<?>... oxms) {
-        Map<MatchFields, OFOxm<?>> map = new EnumMap<>(
-                MatchFields.class);
-        for (OFOxm<?> o : oxms) {
-            OFOxm<?> canonical = o.getCanonical();
+        return ofList(Arrays.asList(oxms));
+    }
 
-            if(logger.isDebugEnabled() && !Objects.equal(o, canonical)) {
-                logger.debug("OFOxmList: normalized non-canonical OXM {} to {}", o, canonical);
-            }
+    /** Enables interning of OXMs and OXM lists created from now on, see {@link OFOxmList}.
+     *  Has no effect if interning is already enabled. */
+    public static synchronized void enableInterning() {
+        if(interning == null)
+            interning = new Interning();
+    }
 
-            if(canonical != null)
-                map.put(canonical.getMatchField().id, canonical);
-        }
-        return new OFOxmList(map);
+    /** Disables interning of OXMs and OXM lists created from now on, and drops the interned
+     *  instances. */
+    public static synchronized void disableInterning() {
+        interning = null;
+    }
+
+    /** @return whether OXMs and OXM lists are interned, see {@link OFOxmList} */
+    public static boolean isInterningEnabled() {
+        return interning != null;
+    }
+
+    private static class Interning {
+        final Interner<OFOxm<?>> oxms = Interners.newWeakInterner();
+        final Interner<OFOxmList> lists = Interners.newWeakInterner();
     }
 
     public static OFOxmList readFrom(ByteBuf bb, int length,
@@ -110,15 +253,31 @@ public class OFOxmList implements Iterable<OFOxm<?>>, Writeable, PrimitiveSinkab
         }
     }
 
+    @Override
+    public int getWireLength() {
+        int length = 0;
+        for (OFOxm<?> o : this) {
+            length += o.getWireLength();
+        }
+        return length;
+    }
+
     public OFOxmList.Builder createBuilder() {
-        return new OFOxmList.Builder(new EnumMap<>(oxmMap));
+        EnumMap<MatchFields, OFOxm<?>> oxmMap = new EnumMap<>(MatchFields.class);
+        for (OFOxm<?> o : oxms)
+            oxmMap.put(o.getMatchField().id, o);
+        return new OFOxmList.Builder(oxmMap);
     }
 
     @Override
     public int hashCode() {
+        // same as the hash code of a Map from match field to OXM
+        int mapHash = 0;
+        for (OFOxm<?> o : oxms)
+            mapHash += o.getMatchField().id.hashCode() ^ o.hashCode();
         final int prime = 31;
         int result = 1;
-        result = prime * result + ((oxmMap == null) ? 0 : oxmMap.hashCode());
+        result = prime * result + mapHash;
         return result;
     }
 
@@ -131,17 +290,22 @@ public class OFOxmList implements Iterable<OFOxm<?>>, Writeable, PrimitiveSinkab
         if (getClass() != obj.getClass())
             return false;
         OFOxmList other = (OFOxmList) obj;
-        if (oxmMap == null) {
-            if (other.oxmMap != null)
-                return false;
-        } else if (!oxmMap.equals(other.oxmMap))
+        if (!Arrays.equals(fields, other.fields))
+            return false;
+        if (!Arrays.equals(oxms, other.oxms))
             return false;
         return true;
     }
 
     @Override
     public String toString() {
-        return "OFOxmList" + oxmMap;
+        StringBuilder b = new StringBuilder("OFOxmList{");
+        for (int i = 0; i < oxms.length; i++) {
+            if (i > 0)
+                b.append(", ");
+            b.append(oxms[i].getMatchField().id).append('=').append(oxms[i]);
+        }
+        return b.append('}').toString();
     }
 
     @Override
@@ -95,6 +95,15 @@ public class OFOxsList implements Iterable<OFOxs<?>>, Writeable, PrimitiveSinkab
         }
     }
 
+    @Override
+    public int getWireLength() {
+        int length = 0;
+        for (OFOxs<?> o : this) {
+            length += o.getWireLength();
+        }
+        return length;
+    }
+
     public OFOxsList.Builder createBuilder() {
         return new OFOxsList.Builder(new EnumMap<StatFields, OFOxs<?>>(oxsMap));
     }
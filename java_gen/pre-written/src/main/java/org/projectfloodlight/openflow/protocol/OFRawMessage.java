@@ -0,0 +1,176 @@
+package org.projectfloodlight.openflow.protocol;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.annotation.Nonnull;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+
+import com.google.common.hash.PrimitiveSink;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.AbstractReferenceCounted;
+
+/**
+ * An OpenFlow message that has not been decoded. Holds the header fields and a retained
+ * slice of the complete message as received on the wire.
+ *
+ * Raw messages are produced by {@link OFSelectiveMessageReader} for message types that the
+ * consumer is not interested in. They can be forwarded byte-for-byte via
+ * {@link #writeTo(ByteBuf)}, or be decoded on demand via {@link #decode()}.
+ *
+ * <b>Ownership</b>: a raw message holds a reference on the underlying buffer. The consumer
+ * must {@link #release()} it when done, and must not access it afterwards.
+ *
+ * Two raw messages are equal iff their wire representations are equal.
+ */
+public final class OFRawMessage extends AbstractReferenceCounted implements OFMessage {
+    private static final int OFFSET_XID = 4;
+    private static final int XID_LENGTH = 4;
+
+    private final OFVersion version;
+    private final OFType type;
+    private final long xid;
+    private final ByteBuf data;
+
+    /**
+     * @param version the version of the message
+     * @param type the type of the message
+     * @param xid the transaction id of the message
+     * @param data the complete message, including the header. The raw message takes over the
+     *        caller's reference on the buffer.
+     */
+    public OFRawMessage(@Nonnull OFVersion version, @Nonnull OFType type, long xid, @Nonnull ByteBuf data) {
+        this.version = checkNotNull(version, "version must not be null");
+        this.type = checkNotNull(type, "type must not be null");
+        this.xid = xid;
+        this.data = checkNotNull(data, "data must not be null");
+    }
+
+    @Override
+    public OFVersion getVersion() {
+        return version;
+    }
+
+    @Override
+    public OFType getType() {
+        return type;
+    }
+
+    @Override
+    public long getXid() {
+        return xid;
+    }
+
+    /** @return the length of the message on the wire, in bytes */
+    public int getLength() {
+        return data.readableBytes();
+    }
+
+    /** @return a duplicate of the buffer holding the wire representation of the message. The
+     *  duplicate shares the content and reference count of this message's buffer. */
+    public ByteBuf getData() {
+        return data.duplicate();
+    }
+
+    /** Decodes the message. Every call decodes the message anew.
+     *
+     * @return the decoded message
+     * @throws OFParseError if the message cannot be decoded
+     */
+    public OFMessage decode() throws OFParseError {
+        OFMessage message = OFFactories.getFactory(version).getReader().readFrom(data.duplicate());
+        if (message == null)
+            throw new OFParseError("Raw " + type + " message is truncated");
+        return message;
+    }
+
+    @Override
+    public void writeTo(ByteBuf bb) {
+        bb.writeBytes(data, data.readerIndex(), data.readableBytes());
+    }
+
+    @Override
+    public int getWireLength() {
+        return data.readableBytes();
+    }
+
+    @Override
+    public void putTo(PrimitiveSink sink) {
+        for (int i = data.readerIndex(); i < data.writerIndex(); i++)
+            sink.putByte(data.getByte(i));
+    }
+
+    /** {@inheritDoc}
+     *
+     * Decodes the message, see {@link #decode()}.
+     *
+     * @throws IllegalStateException if the message cannot be decoded
+     */
+    @Override
+    public Builder createBuilder() {
+        try {
+            return decode().createBuilder();
+        } catch (OFParseError e) {
+            throw new IllegalStateException("Cannot decode raw " + type + " message", e);
+        }
+    }
+
+    @Override
+    protected void deallocate() {
+        data.release();
+    }
+
+    @Override
+    public OFRawMessage touch(Object hint) {
+        data.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof OFRawMessage))
+            return false;
+        return data.equals(((OFRawMessage) obj).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return ByteBufUtil.hashCode(data);
+    }
+
+    @Override
+    public boolean equalsIgnoreXid(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof OFRawMessage))
+            return false;
+        ByteBuf other = ((OFRawMessage) obj).data;
+        if (data.readableBytes() != other.readableBytes())
+            return false;
+        int xidEnd = OFFSET_XID + XID_LENGTH;
+        return ByteBufUtil.equals(data, data.readerIndex(), other, other.readerIndex(), OFFSET_XID)
+                && ByteBufUtil.equals(data, data.readerIndex() + xidEnd, other, other.readerIndex() + xidEnd,
+                        data.readableBytes() - xidEnd);
+    }
+
+    @Override
+    public int hashCodeIgnoreXid() {
+        int result = 1;
+        for (int i = data.readerIndex(); i < data.writerIndex(); i++) {
+            int offset = i - data.readerIndex();
+            if (offset < OFFSET_XID || offset >= OFFSET_XID + XID_LENGTH)
+                result = 31 * result + data.getByte(i);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "OFRawMessage(version=" + version + ", type=" + type + ", xid=" + xid
+                + ", length=" + data.readableBytes() + ")";
+    }
+}
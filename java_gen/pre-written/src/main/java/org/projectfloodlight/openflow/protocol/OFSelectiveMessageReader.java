@@ -0,0 +1,102 @@
+package org.projectfloodlight.openflow.protocol;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A message reader that fully decodes only selected message types. All other messages are
+ * returned as {@link OFRawMessage}s, holding the header fields and a retained slice of the
+ * buffer, and can be forwarded or decoded later on.
+ *
+ * The selection is based on the {@link OFType} of the message, and can optionally be narrowed
+ * down for stats (multipart) messages by their {@link OFStatsType}, and for experimenter
+ * messages and experimenter stats messages by their experimenter id. A message is decoded
+ * iff
+ * <ul>
+ *     <li>its type is contained in the selected types, and</li>
+ *     <li>it is not a stats message, or no stats types have been configured, or its stats
+ *         type is contained in the selected stats types, and</li>
+ *     <li>it does not carry an experimenter id, or no experimenters have been configured, or
+ *         its experimenter id is contained in the selected experimenters.</li>
+ * </ul>
+ *
+ * The reader handles messages of all versions. Callers must release the raw messages
+ * returned. Instances are immutable and thread-safe.
+ */
+public final class OFSelectiveMessageReader implements OFMessageReader<OFMessage> {
+    private final EnumSet<OFType> types;
+    @Nullable
+    private final EnumSet<OFStatsType> statsTypes;
+    /** sorted, or null */
+    @Nullable
+    private final long[] experimenters;
+
+    /**
+     * @param types the message types to decode
+     */
+    public OFSelectiveMessageReader(@Nonnull EnumSet<OFType> types) {
+        this(types, null, null);
+    }
+
+    /**
+     * @param types the message types to decode
+     * @param statsTypes if not null, only decode stats messages of the given stats types
+     * @param experimenters if not null, only decode experimenter messages with the given
+     *        (unsigned 32 bit) experimenter ids
+     */
+    public OFSelectiveMessageReader(@Nonnull EnumSet<OFType> types,
+            @Nullable EnumSet<OFStatsType> statsTypes, @Nullable long[] experimenters) {
+        this.types = EnumSet.copyOf(checkNotNull(types, "types must not be null"));
+        this.statsTypes = statsTypes != null ? EnumSet.copyOf(statsTypes) : null;
+        if (experimenters != null) {
+            this.experimenters = experimenters.clone();
+            Arrays.sort(this.experimenters);
+        } else {
+            this.experimenters = null;
+        }
+    }
+
+    @Override
+    public OFMessage readFrom(ByteBuf bb) throws OFParseError {
+        if (bb.readableBytes() < OFMessageHeader.HEADER_LENGTH)
+            return null;
+        int length = OFMessageHeader.getLength(bb);
+        if (length < OFMessageHeader.HEADER_LENGTH)
+            throw new OFParseError("Wrong length: Expected to be >= " + OFMessageHeader.HEADER_LENGTH + ", was: " + length);
+        if (bb.readableBytes() < length)
+            return null;
+
+        OFVersion version = OFMessageHeader.getVersion(bb);
+        OFType type = OFMessageHeader.getType(bb);
+        if (isSelected(bb, type))
+            return OFFactories.getFactory(version).getReader().readFrom(bb);
+        else
+            return new OFRawMessage(version, type, OFMessageHeader.getXid(bb), bb.readRetainedSlice(length));
+    }
+
+    private boolean isSelected(ByteBuf bb, OFType type) throws OFParseError {
+        if (!types.contains(type))
+            return false;
+        if (statsTypes != null) {
+            OFStatsType statsType = OFMessageHeader.getStatsType(bb);
+            if (statsType != null && !statsTypes.contains(statsType))
+                return false;
+        }
+        if (experimenters != null) {
+            long experimenter = OFMessageHeader.getExperimenter(bb);
+            if (experimenter != OFMessageHeader.NO_EXPERIMENTER
+                    && Arrays.binarySearch(experimenters, experimenter) < 0)
+                return false;
+        }
+        return true;
+    }
+}
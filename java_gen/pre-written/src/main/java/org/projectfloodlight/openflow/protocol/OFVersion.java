@@ -1,8 +1,21 @@
 package org.projectfloodlight.openflow.protocol;
 
+import javax.annotation.Nullable;
+
 public enum OFVersion {
     OF_10(1), OF_11(2), OF_12(3), OF_13(4), OF_14(5), OF_15(6);
 
+    /** OFVersions, indexed by wire version */
+    private static final OFVersion[] BY_WIRE_VERSION;
+    static {
+        int maxWireVersion = 0;
+        for (OFVersion version : values())
+            maxWireVersion = Math.max(maxWireVersion, version.wireVersion);
+        BY_WIRE_VERSION = new OFVersion[maxWireVersion + 1];
+        for (OFVersion version : values())
+            BY_WIRE_VERSION[version.wireVersion] = version;
+    }
+
     public final int wireVersion;
 
     OFVersion(final int wireVersion) {
@@ -13,4 +26,10 @@ public enum OFVersion {
         return wireVersion;
     }
 
+    /** @return the version with the given wire version, or null if it is not supported */
+    @Nullable
+    public static OFVersion ofWireVersion(int wireVersion) {
+        return wireVersion >= 0 && wireVersion < BY_WIRE_VERSION.length ? BY_WIRE_VERSION[wireVersion] : null;
+    }
+
 }
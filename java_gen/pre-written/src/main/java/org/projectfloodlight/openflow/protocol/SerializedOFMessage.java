@@ -0,0 +1,185 @@
+package org.projectfloodlight.openflow.protocol;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.annotation.Nonnull;
+
+import com.google.common.hash.PrimitiveSink;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * An OpenFlow message together with its memoized wire representation.
+ *
+ * The message is serialized once, when the instance is created; {@link #writeTo(ByteBuf)}
+ * then copies the serialized bytes instead of traversing the object graph again. This is
+ * useful when the same message (e.g., a flow-mod, group-mod or packet-out) is sent to many
+ * switches, or resent repeatedly.
+ *
+ * Only the transaction id differs between the copies sent on different connections, so it is
+ * stamped at write time: {@link #withXid(long)} returns a copy that shares the serialized
+ * bytes and carries a different xid.
+ *
+ * Instances are immutable and thread-safe. Two serialized messages are equal iff their wire
+ * representations, including the xid, are equal.
+ *
+ * @see #of(OFMessage)
+ */
+public final class SerializedOFMessage implements OFMessage {
+    private static final int OFFSET_XID = 4;
+    private static final int XID_LENGTH = 4;
+
+    private final OFMessage message;
+    /** wire representation of message, with the xid of message */
+    private final byte[] wire;
+    private final long xid;
+
+    private SerializedOFMessage(OFMessage message, byte[] wire, long xid) {
+        this.message = message;
+        this.wire = wire;
+        this.xid = xid;
+    }
+
+    /**
+     * Serializes the given message.
+     *
+     * @param message the message to serialize
+     * @return a serialized message with the xid of the given message. If message already is a
+     *         SerializedOFMessage, it is returned as is.
+     */
+    public static SerializedOFMessage of(@Nonnull OFMessage message) {
+        checkNotNull(message, "message must not be null");
+        if (message instanceof SerializedOFMessage)
+            return (SerializedOFMessage) message;
+
+        byte[] wire = new byte[message.getWireLength()];
+        ByteBuf bb = Unpooled.wrappedBuffer(wire);
+        bb.writerIndex(0);
+        message.writeTo(bb);
+        if (bb.writerIndex() != wire.length)
+            throw new IllegalStateException("Wire length of " + message + " is " + wire.length
+                    + ", but " + bb.writerIndex() + " bytes were written");
+        return new SerializedOFMessage(message, wire, message.getXid());
+    }
+
+    /**
+     * @param xid the transaction id for the copy
+     * @return a copy of this message with the given xid, sharing the serialized bytes
+     */
+    public SerializedOFMessage withXid(long xid) {
+        if (xid == this.xid)
+            return this;
+        return new SerializedOFMessage(message, wire, xid);
+    }
+
+    /** @return the message with the xid of this serialized message. Builds a new message if
+     *  the xid has been changed by {@link #withXid(long)}. */
+    public OFMessage getMessage() {
+        if (xid == message.getXid())
+            return message;
+        return message.createBuilder().setXid(xid).build();
+    }
+
+    /** @return a new array with the wire representation of this message */
+    public byte[] toWireBytes() {
+        byte[] result = wire.clone();
+        result[OFFSET_XID] = (byte) (xid >>> 24);
+        result[OFFSET_XID + 1] = (byte) (xid >>> 16);
+        result[OFFSET_XID + 2] = (byte) (xid >>> 8);
+        result[OFFSET_XID + 3] = (byte) xid;
+        return result;
+    }
+
+    @Override
+    public OFVersion getVersion() {
+        return message.getVersion();
+    }
+
+    @Override
+    public OFType getType() {
+        return message.getType();
+    }
+
+    @Override
+    public long getXid() {
+        return xid;
+    }
+
+    @Override
+    public void writeTo(ByteBuf bb) {
+        bb.ensureWritable(wire.length);
+        bb.writeBytes(wire, 0, OFFSET_XID);
+        bb.writeInt((int) xid);
+        bb.writeBytes(wire, OFFSET_XID + XID_LENGTH, wire.length - OFFSET_XID - XID_LENGTH);
+    }
+
+    @Override
+    public int getWireLength() {
+        return wire.length;
+    }
+
+    @Override
+    public void putTo(PrimitiveSink sink) {
+        sink.putBytes(wire, 0, OFFSET_XID);
+        sink.putInt((int) xid);
+        sink.putBytes(wire, OFFSET_XID + XID_LENGTH, wire.length - OFFSET_XID - XID_LENGTH);
+    }
+
+    @Override
+    public Builder createBuilder() {
+        return message.createBuilder().setXid(xid);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof SerializedOFMessage))
+            return false;
+        SerializedOFMessage other = (SerializedOFMessage) obj;
+        return xid == other.xid && equalsIgnoreXid(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * hashCodeIgnoreXid() + Long.hashCode(xid);
+    }
+
+    @Override
+    public boolean equalsIgnoreXid(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof SerializedOFMessage))
+            return false;
+        byte[] otherWire = ((SerializedOFMessage) obj).wire;
+        if (wire == otherWire)
+            return true;
+        if (wire.length != otherWire.length)
+            return false;
+        for (int i = 0; i < wire.length; i++) {
+            if (i == OFFSET_XID) {
+                i += XID_LENGTH - 1;
+                continue;
+            }
+            if (wire[i] != otherWire[i])
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCodeIgnoreXid() {
+        int result = 1;
+        for (int i = 0; i < wire.length; i++) {
+            if (i < OFFSET_XID || i >= OFFSET_XID + XID_LENGTH)
+                result = 31 * result + wire[i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SerializedOFMessage(xid=" + xid + ", length=" + wire.length + ", message=" + message + ")";
+    }
+}
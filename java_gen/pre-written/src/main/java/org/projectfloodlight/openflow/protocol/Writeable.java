@@ -1,7 +1,24 @@
 package org.projectfloodlight.openflow.protocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 public interface Writeable {
     void writeTo(ByteBuf bb);
+
+    /**
+     * @return the number of bytes {@link #writeTo(ByteBuf)} writes for this object.
+     *
+     * The default implementation determines the length by serializing the object into a
+     * scratch buffer; implementations should override it with a direct computation.
+     */
+    default int getWireLength() {
+        ByteBuf bb = Unpooled.buffer();
+        try {
+            writeTo(bb);
+            return bb.readableBytes();
+        } finally {
+            bb.release();
+        }
+    }
 }
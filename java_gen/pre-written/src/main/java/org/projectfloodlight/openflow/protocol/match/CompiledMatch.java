@@ -0,0 +1,287 @@
+package org.projectfloodlight.openflow.protocol.match;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.types.Masked;
+import org.projectfloodlight.openflow.types.OFValueType;
+
+/**
+ * The bits of a {@link Match}, as a packed value and mask vector, for comparing matches with a
+ * few word-wise operations rather than field by field (see {@link Match#compile()}).
+ *
+ * The vectors hold the fields actually matched on (exact, or with a mask that is not all
+ * zeros), in the order of their {@link MatchFields} ordinal; each field occupies as many
+ * 64-bit words as its value takes, as funneled by {@link OFValueType#putTo}. Masks cover
+ * the bits the field has on the wire only (e.g., 48 bits for MAC addresses, or 20 bits for
+ * IPV6_FLABEL), exact fields have a mask of all of these bits, and values are stored
+ * masked. So compiled matches that match the same packets are {@link #equals(Object)
+ * equal}, regardless of how their fields were expressed: an exact field and the same field
+ * with a full mask compile alike, as do values that only differ outside of their mask.
+ * Fields whose prerequisites are not met are not part of the vectors.
+ *
+ * Instances are immutable.
+ */
+public final class CompiledMatch {
+    /** the compiled form of a match that matches all packets */
+    public static final CompiledMatch ALL = new CompiledMatch(new int[0], new int[] { 0 }, new long[0], new long[0]);
+
+    /** the ordinals of the fields, ascending */
+    final int[] fields;
+    /** the offsets of the words of the fields, followed by the total number of words */
+    final int[] offsets;
+    final long[] values;
+    final long[] masks;
+    /** bitmap of the fields, by ordinal */
+    final long[] present;
+    private final int hash;
+
+    private CompiledMatch(int[] fields, int[] offsets, long[] values, long[] masks) {
+        this.fields = fields;
+        this.offsets = offsets;
+        this.values = values;
+        this.masks = masks;
+        this.present = new long[PacketKey.PRESENT_WORDS];
+        for (int field : fields)
+            present[field / 64] |= 1L << field;
+        this.hash = 31 * (31 * Arrays.hashCode(fields) + Arrays.hashCode(values)) + Arrays.hashCode(masks);
+    }
+
+    /**
+     * Compiles a match. Prefer {@link Match#compile()}, which caches the result.
+     *
+     * @param match the match
+     * @return the compiled match
+     * @throws UnsupportedOperationException if the match does not support iterating its fields
+     */
+    public static CompiledMatch of(@Nonnull Match match) {
+        long[][] fieldValues = new long[PacketKey.FIELD_COUNT][];
+        long[][] fieldMasks = new long[PacketKey.FIELD_COUNT][];
+        int count = 0;
+        int words = 0;
+        for (MatchField<?> field : match.getMatchFields()) {
+            if (addField(match, field, fieldValues, fieldMasks)) {
+                count++;
+                words += fieldMasks[field.id.ordinal()].length;
+            }
+        }
+        if (count == 0)
+            return ALL;
+        int[] fields = new int[count];
+        int[] offsets = new int[count + 1];
+        long[] values = new long[words];
+        long[] masks = new long[words];
+        int i = 0;
+        int word = 0;
+        for (int field = 0; field < PacketKey.FIELD_COUNT; field++) {
+            long[] mask = fieldMasks[field];
+            if (mask == null)
+                continue;
+            long[] value = fieldValues[field];
+            fields[i] = field;
+            offsets[i++] = word;
+            for (int w = 0; w < mask.length; w++, word++) {
+                masks[word] = mask[w];
+                values[word] = w < value.length ? value[w] & mask[w] : 0;
+            }
+        }
+        offsets[count] = word;
+        return new CompiledMatch(fields, offsets, values, masks);
+    }
+
+    /** adds the value and mask of the field; returns false if the field matches any value */
+    private static <F extends OFValueType<F>> boolean addField(Match match, MatchField<F> field,
+            long[][] values, long[][] masks) {
+        int ordinal = field.id.ordinal();
+        if (match.isExact(field)) {
+            F value = match.get(field);
+            values[ordinal] = FieldBits.of(value);
+            masks[ordinal] = FieldBits.exactMask(field.id, value);
+            return true;
+        }
+        Masked<F> masked = match.getMasked(field);
+        if (masked == null)
+            return false;
+        long[] mask = FieldBits.of(masked.getMask());
+        if (FieldBits.bitWidth(field.id) >= 0) {
+            long[] bits = FieldBits.exactMask(field.id, masked.getMask());
+            for (int w = 0; w < mask.length; w++)
+                mask[w] &= bits[w];
+        }
+        boolean any = true;
+        for (long word : mask) {
+            if (word != 0)
+                any = false;
+        }
+        if (any)
+            return false;
+        values[ordinal] = FieldBits.of(masked.getValue());
+        masks[ordinal] = mask;
+        return true;
+    }
+
+    /** @return the number of fields matched on */
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    /** @return whether the match matches on the field */
+    public boolean isMatchingOn(@Nonnull MatchField<?> field) {
+        int ordinal = field.id.ordinal();
+        return (present[ordinal / 64] & (1L << ordinal)) != 0;
+    }
+
+    /** @return whether the match matches all packets */
+    public boolean isMatchAll() {
+        return fields.length == 0;
+    }
+
+    /**
+     * @param other the other match
+     * @return whether some packet matches both this match and the other match
+     */
+    public boolean overlaps(@Nonnull CompiledMatch other) {
+        int i = 0;
+        int j = 0;
+        while (i < fields.length && j < other.fields.length) {
+            if (fields[i] < other.fields[j]) {
+                i++;
+            } else if (fields[i] > other.fields[j]) {
+                j++;
+            } else {
+                for (int a = offsets[i], b = other.offsets[j]; a < offsets[i + 1]; a++, b++) {
+                    if (((values[a] ^ other.values[b]) & masks[a] & other.masks[b]) != 0)
+                        return false;
+                }
+                i++;
+                j++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param other the other match
+     * @return whether every packet matching the other match matches this match as well
+     */
+    public boolean subsumes(@Nonnull CompiledMatch other) {
+        int j = 0;
+        for (int i = 0; i < fields.length; i++) {
+            while (j < other.fields.length && other.fields[j] < fields[i])
+                j++;
+            if (j == other.fields.length || other.fields[j] != fields[i])
+                return false;
+            for (int a = offsets[i], b = other.offsets[j]; a < offsets[i + 1]; a++, b++) {
+                if ((masks[a] & ~other.masks[b]) != 0 || ((values[a] ^ other.values[b]) & masks[a]) != 0)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param other the other match
+     * @return the match of the packets matching both this match and the other match, or null
+     *         if there are no such packets
+     */
+    @Nullable
+    public CompiledMatch intersect(@Nonnull CompiledMatch other) {
+        if (!overlaps(other))
+            return null;
+        if (subsumes(other))
+            return other;
+        if (other.subsumes(this))
+            return this;
+        int[] resultFields = new int[fields.length + other.fields.length];
+        int[] resultOffsets = new int[resultFields.length + 1];
+        long[] resultValues = new long[values.length + other.values.length];
+        long[] resultMasks = new long[resultValues.length];
+        int count = 0;
+        int word = 0;
+        int i = 0;
+        int j = 0;
+        while (i < fields.length || j < other.fields.length) {
+            resultOffsets[count] = word;
+            if (j == other.fields.length || (i < fields.length && fields[i] < other.fields[j])) {
+                resultFields[count++] = fields[i];
+                for (int a = offsets[i]; a < offsets[i + 1]; a++, word++) {
+                    resultValues[word] = values[a];
+                    resultMasks[word] = masks[a];
+                }
+                i++;
+            } else if (i == fields.length || fields[i] > other.fields[j]) {
+                resultFields[count++] = other.fields[j];
+                for (int b = other.offsets[j]; b < other.offsets[j + 1]; b++, word++) {
+                    resultValues[word] = other.values[b];
+                    resultMasks[word] = other.masks[b];
+                }
+                j++;
+            } else {
+                resultFields[count++] = fields[i];
+                for (int a = offsets[i], b = other.offsets[j]; a < offsets[i + 1]; a++, b++, word++) {
+                    resultValues[word] = values[a] | other.values[b];
+                    resultMasks[word] = masks[a] | other.masks[b];
+                }
+                i++;
+                j++;
+            }
+        }
+        resultOffsets[count] = word;
+        return new CompiledMatch(Arrays.copyOf(resultFields, count), Arrays.copyOf(resultOffsets, count + 1),
+                Arrays.copyOf(resultValues, word), Arrays.copyOf(resultMasks, word));
+    }
+
+    /**
+     * @param packet the packet
+     * @return whether the packet matches; fields the packet has no value for do not match
+     */
+    public boolean matches(@Nonnull PacketKey packet) {
+        for (int i = 0; i < present.length; i++) {
+            if ((present[i] & ~packet.present[i]) != 0)
+                return false;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            long[] value = packet.bits[fields[i]];
+            for (int a = offsets[i], w = 0; a < offsets[i + 1]; a++, w++) {
+                if (((w < value.length ? value[w] : 0) & masks[a]) != values[a])
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof CompiledMatch))
+            return false;
+        CompiledMatch other = (CompiledMatch) obj;
+        return hash == other.hash && Arrays.equals(fields, other.fields) && Arrays.equals(values, other.values)
+                && Arrays.equals(masks, other.masks);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        MatchFields[] ids = MatchFields.values();
+        StringBuilder sb = new StringBuilder("CompiledMatch(");
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(ids[fields[i]]).append('=');
+            for (int a = offsets[i]; a < offsets[i + 1]; a++)
+                sb.append(String.format("%016x", values[a]));
+            sb.append('/');
+            for (int a = offsets[i]; a < offsets[i + 1]; a++)
+                sb.append(String.format("%016x", masks[a]));
+        }
+        return sb.append(')').toString();
+    }
+}
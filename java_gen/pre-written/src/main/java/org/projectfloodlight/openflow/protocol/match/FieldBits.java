@@ -0,0 +1,181 @@
+package org.projectfloodlight.openflow.protocol.match;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.projectfloodlight.openflow.types.PrimitiveSinkable;
+
+import com.google.common.hash.PrimitiveSink;
+
+/**
+ * Collects the bits of a match field value, as funneled by its
+ * {@link PrimitiveSinkable#putTo(PrimitiveSink)}, into an array of longs: byte i of the
+ * value ends up in word i / 8, most significant byte first. Values and masks of the same
+ * type are funneled the same way, so masking their words is equivalent to
+ * {@link org.projectfloodlight.openflow.types.OFValueType#applyMask applyMask}.
+ *
+ * Some types are funneled wider than the fields they hold, e.g., MAC addresses as a long,
+ * or the 20-bit IPv6 flow label as an int. The value of such a field is in the low-order
+ * bits of what is funneled, and {@link #bitWidth(MatchFields)} tells how many there are.
+ */
+final class FieldBits implements PrimitiveSink {
+    private long[] words = new long[2];
+    private int length;
+
+    private FieldBits() {
+    }
+
+    /** @return the bits of the value */
+    static long[] of(PrimitiveSinkable value) {
+        FieldBits bits = new FieldBits();
+        value.putTo(bits);
+        return bits.words();
+    }
+
+    /** @return the bits of a mask matching all bits the field has in the value */
+    static long[] exactMask(MatchFields field, PrimitiveSinkable value) {
+        FieldBits bits = new FieldBits();
+        value.putTo(bits);
+        int width = bitWidth(field);
+        FieldBits ones = new FieldBits();
+        for (int i = 0; i < bits.length; i++) {
+            // the bit position of the least significant bit of byte i
+            int low = 8 * (bits.length - 1 - i);
+            if (width < 0 || width >= low + 8)
+                ones.putByte((byte) 0xff);
+            else if (width <= low)
+                ones.putByte((byte) 0);
+            else
+                ones.putByte((byte) ((1 << (width - low)) - 1));
+        }
+        return ones.words();
+    }
+
+    /**
+     * @param field the field
+     * @return the number of bits of the field, i.e., the width of the field on the wire, or
+     *         -1 if the field has all bits funneled by its type
+     */
+    static int bitWidth(MatchFields field) {
+        switch (field) {
+            case ETH_DST:
+            case ETH_SRC:
+            case ARP_SHA:
+            case ARP_THA:
+            case IPV6_ND_SLL:
+            case IPV6_ND_TLL:
+            case BSN_INNER_ETH_DST:
+            case BSN_INNER_ETH_SRC:
+                return 48;
+            case BSN_VXLAN_NETWORK_ID:
+                return 24;
+            case IPV6_FLABEL:
+            case MPLS_LABEL:
+                return 20;
+            case ETH_TYPE:
+                return 16;
+            case VLAN_VID:
+            case BSN_INNER_VLAN_VID:
+                // the 12-bit VLAN id, and the OFPVID_PRESENT bit
+                return 13;
+            case IPV6_EXTHDR:
+                return 9;
+            case IP_DSCP:
+                return 6;
+            case VLAN_PCP:
+            case MPLS_TC:
+                return 3;
+            case IP_ECN:
+                return 2;
+            case MPLS_BOS:
+            case PBB_UCA:
+            case BSN_GLOBAL_VRF_ALLOWED:
+            case BSN_L2_CACHE_HIT:
+            case BSN_IP_FRAGMENTATION:
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    private long[] words() {
+        return Arrays.copyOf(words, (length + 7) / 8);
+    }
+
+    @Override
+    public PrimitiveSink putByte(byte b) {
+        int word = length / 8;
+        if (word == words.length)
+            words = Arrays.copyOf(words, words.length * 2);
+        words[word] |= (b & 0xffL) << (56 - 8 * (length % 8));
+        length++;
+        return this;
+    }
+
+    @Override
+    public PrimitiveSink putBytes(byte[] bytes) {
+        return putBytes(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public PrimitiveSink putBytes(byte[] bytes, int off, int len) {
+        for (int i = off; i < off + len; i++)
+            putByte(bytes[i]);
+        return this;
+    }
+
+    @Override
+    public PrimitiveSink putBytes(ByteBuffer bytes) {
+        while (bytes.hasRemaining())
+            putByte(bytes.get());
+        return this;
+    }
+
+    @Override
+    public PrimitiveSink putShort(short s) {
+        return putByte((byte) (s >>> 8)).putByte((byte) s);
+    }
+
+    @Override
+    public PrimitiveSink putInt(int i) {
+        return putShort((short) (i >>> 16)).putShort((short) i);
+    }
+
+    @Override
+    public PrimitiveSink putLong(long l) {
+        return putInt((int) (l >>> 32)).putInt((int) l);
+    }
+
+    @Override
+    public PrimitiveSink putFloat(float f) {
+        return putInt(Float.floatToRawIntBits(f));
+    }
+
+    @Override
+    public PrimitiveSink putDouble(double d) {
+        return putLong(Double.doubleToRawLongBits(d));
+    }
+
+    @Override
+    public PrimitiveSink putBoolean(boolean b) {
+        return putByte(b ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    public PrimitiveSink putChar(char c) {
+        return putShort((short) c);
+    }
+
+    @Override
+    public PrimitiveSink putUnencodedChars(CharSequence charSequence) {
+        for (int i = 0; i < charSequence.length(); i++)
+            putChar(charSequence.charAt(i));
+        return this;
+    }
+
+    @Override
+    public PrimitiveSink putString(CharSequence charSequence, Charset charset) {
+        return putBytes(charSequence.toString().getBytes(charset));
+    }
+}
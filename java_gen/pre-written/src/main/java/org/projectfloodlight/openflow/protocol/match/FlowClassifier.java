@@ -0,0 +1,398 @@
+package org.projectfloodlight.openflow.protocol.match;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.types.OFValueType;
+
+/**
+ * Classifies packets against a set of prioritized rules, like the flow table of a switch:
+ * {@link #classify(PacketKey)} returns the value of the highest priority rule whose match
+ * matches the packet. Rules are identified by their match and priority, as flows are.
+ *
+ * The classifier implements tuple space search: rules are grouped into tuples by the
+ * signature of their match, i.e., the set of fields matched on along with their masks. All
+ * rules of a tuple mask a packet the same way, so each tuple looks up the masked packet
+ * fields in a hash table. A lookup thus costs one hash probe per tuple rather than one match
+ * per rule; tuples are visited by descending maximum priority, and the search stops as soon
+ * as no remaining tuple can hold a rule of higher priority than the best one found. Which
+ * of several matching rules of the same priority wins is unspecified, as it is in OpenFlow.
+ *
+ * Matches are compared in their {@link Match#compile() compiled} form: field values are
+ * compared by their bit representation, as funneled by {@link OFValueType#putTo}, and masks
+ * of all ones are equivalent to exact matches. Lookups do
+ * not allocate. Instances are not thread-safe: concurrent lookups are safe only in the
+ * absence of concurrent modifications.
+ *
+ * @param <T> the type of the values of the rules (e.g., flow stats entries)
+ */
+public final class FlowClassifier<T> {
+    private final Map<Signature, Tuple<T>> tuplesBySignature = new HashMap<>();
+    /** the tuples, by descending maximum priority */
+    @SuppressWarnings("unchecked")
+    private Tuple<T>[] tuples = new Tuple[0];
+    private int size;
+
+    /**
+     * Adds a rule, replacing the value of the rule with the same match and priority, if any.
+     *
+     * @param match the match of the rule
+     * @param priority the priority of the rule
+     * @param value the value of the rule
+     * @return the replaced value, or null if the rule is new
+     */
+    @Nullable
+    public T insert(@Nonnull Match match, int priority, @Nonnull T value) {
+        checkNotNull(value, "value must not be null");
+        RuleKey key = RuleKey.of(match);
+        Tuple<T> tuple = tuplesBySignature.get(key.signature);
+        if (tuple == null) {
+            tuple = new Tuple<>(key.signature);
+            tuplesBySignature.put(key.signature, tuple);
+            tuples = Arrays.copyOf(tuples, tuples.length + 1);
+            tuples[tuples.length - 1] = tuple;
+        }
+        int maxPriority = tuple.maxPriority;
+        T replaced = tuple.insert(key.bits, priority, value);
+        if (replaced == null)
+            size++;
+        if (tuple.maxPriority != maxPriority || tuple.size == 1)
+            sortTuples();
+        return replaced;
+    }
+
+    /**
+     * Removes the rule with the given match and priority.
+     *
+     * @param match the match of the rule
+     * @param priority the priority of the rule
+     * @return the value of the removed rule, or null if there is no such rule
+     */
+    @Nullable
+    public T remove(@Nonnull Match match, int priority) {
+        RuleKey key = RuleKey.of(match);
+        Tuple<T> tuple = tuplesBySignature.get(key.signature);
+        if (tuple == null)
+            return null;
+        int maxPriority = tuple.maxPriority;
+        T removed = tuple.remove(key.bits, priority);
+        if (removed == null)
+            return null;
+        size--;
+        if (tuple.size == 0) {
+            tuplesBySignature.remove(key.signature);
+            removeTuple(tuple);
+        } else if (tuple.maxPriority != maxPriority) {
+            sortTuples();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the value of the highest priority rule matching the packet.
+     *
+     * @param packet the packet
+     * @return the value of the matching rule, or null if no rule matches
+     */
+    @Nullable
+    public T classify(@Nonnull PacketKey packet) {
+        Rule<T> best = null;
+        for (Tuple<T> tuple : tuples) {
+            if (best != null && tuple.maxPriority <= best.priority)
+                break;
+            Rule<T> rule = tuple.lookup(packet);
+            if (rule != null && (best == null || rule.priority > best.priority))
+                best = rule;
+        }
+        return best != null ? best.value : null;
+    }
+
+    /** @return the number of rules */
+    public int size() {
+        return size;
+    }
+
+    /** @return the number of distinct match signatures of the rules */
+    public int getTupleCount() {
+        return tuples.length;
+    }
+
+    /** Removes all rules. */
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        tuplesBySignature.clear();
+        tuples = new Tuple[0];
+        size = 0;
+    }
+
+    private void sortTuples() {
+        // insertion sort, linear as at most one tuple is out of place
+        for (int i = 1; i < tuples.length; i++) {
+            Tuple<T> tuple = tuples[i];
+            int j = i - 1;
+            while (j >= 0 && tuples[j].maxPriority < tuple.maxPriority) {
+                tuples[j + 1] = tuples[j];
+                j--;
+            }
+            tuples[j + 1] = tuple;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeTuple(Tuple<T> tuple) {
+        Tuple<T>[] result = new Tuple[tuples.length - 1];
+        int i = 0;
+        for (Tuple<T> t : tuples) {
+            if (t != tuple)
+                result[i++] = t;
+        }
+        tuples = result;
+    }
+
+    /** mixes a word into a hash */
+    private static long mix(long hash, long word) {
+        return (hash ^ word) * 0x9E3779B97F4A7C15L;
+    }
+
+    /** the fields matched on by a tuple, along with their masks (see {@link CompiledMatch}) */
+    private static final class Signature {
+        final int[] fields;
+        final int[] offsets;
+        final long[] masks;
+        final long[] present;
+
+        Signature(CompiledMatch match) {
+            this.fields = match.fields;
+            this.offsets = match.offsets;
+            this.masks = match.masks;
+            this.present = match.present;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Signature))
+                return false;
+            Signature other = (Signature) obj;
+            return Arrays.equals(fields, other.fields) && Arrays.equals(masks, other.masks);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(fields) + Arrays.hashCode(masks);
+        }
+    }
+
+    /** the signature and the masked field bits of the match of a rule */
+    private static final class RuleKey {
+        final Signature signature;
+        final long[] bits;
+
+        private RuleKey(CompiledMatch match) {
+            this.signature = new Signature(match);
+            this.bits = match.values;
+        }
+
+        static RuleKey of(Match match) {
+            return new RuleKey(match.compile());
+        }
+    }
+
+    /** a rule; the rules with the same masked key are chained by descending priority */
+    private static final class Rule<T> {
+        final int priority;
+        T value;
+        Rule<T> next;
+
+        Rule(int priority, T value) {
+            this.priority = priority;
+            this.value = value;
+        }
+    }
+
+    /** the rules with the same masked key; the nodes of a hash bucket are chained */
+    private static final class Node<T> {
+        final long[] bits;
+        final int hash;
+        Rule<T> rules;
+        Node<T> next;
+
+        Node(long[] bits, int hash) {
+            this.bits = bits;
+            this.hash = hash;
+        }
+    }
+
+    /** the rules of one signature, hashed by their masked key */
+    private static final class Tuple<T> {
+        final Signature signature;
+        @SuppressWarnings("unchecked")
+        Node<T>[] buckets = new Node[16];
+        int nodeCount;
+        int size;
+        int maxPriority = Integer.MIN_VALUE;
+
+        Tuple(Signature signature) {
+            this.signature = signature;
+        }
+
+        private static int hash(long[] bits) {
+            long hash = 0;
+            for (long word : bits)
+                hash = mix(hash, word);
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        private Node<T> node(long[] bits, int hash) {
+            for (Node<T> node = buckets[hash & (buckets.length - 1)]; node != null; node = node.next) {
+                if (node.hash == hash && Arrays.equals(node.bits, bits))
+                    return node;
+            }
+            return null;
+        }
+
+        T insert(long[] bits, int priority, T value) {
+            int hash = hash(bits);
+            Node<T> node = node(bits, hash);
+            if (node == null) {
+                if (nodeCount >= buckets.length * 3 / 4)
+                    resize();
+                node = new Node<>(bits, hash);
+                int index = hash & (buckets.length - 1);
+                node.next = buckets[index];
+                buckets[index] = node;
+                nodeCount++;
+            }
+            Rule<T> prev = null;
+            Rule<T> rule = node.rules;
+            while (rule != null && rule.priority > priority) {
+                prev = rule;
+                rule = rule.next;
+            }
+            if (rule != null && rule.priority == priority) {
+                T replaced = rule.value;
+                rule.value = value;
+                return replaced;
+            }
+            Rule<T> added = new Rule<>(priority, value);
+            added.next = rule;
+            if (prev == null)
+                node.rules = added;
+            else
+                prev.next = added;
+            size++;
+            maxPriority = Math.max(maxPriority, priority);
+            return null;
+        }
+
+        T remove(long[] bits, int priority) {
+            int hash = hash(bits);
+            Node<T> node = node(bits, hash);
+            if (node == null)
+                return null;
+            Rule<T> prev = null;
+            Rule<T> rule = node.rules;
+            while (rule != null && rule.priority > priority) {
+                prev = rule;
+                rule = rule.next;
+            }
+            if (rule == null || rule.priority != priority)
+                return null;
+            if (prev == null)
+                node.rules = rule.next;
+            else
+                prev.next = rule.next;
+            size--;
+            if (node.rules == null)
+                removeNode(node);
+            if (priority == maxPriority)
+                updateMaxPriority();
+            return rule.value;
+        }
+
+        private void removeNode(Node<T> node) {
+            int index = node.hash & (buckets.length - 1);
+            Node<T> prev = null;
+            for (Node<T> n = buckets[index]; n != null; prev = n, n = n.next) {
+                if (n == node) {
+                    if (prev == null)
+                        buckets[index] = n.next;
+                    else
+                        prev.next = n.next;
+                    nodeCount--;
+                    return;
+                }
+            }
+        }
+
+        private void updateMaxPriority() {
+            int max = Integer.MIN_VALUE;
+            for (Node<T> bucket : buckets) {
+                for (Node<T> node = bucket; node != null; node = node.next)
+                    max = Math.max(max, node.rules.priority);
+            }
+            maxPriority = max;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resize() {
+            Node<T>[] old = buckets;
+            buckets = new Node[old.length * 2];
+            for (Node<T> bucket : old) {
+                Node<T> node = bucket;
+                while (node != null) {
+                    Node<T> next = node.next;
+                    int index = node.hash & (buckets.length - 1);
+                    node.next = buckets[index];
+                    buckets[index] = node;
+                    node = next;
+                }
+            }
+        }
+
+        /** @return the highest priority rule matching the packet, or null */
+        Rule<T> lookup(PacketKey packet) {
+            long[] present = signature.present;
+            for (int i = 0; i < present.length; i++) {
+                if ((present[i] & ~packet.present[i]) != 0)
+                    return null;
+            }
+            int[] fields = signature.fields;
+            int[] offsets = signature.offsets;
+            long[] masks = signature.masks;
+            long hash = 0;
+            for (int f = 0; f < fields.length; f++) {
+                long[] value = packet.bits[fields[f]];
+                for (int a = offsets[f], w = 0; a < offsets[f + 1]; a++, w++)
+                    hash = mix(hash, w < value.length ? value[w] & masks[a] : 0);
+            }
+            int h = (int) (hash ^ (hash >>> 32));
+            for (Node<T> node = buckets[h & (buckets.length - 1)]; node != null; node = node.next) {
+                if (node.hash == h && matches(node.bits, packet))
+                    return node.rules;
+            }
+            return null;
+        }
+
+        private boolean matches(long[] bits, PacketKey packet) {
+            int[] fields = signature.fields;
+            int[] offsets = signature.offsets;
+            long[] masks = signature.masks;
+            for (int f = 0; f < fields.length; f++) {
+                long[] value = packet.bits[fields[f]];
+                for (int a = offsets[f], w = 0; a < offsets[f + 1]; a++, w++) {
+                    if ((w < value.length ? value[w] & masks[a] : 0) != bits[a])
+                        return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.projectfloodlight.openflow.protocol.match;
 
 import org.projectfloodlight.openflow.protocol.OFObject;
+import org.projectfloodlight.openflow.protocol.OFVersion;
 import org.projectfloodlight.openflow.types.Masked;
 import org.projectfloodlight.openflow.types.OFValueType;
 
@@ -134,6 +135,45 @@ public interface Match extends OFObject {
      */
     public Iterable<MatchField<?>> getMatchFields();
 
+    /**
+     * Returns the compiled form of this match, a packed bit vector for fast comparisons. The
+     * generated implementations compute it on first use, and cache it.
+     *
+     * @return the compiled match
+     * @throws UnsupportedOperationException if the match does not support iterating its fields
+     */
+    default CompiledMatch compile() {
+        return CompiledMatch.of(this);
+    }
+
+    /**
+     * @param other the other match
+     * @return whether some packet matches both this match and the other match
+     * @see CompiledMatch#overlaps(CompiledMatch)
+     */
+    default boolean overlaps(Match other) {
+        return compile().overlaps(other.compile());
+    }
+
+    /**
+     * @param other the other match
+     * @return whether every packet matching the other match matches this match as well
+     * @see CompiledMatch#subsumes(CompiledMatch)
+     */
+    default boolean subsumes(Match other) {
+        return compile().subsumes(other.compile());
+    }
+
+    /**
+     * @param other the other match
+     * @return the compiled match of the packets matching both this match and the other match,
+     *         or null if there are no such packets
+     * @see CompiledMatch#intersect(CompiledMatch)
+     */
+    default CompiledMatch intersect(Match other) {
+        return compile().intersect(other.compile());
+    }
+
     /**
      * Returns a builder to build new instances of this type of match object.
      * @return Match builder
@@ -154,6 +194,9 @@ public interface Match extends OFObject {
      * @author Yotam Harchol (yotam.harchol@bigswitch.com)
      */
     interface Builder {
+        /** @return the OpenFlow version of the match built */
+        public OFVersion getVersion();
+
         public <F extends OFValueType<F>> F get(MatchField<F> field) throws UnsupportedOperationException;
 
         public <F extends OFValueType<F>> Masked<F> getMasked(MatchField<F> field) throws UnsupportedOperationException;
@@ -0,0 +1,215 @@
+package org.projectfloodlight.openflow.protocol.match;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFOxmList;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.oxm.OFOxm;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.Masked;
+import org.projectfloodlight.openflow.types.OFValueType;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Translates matches of any version to matches of a target version, e.g., to push the same
+ * flows to switches speaking OpenFlow 1.0 and OpenFlow 1.3.
+ *
+ * The fields of the source match are copied one by one, masked fields as masked fields.
+ * For OXM based versions (OpenFlow 1.2 and later), the OXMs of the target version are
+ * created directly by the generated {@link org.projectfloodlight.openflow.protocol.oxm.OFOxms}
+ * factory, and the translated match is created from the complete OXM list at once, rather
+ * than by a match builder, which rebuilds its OXM list on every field set. Matches of
+ * earlier versions are built by their match builder, which sets their wildcards and fields
+ * directly. Fields the target version cannot express (e.g., IPv6 fields or arbitrary masks
+ * in OpenFlow 1.0, or TCP_FLAGS before OpenFlow 1.5) are left out of the translated match
+ * and reported in the {@link Translation}, so that callers can decide whether a broader
+ * match is acceptable. Matches of the target version are returned as they are.
+ *
+ * Translators optionally keep the translations of the last matches translated, by source
+ * match, in a bounded cache, which pays off when the same matches are translated
+ * repeatedly, e.g., per switch when pushing a policy to many switches. Cache hits do not
+ * lock. Instances are thread-safe.
+ */
+public final class MatchTranslator {
+    private final OFFactory factory;
+    /** whether the target version uses OXM lists */
+    private final boolean oxm;
+    /** the cached translations by source match, null if caching is disabled */
+    private final Cache<Match, Translation> cache;
+
+    /**
+     * Creates a translator without cache.
+     *
+     * @param targetVersion the version of the translated matches
+     */
+    public MatchTranslator(@Nonnull OFVersion targetVersion) {
+        this.factory = OFFactories.getFactory(checkNotNull(targetVersion, "targetVersion must not be null"));
+        this.oxm = targetVersion.compareTo(OFVersion.OF_12) >= 0;
+        this.cache = null;
+    }
+
+    /**
+     * Creates a translator caching the translations of the last matches translated.
+     *
+     * @param targetVersion the version of the translated matches
+     * @param cacheSize the maximum number of cached translations
+     * @throws IllegalArgumentException if cacheSize is not positive
+     */
+    public MatchTranslator(@Nonnull OFVersion targetVersion, int cacheSize) {
+        checkArgument(cacheSize > 0, "cacheSize must be positive: %s", cacheSize);
+        this.factory = OFFactories.getFactory(checkNotNull(targetVersion, "targetVersion must not be null"));
+        this.oxm = targetVersion.compareTo(OFVersion.OF_12) >= 0;
+        // a single segment, so that the least recently used translations are evicted first
+        this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).concurrencyLevel(1).build();
+    }
+
+    /** @return the version of the translated matches */
+    public OFVersion getTargetVersion() {
+        return factory.getVersion();
+    }
+
+    /**
+     * Translates a match to the target version.
+     *
+     * @param source the match
+     * @return the translation
+     */
+    public Translation translate(@Nonnull Match source) {
+        checkNotNull(source, "source must not be null");
+        if (source.getVersion() == factory.getVersion())
+            return new Translation(source, ImmutableSet.<MatchField<?>>of());
+        if (cache == null)
+            return copy(source);
+        Translation translation = cache.getIfPresent(source);
+        if (translation == null) {
+            translation = copy(source);
+            cache.put(source, translation);
+        }
+        return translation;
+    }
+
+    /**
+     * Translates a match to the target version, requiring all of its fields to be translated.
+     *
+     * @param source the match
+     * @return the translated match
+     * @throws UnsupportedOperationException if the target version cannot express some
+     *         fields of the match
+     */
+    public Match translateExact(@Nonnull Match source) {
+        Translation translation = translate(source);
+        if (!translation.isExact())
+            throw new UnsupportedOperationException("Cannot translate fields " + names(translation.getUnsupportedFields())
+                    + " to " + factory.getVersion());
+        return translation.getMatch();
+    }
+
+    /** Drops the cached translations. */
+    public void clearCache() {
+        if (cache != null)
+            cache.invalidateAll();
+    }
+
+    /** @return the number of cached translations */
+    public int getCacheSize() {
+        return cache != null ? (int) cache.size() : 0;
+    }
+
+    private Translation copy(Match source) {
+        // for OXM based versions, the builder is only asked which fields are supported
+        Match.Builder builder = factory.buildMatch();
+        List<OFOxm<?>> oxms = oxm ? new ArrayList<>() : null;
+        ImmutableSet.Builder<MatchField<?>> unsupported = null;
+        for (MatchField<?> field : source.getMatchFields()) {
+            if (!copyField(source, field, builder, oxms)) {
+                if (unsupported == null)
+                    unsupported = ImmutableSet.builder();
+                unsupported.add(field);
+            }
+        }
+        Match match = oxms != null ? factory.matchV3(OFOxmList.ofList(oxms)) : builder.build();
+        return new Translation(match, unsupported != null ? unsupported.build() : ImmutableSet.<MatchField<?>>of());
+    }
+
+    /** @return whether the target version can express the field */
+    private <F extends OFValueType<F>> boolean copyField(Match source, MatchField<F> field,
+            Match.Builder builder, List<OFOxm<?>> oxms) {
+        if (!builder.supports(field))
+            return false;
+        if (source.isExact(field)) {
+            if (oxms != null)
+                oxms.add(factory.oxms().fromValue(source.get(field), field));
+            else
+                builder.setExact(field, source.get(field));
+            return true;
+        }
+        Masked<F> masked = source.getMasked(field);
+        if (masked == null)
+            return true;
+        if (!builder.supportsMasked(field))
+            return false;
+        if (oxms != null) {
+            oxms.add(factory.oxms().fromMasked(masked, field));
+            return true;
+        }
+        if (factory.getVersion() == OFVersion.OF_10 && masked.getMask() instanceof IPv4Address) {
+            // OpenFlow 1.0 wildcards the low bits of addresses only
+            IPv4Address mask = (IPv4Address) masked.getMask();
+            if (!mask.isCidrMask())
+                return false;
+            if (mask.asCidrMaskLength() == 0)
+                return true;
+        }
+        builder.setMasked(field, masked);
+        return true;
+    }
+
+    private static Collection<String> names(Set<MatchField<?>> fields) {
+        return Collections2.transform(fields, MatchField::getName);
+    }
+
+    /** A translated match, along with the fields of the source match it is missing. */
+    public static final class Translation {
+        private final Match match;
+        private final Set<MatchField<?>> unsupportedFields;
+
+        Translation(Match match, Set<MatchField<?>> unsupportedFields) {
+            this.match = match;
+            this.unsupportedFields = unsupportedFields;
+        }
+
+        /** @return the translated match, matching a superset of the packets of the source if not exact */
+        public Match getMatch() {
+            return match;
+        }
+
+        /** @return the fields of the source match the target version cannot express */
+        public Set<MatchField<?>> getUnsupportedFields() {
+            return unsupportedFields;
+        }
+
+        /** @return whether all fields of the source match were translated */
+        public boolean isExact() {
+            return unsupportedFields.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "Translation(" + match + (unsupportedFields.isEmpty() ? "" : ", unsupported " + names(unsupportedFields)) + ")";
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.projectfloodlight.openflow.protocol.match;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.projectfloodlight.openflow.types.OFValueType;
+
+/**
+ * The header field values of a packet, to be {@link FlowClassifier#classify(PacketKey)
+ * classified}. Fields without value are unknown: rules matching on them do not match the key.
+ *
+ * Keys are immutable; the values are converted to the bit representation used by the
+ * classifier once, when the key is built.
+ */
+public final class PacketKey {
+    static final int FIELD_COUNT = MatchFields.values().length;
+    static final int PRESENT_WORDS = (FIELD_COUNT + 63) / 64;
+
+    private final Object[] values;
+    /** bits of the values, by field ordinal */
+    final long[][] bits;
+    /** bitmap of the fields with value, by field ordinal */
+    final long[] present;
+
+    private PacketKey(Builder builder) {
+        this.values = builder.values.clone();
+        this.bits = new long[FIELD_COUNT][];
+        this.present = new long[PRESENT_WORDS];
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            if (values[i] != null) {
+                bits[i] = FieldBits.of((OFValueType<?>) values[i]);
+                present[i / 64] |= 1L << i;
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a key with the exact fields of a match, e.g., of a match extracted from a packet.
+     *
+     * @param match the match
+     * @return the key
+     * @throws IllegalArgumentException if the match has masked fields
+     */
+    public static PacketKey of(@Nonnull Match match) {
+        Builder builder = new Builder();
+        for (MatchField<?> field : match.getMatchFields())
+            builder.setFrom(match, field);
+        return builder.build();
+    }
+
+    /** @return the value of the field, or null if unknown */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <F extends OFValueType<F>> F get(@Nonnull MatchField<F> field) {
+        return (F) values[field.id.ordinal()];
+    }
+
+    /** @return whether the key has a value for the field */
+    public boolean has(@Nonnull MatchField<?> field) {
+        return values[field.id.ordinal()] != null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PacketKey(");
+        boolean first = true;
+        for (MatchFields id : MatchFields.values()) {
+            if (values[id.ordinal()] == null)
+                continue;
+            if (!first)
+                sb.append(", ");
+            first = false;
+            sb.append(id).append('=').append(values[id.ordinal()]);
+        }
+        return sb.append(')').toString();
+    }
+
+    public static final class Builder {
+        private final Object[] values = new Object[FIELD_COUNT];
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the value of a field.
+         *
+         * @param field the field
+         * @param value the value, or null to unset the field
+         * @return this builder
+         */
+        public <F extends OFValueType<F>> Builder set(@Nonnull MatchField<F> field, @Nullable F value) {
+            values[checkNotNull(field, "field must not be null").id.ordinal()] = value;
+            return this;
+        }
+
+        private <F extends OFValueType<F>> void setFrom(Match match, MatchField<F> field) {
+            if (!match.isExact(field)) {
+                if (match.isPartiallyMasked(field))
+                    throw new IllegalArgumentException("Field " + field.getName() + " of a packet must not be masked");
+                return;
+            }
+            set(field, match.get(field));
+        }
+
+        public PacketKey build() {
+            return new PacketKey(this);
+        }
+    }
+}
@@ -0,0 +1,648 @@
+package org.projectfloodlight.openflow.protocol.match;
+
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import javax.annotation.Nonnull;
+
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFPacketIn;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.types.ArpOpcode;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.ICMPv4Code;
+import org.projectfloodlight.openflow.types.ICMPv4Type;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.IPv6Address;
+import org.projectfloodlight.openflow.types.IPv6FlowLabel;
+import org.projectfloodlight.openflow.types.IpDscp;
+import org.projectfloodlight.openflow.types.IpEcn;
+import org.projectfloodlight.openflow.types.IpProtocol;
+import org.projectfloodlight.openflow.types.MacAddress;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OFValueType;
+import org.projectfloodlight.openflow.types.OFVlanVidMatch;
+import org.projectfloodlight.openflow.types.TransportPort;
+import org.projectfloodlight.openflow.types.U16;
+import org.projectfloodlight.openflow.types.U8;
+import org.projectfloodlight.openflow.types.VlanPcp;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Extracts the header fields of an Ethernet frame, e.g., the data of a packet-in, as match
+ * field values: Ethernet, the outer VLAN tag, IPv4, IPv6 (skipping extension headers), ARP,
+ * TCP, UDP, SCTP, ICMPv4, ICMPv6 and IPv6 neighbor discovery.
+ *
+ * {@link #parse(byte[], int, int)} fills primitive fields, which the getters return without
+ * allocating; {@link #has(MatchField)} tells which fields the frame has a value for. A field
+ * has a value only if the frame satisfies its {@link MatchField#getPrerequisites()
+ * prerequisites} and is long enough to hold it: truncated frames yield the fields of the
+ * complete headers, and fragments of IP packets other than the first yield no transport
+ * fields. Untagged frames have a {@link MatchField#VLAN_VID} of {@link OFVlanVidMatch#UNTAGGED}.
+ * {@link #fill(Match.Builder)} then sets the fields on a match builder of any version,
+ * skipping the fields the version does not support.
+ *
+ * Instances hold the fields of the last frame parsed, and are meant to be reused; they are
+ * not thread-safe.
+ */
+public final class PacketMatchExtractor {
+    private static final int ETH_HEADER_LENGTH = 14;
+    private static final int IPV4_HEADER_LENGTH = 20;
+    private static final int IPV6_HEADER_LENGTH = 40;
+    private static final int ARP_LENGTH = 28;
+
+    private static final int TPID_8021Q = 0x8100;
+    private static final int TPID_8021AD = 0x88a8;
+    private static final int TPID_QINQ = 0x9100;
+    /** the Ethernet type of 802.3 frames without a SNAP header, as defined by OpenFlow */
+    private static final int ETH_TYPE_NOT_ETH_TYPE = 0x05ff;
+
+    private static final int IPV6_HOP_BY_HOP = 0;
+    private static final int IPV6_ROUTING = 43;
+    private static final int IPV6_FRAGMENT = 44;
+    private static final int IPV6_AH = 51;
+    private static final int IPV6_DESTINATION = 60;
+
+    private static final int ND_NEIGHBOR_SOLICITATION = 135;
+    private static final int ND_NEIGHBOR_ADVERTISEMENT = 136;
+    private static final int ND_OPTION_SLL = 1;
+    private static final int ND_OPTION_TLL = 2;
+
+    // the headers parsed
+    private static final int F_ETH = 1;
+    private static final int F_ETH_TYPE = 1 << 1;
+    private static final int F_VLAN = 1 << 2;
+    private static final int F_IP = 1 << 3;
+    private static final int F_IP_PROTO = 1 << 4;
+    private static final int F_ARP = 1 << 5;
+    private static final int F_PORTS = 1 << 6;
+    private static final int F_TCP_FLAGS = 1 << 7;
+    private static final int F_ICMP = 1 << 8;
+    private static final int F_ND_TARGET = 1 << 9;
+    private static final int F_ND_SLL = 1 << 10;
+    private static final int F_ND_TLL = 1 << 11;
+
+    private int flags;
+    private long ethDst;
+    private long ethSrc;
+    private int ethType;
+    private int vlanVid;
+    private int vlanPcp;
+    private int ipDscp;
+    private int ipEcn;
+    private int ipProto;
+    private int ipv4Src;
+    private int ipv4Dst;
+    private long ipv6SrcHigh;
+    private long ipv6SrcLow;
+    private long ipv6DstHigh;
+    private long ipv6DstLow;
+    private int ipv6FlowLabel;
+    private int srcPort;
+    private int dstPort;
+    private int tcpFlags;
+    private int icmpType;
+    private int icmpCode;
+    private long ndTargetHigh;
+    private long ndTargetLow;
+    private long ndSll;
+    private long ndTll;
+    private int arpOp;
+    private int arpSpa;
+    private int arpTpa;
+    private long arpSha;
+    private long arpTha;
+
+    /** copy of the data of ByteBufs without a backing array, grown as needed */
+    private byte[] scratch = new byte[0];
+
+    /**
+     * Extracts the match of a packet-in: its in port and the header fields of its data.
+     *
+     * @param packetIn the packet-in
+     * @return an exact match for the packet, of the version of the packet-in
+     */
+    public static Match extract(@Nonnull OFPacketIn packetIn) {
+        OFVersion version = packetIn.getVersion();
+        Match.Builder builder = OFFactories.getFactory(version).buildMatch();
+        OFPort inPort = version.compareTo(OFVersion.OF_12) < 0 ? packetIn.getInPort()
+                : packetIn.getMatch().get(MatchField.IN_PORT);
+        if (inPort != null)
+            builder.setExact(MatchField.IN_PORT, inPort);
+        PacketMatchExtractor extractor = new PacketMatchExtractor();
+        extractor.parse(packetIn.getData());
+        return extractor.fill(builder).build();
+    }
+
+    /**
+     * Parses a frame.
+     *
+     * @param frame the frame
+     * @return whether the frame has a complete Ethernet header
+     */
+    public boolean parse(@Nonnull byte[] frame) {
+        return parse(frame, 0, frame.length);
+    }
+
+    /**
+     * Parses the readable bytes of a buffer as a frame. Does not modify the buffer's indexes.
+     *
+     * @param frame the frame
+     * @return whether the frame has a complete Ethernet header
+     */
+    public boolean parse(@Nonnull ByteBuf frame) {
+        int length = frame.readableBytes();
+        if (frame.hasArray())
+            return parse(frame.array(), frame.arrayOffset() + frame.readerIndex(), length);
+        if (scratch.length < length)
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        frame.getBytes(frame.readerIndex(), scratch, 0, length);
+        return parse(scratch, 0, length);
+    }
+
+    /**
+     * Parses a frame.
+     *
+     * @param data the data holding the frame
+     * @param offset the offset of the frame in data
+     * @param length the length of the frame
+     * @return whether the frame has a complete Ethernet header
+     * @throws IndexOutOfBoundsException if the frame is not within data
+     */
+    public boolean parse(@Nonnull byte[] data, int offset, int length) {
+        checkPositionIndexes(offset, offset + length, data.length);
+        flags = 0;
+        int end = offset + length;
+        if (length < ETH_HEADER_LENGTH)
+            return false;
+        ethDst = u48(data, offset);
+        ethSrc = u48(data, offset + 6);
+        flags = F_ETH;
+        int p = offset + 12;
+        int type = u16(data, p);
+        p += 2;
+        while (type == TPID_8021Q || type == TPID_8021AD || type == TPID_QINQ) {
+            if (end - p < 4)
+                return true;
+            if ((flags & F_VLAN) == 0) {
+                int tci = u16(data, p);
+                vlanPcp = tci >>> 13;
+                vlanVid = tci & 0x0fff;
+                flags |= F_VLAN;
+            }
+            type = u16(data, p + 2);
+            p += 4;
+        }
+        if (type < 0x0600) {
+            // 802.3 length; the type is in the SNAP header, if any
+            if (end - p >= 8 && u16(data, p) == 0xaaaa && u8(data, p + 2) == 0x03
+                    && (u32(data, p + 2) & 0x00ffffff) == 0) {
+                type = u16(data, p + 6);
+                p += 8;
+            } else {
+                type = ETH_TYPE_NOT_ETH_TYPE;
+            }
+        }
+        ethType = type;
+        flags |= F_ETH_TYPE;
+        if (type == EthType.IPv4.getValue())
+            parseIpv4(data, p, end);
+        else if (type == EthType.IPv6.getValue())
+            parseIpv6(data, p, end);
+        else if (type == EthType.ARP.getValue())
+            parseArp(data, p, end);
+        return true;
+    }
+
+    private void parseIpv4(byte[] data, int p, int end) {
+        if (end - p < IPV4_HEADER_LENGTH || u8(data, p) >>> 4 != 4)
+            return;
+        int headerLength = (u8(data, p) & 0x0f) * 4;
+        int tos = u8(data, p + 1);
+        ipDscp = tos >>> 2;
+        ipEcn = tos & 0x03;
+        ipProto = u8(data, p + 9);
+        ipv4Src = u32(data, p + 12);
+        ipv4Dst = u32(data, p + 16);
+        flags |= F_IP | F_IP_PROTO;
+        boolean laterFragment = (u16(data, p + 6) & 0x1fff) != 0;
+        if (!laterFragment && headerLength >= IPV4_HEADER_LENGTH && end - p >= headerLength)
+            parseTransport(data, p + headerLength, end);
+    }
+
+    private void parseIpv6(byte[] data, int p, int end) {
+        if (end - p < IPV6_HEADER_LENGTH || u8(data, p) >>> 4 != 6)
+            return;
+        int word = u32(data, p);
+        int trafficClass = (word >>> 20) & 0xff;
+        ipDscp = trafficClass >>> 2;
+        ipEcn = trafficClass & 0x03;
+        ipv6FlowLabel = word & 0x000fffff;
+        int next = u8(data, p + 6);
+        ipv6SrcHigh = u64(data, p + 8);
+        ipv6SrcLow = u64(data, p + 16);
+        ipv6DstHigh = u64(data, p + 24);
+        ipv6DstLow = u64(data, p + 32);
+        flags |= F_IP | F_IP_PROTO;
+        p += IPV6_HEADER_LENGTH;
+        // the protocol is the next header after the extension headers
+        while (true) {
+            if (next == IPV6_HOP_BY_HOP || next == IPV6_ROUTING || next == IPV6_DESTINATION || next == IPV6_AH) {
+                if (end - p < 8)
+                    break;
+                int length = next == IPV6_AH ? (u8(data, p + 1) + 2) * 4 : (u8(data, p + 1) + 1) * 8;
+                next = u8(data, p);
+                p += length;
+            } else if (next == IPV6_FRAGMENT) {
+                if (end - p < 8)
+                    break;
+                boolean laterFragment = (u16(data, p + 2) & 0xfff8) != 0;
+                next = u8(data, p);
+                p += 8;
+                if (laterFragment) {
+                    ipProto = next;
+                    return;
+                }
+            } else {
+                ipProto = next;
+                parseTransport(data, p, end);
+                return;
+            }
+        }
+        // truncated within the extension headers
+        ipProto = next;
+    }
+
+    private void parseArp(byte[] data, int p, int end) {
+        // Ethernet and IPv4 addresses only
+        if (end - p < ARP_LENGTH || u16(data, p) != 1 || u16(data, p + 2) != EthType.IPv4.getValue()
+                || u8(data, p + 4) != 6 || u8(data, p + 5) != 4)
+            return;
+        arpOp = u16(data, p + 6);
+        arpSha = u48(data, p + 8);
+        arpSpa = u32(data, p + 14);
+        arpTha = u48(data, p + 18);
+        arpTpa = u32(data, p + 24);
+        flags |= F_ARP;
+    }
+
+    private void parseTransport(byte[] data, int p, int end) {
+        int length = end - p;
+        switch (ipProto) {
+            case 6: // TCP
+                if (length >= 14) {
+                    tcpFlags = u16(data, p + 12) & 0x0fff;
+                    flags |= F_TCP_FLAGS;
+                }
+                // fall through
+            case 17: // UDP
+            case 132: // SCTP
+                if (length >= 4) {
+                    srcPort = u16(data, p);
+                    dstPort = u16(data, p + 2);
+                    flags |= F_PORTS;
+                }
+                break;
+            case 1: // ICMP, over IPv4 only
+                if (length >= 2 && ethType == EthType.IPv4.getValue()) {
+                    icmpType = u8(data, p);
+                    icmpCode = u8(data, p + 1);
+                    flags |= F_ICMP;
+                }
+                break;
+            case 58: // ICMPv6, over IPv6 only
+                if (length >= 2 && ethType == EthType.IPv6.getValue()) {
+                    icmpType = u8(data, p);
+                    icmpCode = u8(data, p + 1);
+                    flags |= F_ICMP;
+                    parseNeighborDiscovery(data, p, end);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void parseNeighborDiscovery(byte[] data, int p, int end) {
+        if ((icmpType != ND_NEIGHBOR_SOLICITATION && icmpType != ND_NEIGHBOR_ADVERTISEMENT) || end - p < 24)
+            return;
+        ndTargetHigh = u64(data, p + 8);
+        ndTargetLow = u64(data, p + 16);
+        flags |= F_ND_TARGET;
+        int wanted = icmpType == ND_NEIGHBOR_SOLICITATION ? ND_OPTION_SLL : ND_OPTION_TLL;
+        for (p += 24; end - p >= 8; ) {
+            int type = u8(data, p);
+            int length = u8(data, p + 1) * 8;
+            if (length == 0)
+                return;
+            if (type == wanted) {
+                if (wanted == ND_OPTION_SLL) {
+                    ndSll = u48(data, p + 2);
+                    flags |= F_ND_SLL;
+                } else {
+                    ndTll = u48(data, p + 2);
+                    flags |= F_ND_TLL;
+                }
+                return;
+            }
+            p += length;
+        }
+    }
+
+    /**
+     * @param field the field
+     * @return whether the last frame parsed has a value for the field
+     */
+    public boolean has(@Nonnull MatchField<?> field) {
+        switch (field.id) {
+            case ETH_DST:
+            case ETH_SRC:
+                return (flags & F_ETH) != 0;
+            case ETH_TYPE:
+            case VLAN_VID:
+                return (flags & F_ETH_TYPE) != 0;
+            case VLAN_PCP:
+                return (flags & F_VLAN) != 0 && (flags & F_ETH_TYPE) != 0;
+            case IP_DSCP:
+            case IP_ECN:
+                return (flags & F_IP) != 0;
+            case IP_PROTO:
+                return (flags & F_IP_PROTO) != 0;
+            case IPV4_SRC:
+            case IPV4_DST:
+                return (flags & F_IP) != 0 && ethType == EthType.IPv4.getValue();
+            case IPV6_SRC:
+            case IPV6_DST:
+            case IPV6_FLABEL:
+                return (flags & F_IP) != 0 && ethType == EthType.IPv6.getValue();
+            case TCP_SRC:
+            case TCP_DST:
+                return (flags & F_PORTS) != 0 && ipProto == 6;
+            case UDP_SRC:
+            case UDP_DST:
+                return (flags & F_PORTS) != 0 && ipProto == 17;
+            case SCTP_SRC:
+            case SCTP_DST:
+                return (flags & F_PORTS) != 0 && ipProto == 132;
+            case TCP_FLAGS:
+                return (flags & F_TCP_FLAGS) != 0;
+            case ICMPV4_TYPE:
+            case ICMPV4_CODE:
+                return (flags & F_ICMP) != 0 && ipProto == 1 && ethType == EthType.IPv4.getValue();
+            case ICMPV6_TYPE:
+            case ICMPV6_CODE:
+                return (flags & F_ICMP) != 0 && ipProto == 58 && ethType == EthType.IPv6.getValue();
+            case IPV6_ND_TARGET:
+                return (flags & F_ND_TARGET) != 0;
+            case IPV6_ND_SLL:
+                return (flags & F_ND_SLL) != 0;
+            case IPV6_ND_TLL:
+                return (flags & F_ND_TLL) != 0;
+            case ARP_OP:
+            case ARP_SPA:
+            case ARP_TPA:
+            case ARP_SHA:
+            case ARP_THA:
+                return (flags & F_ARP) != 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Sets the fields of the last frame parsed as exact fields of a match builder. Fields the
+     * builder does not support, e.g., IPv6 fields for OpenFlow 1.0, are skipped.
+     *
+     * @param builder the match builder
+     * @return the builder
+     */
+    public Match.Builder fill(@Nonnull Match.Builder builder) {
+        if ((flags & F_ETH) == 0)
+            return builder;
+        set(builder, MatchField.ETH_DST, MacAddress.of(ethDst));
+        set(builder, MatchField.ETH_SRC, MacAddress.of(ethSrc));
+        if ((flags & F_ETH_TYPE) == 0)
+            return builder;
+        set(builder, MatchField.ETH_TYPE, EthType.of(ethType));
+        if ((flags & F_VLAN) != 0) {
+            set(builder, MatchField.VLAN_VID, OFVlanVidMatch.ofVlan(vlanVid));
+            set(builder, MatchField.VLAN_PCP, VlanPcp.of((byte) vlanPcp));
+        } else {
+            set(builder, MatchField.VLAN_VID, OFVlanVidMatch.UNTAGGED);
+        }
+        if ((flags & F_ARP) != 0) {
+            set(builder, MatchField.ARP_OP, ArpOpcode.of(arpOp));
+            set(builder, MatchField.ARP_SPA, IPv4Address.of(arpSpa));
+            set(builder, MatchField.ARP_TPA, IPv4Address.of(arpTpa));
+            set(builder, MatchField.ARP_SHA, MacAddress.of(arpSha));
+            set(builder, MatchField.ARP_THA, MacAddress.of(arpTha));
+        }
+        if ((flags & F_IP) == 0)
+            return builder;
+        set(builder, MatchField.IP_DSCP, IpDscp.of((byte) ipDscp));
+        set(builder, MatchField.IP_ECN, IpEcn.of((byte) ipEcn));
+        set(builder, MatchField.IP_PROTO, IpProtocol.of((short) ipProto));
+        if (ethType == EthType.IPv4.getValue()) {
+            set(builder, MatchField.IPV4_SRC, IPv4Address.of(ipv4Src));
+            set(builder, MatchField.IPV4_DST, IPv4Address.of(ipv4Dst));
+        } else {
+            set(builder, MatchField.IPV6_SRC, IPv6Address.of(ipv6SrcHigh, ipv6SrcLow));
+            set(builder, MatchField.IPV6_DST, IPv6Address.of(ipv6DstHigh, ipv6DstLow));
+            set(builder, MatchField.IPV6_FLABEL, IPv6FlowLabel.of(ipv6FlowLabel));
+        }
+        if ((flags & F_PORTS) != 0) {
+            if (ipProto == 6) {
+                set(builder, MatchField.TCP_SRC, TransportPort.of(srcPort));
+                set(builder, MatchField.TCP_DST, TransportPort.of(dstPort));
+            } else if (ipProto == 17) {
+                set(builder, MatchField.UDP_SRC, TransportPort.of(srcPort));
+                set(builder, MatchField.UDP_DST, TransportPort.of(dstPort));
+            } else {
+                set(builder, MatchField.SCTP_SRC, TransportPort.of(srcPort));
+                set(builder, MatchField.SCTP_DST, TransportPort.of(dstPort));
+            }
+        }
+        if ((flags & F_TCP_FLAGS) != 0)
+            set(builder, MatchField.TCP_FLAGS, U16.of(tcpFlags));
+        if ((flags & F_ICMP) != 0) {
+            if (ipProto == 1) {
+                set(builder, MatchField.ICMPV4_TYPE, ICMPv4Type.of((short) icmpType));
+                set(builder, MatchField.ICMPV4_CODE, ICMPv4Code.of((short) icmpCode));
+            } else {
+                set(builder, MatchField.ICMPV6_TYPE, U8.of((short) icmpType));
+                set(builder, MatchField.ICMPV6_CODE, U8.of((short) icmpCode));
+            }
+        }
+        if ((flags & F_ND_TARGET) != 0)
+            set(builder, MatchField.IPV6_ND_TARGET, IPv6Address.of(ndTargetHigh, ndTargetLow));
+        if ((flags & F_ND_SLL) != 0)
+            set(builder, MatchField.IPV6_ND_SLL, MacAddress.of(ndSll));
+        if ((flags & F_ND_TLL) != 0)
+            set(builder, MatchField.IPV6_ND_TLL, MacAddress.of(ndTll));
+        return builder;
+    }
+
+    private static <F extends OFValueType<F>> void set(Match.Builder builder, MatchField<F> field, F value) {
+        if (builder.supports(field))
+            builder.setExact(field, value);
+    }
+
+    /** @return the raw {@link MatchField#ETH_DST} */
+    public long getEthDst() {
+        return ethDst;
+    }
+
+    /** @return the raw {@link MatchField#ETH_SRC} */
+    public long getEthSrc() {
+        return ethSrc;
+    }
+
+    /** @return the raw {@link MatchField#ETH_TYPE}, following VLAN tags and SNAP headers */
+    public int getEthType() {
+        return ethType;
+    }
+
+    /** @return whether the frame is VLAN tagged */
+    public boolean isVlanTagged() {
+        return (flags & F_VLAN) != 0;
+    }
+
+    /** @return the VLAN id of the outer tag, without the present bit */
+    public int getVlanVid() {
+        return vlanVid;
+    }
+
+    /** @return the priority of the outer VLAN tag */
+    public int getVlanPcp() {
+        return vlanPcp;
+    }
+
+    /** @return the DSCP bits of the IPv4 TOS or IPv6 traffic class */
+    public int getIpDscp() {
+        return ipDscp;
+    }
+
+    /** @return the ECN bits of the IPv4 TOS or IPv6 traffic class */
+    public int getIpEcn() {
+        return ipEcn;
+    }
+
+    /** @return the IP protocol; for IPv6, the next header after the extension headers */
+    public int getIpProto() {
+        return ipProto;
+    }
+
+    public int getIpv4Src() {
+        return ipv4Src;
+    }
+
+    public int getIpv4Dst() {
+        return ipv4Dst;
+    }
+
+    /** @return the high 64 bits of {@link MatchField#IPV6_SRC} */
+    public long getIpv6SrcHigh() {
+        return ipv6SrcHigh;
+    }
+
+    /** @return the low 64 bits of {@link MatchField#IPV6_SRC} */
+    public long getIpv6SrcLow() {
+        return ipv6SrcLow;
+    }
+
+    /** @return the high 64 bits of {@link MatchField#IPV6_DST} */
+    public long getIpv6DstHigh() {
+        return ipv6DstHigh;
+    }
+
+    /** @return the low 64 bits of {@link MatchField#IPV6_DST} */
+    public long getIpv6DstLow() {
+        return ipv6DstLow;
+    }
+
+    public int getIpv6FlowLabel() {
+        return ipv6FlowLabel;
+    }
+
+    /** @return the TCP, UDP or SCTP source port */
+    public int getSrcPort() {
+        return srcPort;
+    }
+
+    /** @return the TCP, UDP or SCTP destination port */
+    public int getDstPort() {
+        return dstPort;
+    }
+
+    public int getTcpFlags() {
+        return tcpFlags;
+    }
+
+    /** @return the ICMPv4 or ICMPv6 type */
+    public int getIcmpType() {
+        return icmpType;
+    }
+
+    /** @return the ICMPv4 or ICMPv6 code */
+    public int getIcmpCode() {
+        return icmpCode;
+    }
+
+    /** @return the high 64 bits of {@link MatchField#IPV6_ND_TARGET} */
+    public long getIpv6NdTargetHigh() {
+        return ndTargetHigh;
+    }
+
+    /** @return the low 64 bits of {@link MatchField#IPV6_ND_TARGET} */
+    public long getIpv6NdTargetLow() {
+        return ndTargetLow;
+    }
+
+    public long getIpv6NdSll() {
+        return ndSll;
+    }
+
+    public long getIpv6NdTll() {
+        return ndTll;
+    }
+
+    public int getArpOp() {
+        return arpOp;
+    }
+
+    public int getArpSpa() {
+        return arpSpa;
+    }
+
+    public int getArpTpa() {
+        return arpTpa;
+    }
+
+    public long getArpSha() {
+        return arpSha;
+    }
+
+    public long getArpTha() {
+        return arpTha;
+    }
+
+    private static int u8(byte[] data, int p) {
+        return data[p] & 0xff;
+    }
+
+    private static int u16(byte[] data, int p) {
+        return (data[p] & 0xff) << 8 | data[p + 1] & 0xff;
+    }
+
+    private static int u32(byte[] data, int p) {
+        return u16(data, p) << 16 | u16(data, p + 2);
+    }
+
+    private static long u48(byte[] data, int p) {
+        return (long) u16(data, p) << 32 | u32(data, p + 2) & 0xffffffffL;
+    }
+
+    private static long u64(byte[] data, int p) {
+        return (long) u32(data, p) << 32 | u32(data, p + 4) & 0xffffffffL;
+    }
+}
@@ -34,12 +34,17 @@ public class Prerequisite<T extends OFValueType<T>> {
         OFValueType<T> res = match.get(this.field);
         if (res == null)
             return false;
-        if (this.any)
-            return true;
-        if (this.values.contains(res)) {
-            return true;
-        }
-        return false;
+        return isSatisfiedBy(res);
+    }
+
+    /**
+     * Returns true if this prerequisite is satisfied by the given value of its match field.
+     *
+     * @param value value of the match field of this prerequisite
+     * @return true iff prerequisite is satisfied.
+     */
+    public boolean isSatisfiedBy(OFValueType<T> value) {
+        return this.any || this.values.contains(value);
     }
 
     /**
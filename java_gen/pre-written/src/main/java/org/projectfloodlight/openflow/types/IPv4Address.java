@@ -8,10 +8,12 @@ import java.net.UnknownHostException;
 import java.util.Arrays;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.projectfloodlight.openflow.exceptions.OFParseError;
 import org.projectfloodlight.openflow.protocol.OFMessageReader;
 import org.projectfloodlight.openflow.protocol.Writeable;
+import org.projectfloodlight.openflow.util.InternCache;
 
 import com.google.common.base.Preconditions;
 import com.google.common.hash.PrimitiveSink;
@@ -39,6 +41,10 @@ public class IPv4Address extends IPAddress<IPv4Address> implements Writeable {
     public static final IPv4Address NO_MASK = IPv4Address.of(0xFFFFFFFF);
     public static final IPv4Address FULL_MASK = IPv4Address.of(0x00000000);
 
+    /** cache consulted by {@link #read4Bytes(ByteBuf)}, if enabled */
+    @Nullable
+    private static volatile InternCache.OfLong<IPv4Address> internCache;
+
     private IPv4Address(final int rawValue) {
         this.rawValue = rawValue;
     }
@@ -396,7 +402,34 @@ public class IPv4Address extends IPAddress<IPv4Address> implements Writeable {
     }
 
     public static IPv4Address read4Bytes(ByteBuf c) {
-        return IPv4Address.of(c.readInt());
+        int raw = c.readInt();
+        InternCache.OfLong<IPv4Address> cache = internCache;
+        return cache != null ? cache.intern(raw) : IPv4Address.of(raw);
+    }
+
+    /**
+     * Enables interning of the addresses read by {@link #read4Bytes(ByteBuf)}, so that
+     * repeatedly decoded addresses share one instance. Replaces the current cache, if any.
+     *
+     * @param capacity the maximum number of cached addresses
+     * @return the new cache, e.g., to monitor its hit rate
+     */
+    public static InternCache<IPv4Address> enableInternCache(int capacity) {
+        InternCache.OfLong<IPv4Address> cache =
+                new InternCache.OfLong<>(capacity, IPv4Address::getInt, raw -> IPv4Address.of((int) raw));
+        internCache = cache;
+        return cache;
+    }
+
+    /** Disables interning of the addresses read by {@link #read4Bytes(ByteBuf)}. */
+    public static void disableInternCache() {
+        internCache = null;
+    }
+
+    /** @return the cache used by {@link #read4Bytes(ByteBuf)}, or null if interning is disabled */
+    @Nullable
+    public static InternCache<IPv4Address> getInternCache() {
+        return internCache;
     }
 
     @Override
@@ -440,4 +473,9 @@ public class IPv4Address extends IPAddress<IPv4Address> implements Writeable {
     public void writeTo(ByteBuf bb) {
         bb.writeInt(rawValue);
     }
+
+    @Override
+    public int getWireLength() {
+        return LENGTH;
+    }
 }
@@ -10,10 +10,12 @@ import java.util.Arrays;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.projectfloodlight.openflow.exceptions.OFParseError;
 import org.projectfloodlight.openflow.protocol.OFMessageReader;
 import org.projectfloodlight.openflow.protocol.Writeable;
+import org.projectfloodlight.openflow.util.InternCache;
 
 import com.google.common.base.Preconditions;
 import com.google.common.hash.PrimitiveSink;
@@ -45,6 +47,10 @@ public class IPv6Address extends IPAddress<IPv6Address> implements Writeable {
     public static final IPv6Address NO_MASK = IPv6Address.of(0xFFFFFFFFFFFFFFFFl, 0xFFFFFFFFFFFFFFFFl);
     public static final IPv6Address FULL_MASK = IPv6Address.of(0x0, 0x0);
 
+    /** cache consulted by {@link #read16Bytes(ByteBuf)}, if enabled */
+    @Nullable
+    private static volatile InternCache.OfLongPair<IPv6Address> internCache;
+
     private IPv6Address(final long raw1, final long raw2) {
         this.raw1 = raw1;
         this.raw2 = raw2;
@@ -753,7 +759,35 @@ public class IPv6Address extends IPAddress<IPv6Address> implements Writeable {
     }
 
     public static IPv6Address read16Bytes(ByteBuf c) throws OFParseError {
-        return IPv6Address.of(c.readLong(), c.readLong());
+        long raw1 = c.readLong();
+        long raw2 = c.readLong();
+        InternCache.OfLongPair<IPv6Address> cache = internCache;
+        return cache != null ? cache.intern(raw1, raw2) : IPv6Address.of(raw1, raw2);
+    }
+
+    /**
+     * Enables interning of the addresses read by {@link #read16Bytes(ByteBuf)}, so that
+     * repeatedly decoded addresses share one instance. Replaces the current cache, if any.
+     *
+     * @param capacity the maximum number of cached addresses
+     * @return the new cache, e.g., to monitor its hit rate
+     */
+    public static InternCache<IPv6Address> enableInternCache(int capacity) {
+        InternCache.OfLongPair<IPv6Address> cache =
+                new InternCache.OfLongPair<>(capacity, a -> a.raw1, a -> a.raw2, IPv6Address::of);
+        internCache = cache;
+        return cache;
+    }
+
+    /** Disables interning of the addresses read by {@link #read16Bytes(ByteBuf)}. */
+    public static void disableInternCache() {
+        internCache = null;
+    }
+
+    /** @return the cache used by {@link #read16Bytes(ByteBuf)}, or null if interning is disabled */
+    @Nullable
+    public static InternCache<IPv6Address> getInternCache() {
+        return internCache;
     }
 
     @Override
@@ -781,4 +815,9 @@ public class IPv6Address extends IPAddress<IPv6Address> implements Writeable {
         bb.writeLong(raw1);
         bb.writeLong(raw2);
     }
+
+    @Override
+    public int getWireLength() {
+        return LENGTH;
+    }
 }
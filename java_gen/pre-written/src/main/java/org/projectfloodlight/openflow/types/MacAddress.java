@@ -3,9 +3,11 @@ package org.projectfloodlight.openflow.types;
 import java.util.Arrays;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.projectfloodlight.openflow.exceptions.OFParseError;
 import org.projectfloodlight.openflow.util.HexString;
+import org.projectfloodlight.openflow.util.InternCache;
 
 import com.google.common.base.Preconditions;
 import com.google.common.hash.PrimitiveSink;
@@ -44,6 +46,10 @@ public class MacAddress implements OFValueType<MacAddress> {
             "It must consist of 6 hex digit pairs separated by colons or hyphens: ";
     private static final int MAC_STRING_LENGTH = 6 * 2 + 5;
 
+    /** cache consulted by {@link #read6Bytes(ByteBuf)}, if enabled */
+    @Nullable
+    private static volatile InternCache.OfLong<MacAddress> internCache;
+
 
     private MacAddress(final long rawValue) {
         this.rawValue = rawValue;
@@ -220,7 +226,33 @@ public class MacAddress implements OFValueType<MacAddress> {
 
     public static MacAddress read6Bytes(ByteBuf c) throws OFParseError {
         long raw = c.readUnsignedInt() << 16 | c.readUnsignedShort();
-        return MacAddress.of(raw);
+        InternCache.OfLong<MacAddress> cache = internCache;
+        return cache != null ? cache.intern(raw) : MacAddress.of(raw);
+    }
+
+    /**
+     * Enables interning of the mac addresses read by {@link #read6Bytes(ByteBuf)}, so that
+     * repeatedly decoded addresses share one instance. Replaces the current cache, if any.
+     *
+     * @param capacity the maximum number of cached addresses
+     * @return the new cache, e.g., to monitor its hit rate
+     */
+    public static InternCache<MacAddress> enableInternCache(int capacity) {
+        InternCache.OfLong<MacAddress> cache =
+                new InternCache.OfLong<>(capacity, MacAddress::getLong, MacAddress::of);
+        internCache = cache;
+        return cache;
+    }
+
+    /** Disables interning of the mac addresses read by {@link #read6Bytes(ByteBuf)}. */
+    public static void disableInternCache() {
+        internCache = null;
+    }
+
+    /** @return the cache used by {@link #read6Bytes(ByteBuf)}, or null if interning is disabled */
+    @Nullable
+    public static InternCache<MacAddress> getInternCache() {
+        return internCache;
     }
 
     @Override
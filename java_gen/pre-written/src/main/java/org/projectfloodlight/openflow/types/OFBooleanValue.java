@@ -84,6 +84,11 @@ public class OFBooleanValue implements Writeable, OFValueType<OFBooleanValue> {
         bb.writeByte(getInt());
     }
 
+    @Override
+    public int getWireLength() {
+        return 1;
+    }
+
     private static class Reader implements OFMessageReader<OFBooleanValue> {
         @Override
         public OFBooleanValue readFrom(ByteBuf bb) throws OFParseError {
@@ -1,5 +1,6 @@
 package org.projectfloodlight.openflow.types;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.projectfloodlight.openflow.exceptions.OFParseError;
@@ -10,6 +11,7 @@ import org.projectfloodlight.openflow.protocol.OFMessage;
 import org.projectfloodlight.openflow.protocol.OFVersion;
 import org.projectfloodlight.openflow.protocol.Writeable;
 import org.projectfloodlight.openflow.util.ChannelUtils;
+import org.projectfloodlight.openflow.util.HexString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,7 +25,12 @@ import io.netty.buffer.Unpooled;
  *  that contains a byte serialization of the offending message.
  *
  *  This attempts to parse the offending message on demand, and if successful
- *  will present the parsed message.
+ *  will present the parsed message. The result of the parse is memoized, so the
+ *  offending message is parsed at most once (modulo benign races between threads).
+ *
+ *  Instances own their data array: it is read directly from the wire, and never
+ *  exposed for modification. Use {@link #getDataBuffer()} for read access without
+ *  a copy.
  *
  * @author Andreas Wundsam {@literal <}andreas.wundsam@bigswitch.com{@literal >}
  */
@@ -39,7 +46,10 @@ public class OFErrorCauseData implements Writeable, PrimitiveSinkable {
 
     private final byte[] data;
     private final OFVersion version;
+    /** memoized result of parsing data, null until first requested */
+    private volatile Optional<OFMessage> parsedMessage;
 
+    /** @param data the data array, owned by the new instance from now on */
     private OFErrorCauseData(byte[] data, OFVersion version) {
         this.data = data;
         this.version = version;
@@ -49,11 +59,30 @@ public class OFErrorCauseData implements Writeable, PrimitiveSinkable {
          return new OFErrorCauseData(Arrays.copyOf(data, data.length), version);
     }
 
+    /** @return a copy of the data. Use {@link #getDataBuffer()} to avoid the copy. */
     public byte[] getData() {
         return Arrays.copyOf(data, data.length);
     }
 
+    /** @return a read-only view of the data, without copying it */
+    public ByteBuffer getDataBuffer() {
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    /** @return the offending message, if the data can be parsed as a message of the version
+     *  of this cause. The data is parsed on the first call only. */
     public Optional<OFMessage> getParsedMessage() {
+        Optional<OFMessage> result = parsedMessage;
+        if(result == null) {
+            result = parse();
+            parsedMessage = result;
+        }
+        return result;
+    }
+
+    private Optional<OFMessage> parse() {
+        if(data.length == 0)
+            return Optional.absent();
         OFFactory factory = OFFactories.getFactory(version);
         try {
             OFMessage msg = factory.getReader().readFrom(Unpooled.wrappedBuffer(data));
@@ -68,8 +97,8 @@ public class OFErrorCauseData implements Writeable, PrimitiveSinkable {
     }
 
     public static OFErrorCauseData read(ByteBuf bb, int length, OFVersion version) {
-        byte[] bytes = ChannelUtils.readBytes(bb, length);
-        return of(bytes, version);
+        // the freshly read array is not shared, so it need not be copied again
+        return new OFErrorCauseData(ChannelUtils.readBytes(bb, length), version);
    }
 
     @Override
@@ -82,21 +111,18 @@ public class OFErrorCauseData implements Writeable, PrimitiveSinkable {
         bb.writeBytes(data);
     }
 
+    @Override
+    public int getWireLength() {
+        return data.length;
+    }
+
    @Override
    public String toString() {
       Optional<OFMessage> parsedMessage = getParsedMessage();
       if(parsedMessage.isPresent()) {
           return String.valueOf(parsedMessage.get());
       } else {
-          StringBuilder b = new StringBuilder();
-          b.append("[unparsed: ");
-          for(int i=0; i<data.length; i++) {
-              if(i>0)
-                  b.append(" ");
-              b.append(String.format("%02x", data[i]));
-          }
-          b.append("]");
-          return b.toString();
+          return "[unparsed: " + HexString.toHexString(data, ' ') + "]";
       }
    }
 
@@ -103,6 +103,11 @@ public final class U16 implements Writeable, OFValueType<U16> {
         bb.writeShort(raw);
     }
 
+    @Override
+    public int getWireLength() {
+        return 2;
+    }
+
 
     public final static Reader READER = new Reader();
 
@@ -0,0 +1,129 @@
+package org.projectfloodlight.openflow.types;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nonnull;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.Writeable;
+
+import com.google.common.hash.PrimitiveSink;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * An immutable list of {@link U16}s, backed by an array of their raw values. This is how the
+ * generated readers decode lists of U16, instead of boxing every element up front.
+ *
+ * Elements are boxed on access by {@link #get(int)}; {@link #getRaw(int)} and
+ * {@link #getValue(int)} return the primitive value without allocating. The list is written and
+ * funneled directly from the array. It is equal to, and has the same hash code as, any other
+ * {@link List} of the same U16 values.
+ */
+public final class U16List extends AbstractList<U16> implements RandomAccess, Writeable, PrimitiveSinkable {
+    public static final U16List EMPTY = new U16List(new short[0]);
+
+    private final short[] raw;
+
+    private U16List(short[] raw) {
+        this.raw = raw;
+    }
+
+    /** @return a list of the given raw values */
+    public static U16List ofRaw(@Nonnull short... raw) {
+        return raw.length == 0 ? EMPTY : new U16List(raw.clone());
+    }
+
+    /** @return a list of the values of the given list */
+    public static U16List copyOf(@Nonnull List<U16> list) {
+        if (list instanceof U16List)
+            return (U16List) list;
+        short[] raw = new short[list.size()];
+        for (int i = 0; i < raw.length; i++)
+            raw[i] = list.get(i).getRaw();
+        return raw.length == 0 ? EMPTY : new U16List(raw);
+    }
+
+    /**
+     * Reads a list of U16 occupying length bytes of bb.
+     *
+     * @param bb the buffer to read from
+     * @param length the length of the list, in bytes
+     * @return the list
+     * @throws OFParseError if length is not a multiple of the element size
+     */
+    public static U16List read(ByteBuf bb, int length) throws OFParseError {
+        if (length % 2 != 0)
+            throw new OFParseError("Length of U16 list must be a multiple of 2, was: " + length);
+        if (length == 0)
+            return EMPTY;
+        short[] raw = new short[length / 2];
+        for (int i = 0; i < raw.length; i++)
+            raw[i] = bb.readShort();
+        return new U16List(raw);
+    }
+
+    @Override
+    public U16 get(int index) {
+        return U16.ofRaw(raw[index]);
+    }
+
+    /** @return the raw value of the element at index */
+    public short getRaw(int index) {
+        return raw[index];
+    }
+
+    /** @return the value of the element at index */
+    public int getValue(int index) {
+        return U16.f(raw[index]);
+    }
+
+    /** @return a new array with the raw values of this list */
+    public short[] toRawArray() {
+        return raw.clone();
+    }
+
+    @Override
+    public int size() {
+        return raw.length;
+    }
+
+    @Override
+    public void writeTo(ByteBuf bb) {
+        bb.ensureWritable(getWireLength());
+        for (int i = 0; i < raw.length; i++)
+            bb.writeShort(raw[i]);
+    }
+
+    @Override
+    public int getWireLength() {
+        return raw.length * 2;
+    }
+
+    @Override
+    public void putTo(PrimitiveSink sink) {
+        for (int i = 0; i < raw.length; i++)
+            sink.putShort(raw[i]);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj instanceof U16List)
+            return Arrays.equals(raw, ((U16List) obj).raw);
+        return super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        // the hash code of a List of U16, see U16.hashCode()
+        int result = 1;
+        for (int i = 0; i < raw.length; i++)
+            result = 31 * result + (31 + raw[i]);
+        return result;
+    }
+}
@@ -105,6 +105,11 @@ public final class U32 implements Writeable, OFValueType<U32> {
         bb.writeInt(raw);
     }
 
+    @Override
+    public int getWireLength() {
+        return 4;
+    }
+
     public final static Reader READER = new Reader();
 
     private static class Reader implements OFMessageReader<U32> {
@@ -0,0 +1,129 @@
+package org.projectfloodlight.openflow.types;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nonnull;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.Writeable;
+
+import com.google.common.hash.PrimitiveSink;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * An immutable list of {@link U32}s, backed by an array of their raw values. This is how the
+ * generated readers decode lists of U32, instead of boxing every element up front.
+ *
+ * Elements are boxed on access by {@link #get(int)}; {@link #getRaw(int)} and
+ * {@link #getValue(int)} return the primitive value without allocating. The list is written and
+ * funneled directly from the array. It is equal to, and has the same hash code as, any other
+ * {@link List} of the same U32 values.
+ */
+public final class U32List extends AbstractList<U32> implements RandomAccess, Writeable, PrimitiveSinkable {
+    public static final U32List EMPTY = new U32List(new int[0]);
+
+    private final int[] raw;
+
+    private U32List(int[] raw) {
+        this.raw = raw;
+    }
+
+    /** @return a list of the given raw values */
+    public static U32List ofRaw(@Nonnull int... raw) {
+        return raw.length == 0 ? EMPTY : new U32List(raw.clone());
+    }
+
+    /** @return a list of the values of the given list */
+    public static U32List copyOf(@Nonnull List<U32> list) {
+        if (list instanceof U32List)
+            return (U32List) list;
+        int[] raw = new int[list.size()];
+        for (int i = 0; i < raw.length; i++)
+            raw[i] = list.get(i).getRaw();
+        return raw.length == 0 ? EMPTY : new U32List(raw);
+    }
+
+    /**
+     * Reads a list of U32 occupying length bytes of bb.
+     *
+     * @param bb the buffer to read from
+     * @param length the length of the list, in bytes
+     * @return the list
+     * @throws OFParseError if length is not a multiple of the element size
+     */
+    public static U32List read(ByteBuf bb, int length) throws OFParseError {
+        if (length % 4 != 0)
+            throw new OFParseError("Length of U32 list must be a multiple of 4, was: " + length);
+        if (length == 0)
+            return EMPTY;
+        int[] raw = new int[length / 4];
+        for (int i = 0; i < raw.length; i++)
+            raw[i] = bb.readInt();
+        return new U32List(raw);
+    }
+
+    @Override
+    public U32 get(int index) {
+        return U32.ofRaw(raw[index]);
+    }
+
+    /** @return the raw value of the element at index */
+    public int getRaw(int index) {
+        return raw[index];
+    }
+
+    /** @return the value of the element at index */
+    public long getValue(int index) {
+        return U32.f(raw[index]);
+    }
+
+    /** @return a new array with the raw values of this list */
+    public int[] toRawArray() {
+        return raw.clone();
+    }
+
+    @Override
+    public int size() {
+        return raw.length;
+    }
+
+    @Override
+    public void writeTo(ByteBuf bb) {
+        bb.ensureWritable(getWireLength());
+        for (int i = 0; i < raw.length; i++)
+            bb.writeInt(raw[i]);
+    }
+
+    @Override
+    public int getWireLength() {
+        return raw.length * 4;
+    }
+
+    @Override
+    public void putTo(PrimitiveSink sink) {
+        for (int i = 0; i < raw.length; i++)
+            sink.putInt(raw[i]);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj instanceof U32List)
+            return Arrays.equals(raw, ((U32List) obj).raw);
+        return super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        // the hash code of a List of U32, see U32.hashCode()
+        int result = 1;
+        for (int i = 0; i < raw.length; i++)
+            result = 31 * result + (31 + raw[i]);
+        return result;
+    }
+}
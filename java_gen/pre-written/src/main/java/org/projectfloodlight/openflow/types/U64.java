@@ -123,6 +123,11 @@ public  final class U64 implements Writeable, OFValueType<U64>, HashValue<U64> {
         bb.writeLong(raw);
     }
 
+    @Override
+    public int getWireLength() {
+        return 8;
+    }
+
     @Override
     public int compareTo(U64 o) {
         return UnsignedLongs.compare(raw, o.raw);
@@ -0,0 +1,129 @@
+package org.projectfloodlight.openflow.types;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nonnull;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.Writeable;
+
+import com.google.common.hash.PrimitiveSink;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * An immutable list of {@link U64}s, backed by an array of their raw values. This is how the
+ * generated readers decode lists of U64, instead of boxing every element up front.
+ *
+ * Elements are boxed on access by {@link #get(int)}; {@link #getRaw(int)} and
+ * {@link #getValue(int)} return the primitive value without allocating. The list is written and
+ * funneled directly from the array. It is equal to, and has the same hash code as, any other
+ * {@link List} of the same U64 values.
+ */
+public final class U64List extends AbstractList<U64> implements RandomAccess, Writeable, PrimitiveSinkable {
+    public static final U64List EMPTY = new U64List(new long[0]);
+
+    private final long[] raw;
+
+    private U64List(long[] raw) {
+        this.raw = raw;
+    }
+
+    /** @return a list of the given raw values */
+    public static U64List ofRaw(@Nonnull long... raw) {
+        return raw.length == 0 ? EMPTY : new U64List(raw.clone());
+    }
+
+    /** @return a list of the values of the given list */
+    public static U64List copyOf(@Nonnull List<U64> list) {
+        if (list instanceof U64List)
+            return (U64List) list;
+        long[] raw = new long[list.size()];
+        for (int i = 0; i < raw.length; i++)
+            raw[i] = list.get(i).getValue();
+        return raw.length == 0 ? EMPTY : new U64List(raw);
+    }
+
+    /**
+     * Reads a list of U64 occupying length bytes of bb.
+     *
+     * @param bb the buffer to read from
+     * @param length the length of the list, in bytes
+     * @return the list
+     * @throws OFParseError if length is not a multiple of the element size
+     */
+    public static U64List read(ByteBuf bb, int length) throws OFParseError {
+        if (length % 8 != 0)
+            throw new OFParseError("Length of U64 list must be a multiple of 8, was: " + length);
+        if (length == 0)
+            return EMPTY;
+        long[] raw = new long[length / 8];
+        for (int i = 0; i < raw.length; i++)
+            raw[i] = bb.readLong();
+        return new U64List(raw);
+    }
+
+    @Override
+    public U64 get(int index) {
+        return U64.ofRaw(raw[index]);
+    }
+
+    /** @return the raw value of the element at index */
+    public long getRaw(int index) {
+        return raw[index];
+    }
+
+    /** @return the value (the raw value, as a signed long) of the element at index */
+    public long getValue(int index) {
+        return raw[index];
+    }
+
+    /** @return a new array with the raw values of this list */
+    public long[] toRawArray() {
+        return raw.clone();
+    }
+
+    @Override
+    public int size() {
+        return raw.length;
+    }
+
+    @Override
+    public void writeTo(ByteBuf bb) {
+        bb.ensureWritable(getWireLength());
+        for (int i = 0; i < raw.length; i++)
+            bb.writeLong(raw[i]);
+    }
+
+    @Override
+    public int getWireLength() {
+        return raw.length * 8;
+    }
+
+    @Override
+    public void putTo(PrimitiveSink sink) {
+        for (int i = 0; i < raw.length; i++)
+            sink.putLong(raw[i]);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj instanceof U64List)
+            return Arrays.equals(raw, ((U64List) obj).raw);
+        return super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        // the hash code of a List of U64, see U64.hashCode()
+        int result = 1;
+        for (int i = 0; i < raw.length; i++)
+            result = 31 * result + (31 + (int) (raw[i] ^ (raw[i] >>> 32)));
+        return result;
+    }
+}
@@ -98,6 +98,11 @@ public final class U8 implements Writeable, OFValueType<U8> {
         bb.writeByte(raw);
     }
 
+    @Override
+    public int getWireLength() {
+        return 1;
+    }
+
     public static short f(final byte i) {
         return (short) (i & 0xff);
     }
@@ -0,0 +1,123 @@
+package org.projectfloodlight.openflow.types;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nonnull;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.Writeable;
+
+import com.google.common.hash.PrimitiveSink;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * An immutable list of {@link U8}s, backed by an array of their raw values. This is how the
+ * generated readers decode lists of U8, instead of boxing every element up front.
+ *
+ * Elements are boxed on access by {@link #get(int)}; {@link #getRaw(int)} and
+ * {@link #getValue(int)} return the primitive value without allocating. The list is written and
+ * funneled directly from the array. It is equal to, and has the same hash code as, any other
+ * {@link List} of the same U8 values.
+ */
+public final class U8List extends AbstractList<U8> implements RandomAccess, Writeable, PrimitiveSinkable {
+    public static final U8List EMPTY = new U8List(new byte[0]);
+
+    private final byte[] raw;
+
+    private U8List(byte[] raw) {
+        this.raw = raw;
+    }
+
+    /** @return a list of the given raw values */
+    public static U8List ofRaw(@Nonnull byte... raw) {
+        return raw.length == 0 ? EMPTY : new U8List(raw.clone());
+    }
+
+    /** @return a list of the values of the given list */
+    public static U8List copyOf(@Nonnull List<U8> list) {
+        if (list instanceof U8List)
+            return (U8List) list;
+        byte[] raw = new byte[list.size()];
+        for (int i = 0; i < raw.length; i++)
+            raw[i] = list.get(i).getRaw();
+        return raw.length == 0 ? EMPTY : new U8List(raw);
+    }
+
+    /**
+     * Reads a list of U8 occupying length bytes of bb.
+     *
+     * @param bb the buffer to read from
+     * @param length the length of the list, in bytes
+     * @return the list
+     * @throws OFParseError if length is not a multiple of the element size
+     */
+    public static U8List read(ByteBuf bb, int length) throws OFParseError {
+        if (length == 0)
+            return EMPTY;
+        byte[] raw = new byte[length];
+        bb.readBytes(raw);
+        return new U8List(raw);
+    }
+
+    @Override
+    public U8 get(int index) {
+        return U8.ofRaw(raw[index]);
+    }
+
+    /** @return the raw value of the element at index */
+    public byte getRaw(int index) {
+        return raw[index];
+    }
+
+    /** @return the value of the element at index */
+    public short getValue(int index) {
+        return U8.f(raw[index]);
+    }
+
+    /** @return a new array with the raw values of this list */
+    public byte[] toRawArray() {
+        return raw.clone();
+    }
+
+    @Override
+    public int size() {
+        return raw.length;
+    }
+
+    @Override
+    public void writeTo(ByteBuf bb) {
+        bb.writeBytes(raw);
+    }
+
+    @Override
+    public int getWireLength() {
+        return raw.length;
+    }
+
+    @Override
+    public void putTo(PrimitiveSink sink) {
+        sink.putBytes(raw);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj instanceof U8List)
+            return Arrays.equals(raw, ((U8List) obj).raw);
+        return super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        // the hash code of a List of U8, see U8.hashCode()
+        int result = 1;
+        for (int i = 0; i < raw.length; i++)
+            result = 31 * result + (31 + raw[i]);
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package org.projectfloodlight.openflow.util;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.projectfloodlight.openflow.exceptions.OFParseError;
 import org.projectfloodlight.openflow.protocol.OFMessageReader;
@@ -53,6 +54,15 @@ public class ChannelUtils {
         return byteArray;
     }
 
+    /** Returns a copy of the readable bytes of bb, without modifying its indexes. The copy
+     *  never shares storage with bb, so the caller keeps ownership of the buffer.
+     */
+    public static byte[] getReadableBytes(final ByteBuf bb) {
+        byte[] byteArray = new byte[bb.readableBytes()];
+        bb.getBytes(bb.readerIndex(), byteArray);
+        return byteArray;
+    }
+
     static public void writeBytes(final ByteBuf bb,
             final byte byteArray[]) {
         bb.writeBytes(byteArray);
@@ -75,7 +85,45 @@ public class ChannelUtils {
         return builder.build();
     }
 
+    /** Reads the elements of a list of the given length one at a time, and passes them to the
+     *  consumer instead of collecting them.
+     *
+     * @return the number of elements read
+     */
+    public static <T> int readListElements(ByteBuf bb, int length, OFMessageReader<T> reader,
+            Consumer<? super T> consumer) throws OFParseError {
+        int end = bb.readerIndex() + length;
+        int count = 0;
+        while(bb.readerIndex() < end) {
+            T read = reader.readFrom(bb);
+            if(read == null)
+                throw new OFParseError("Truncated list element: length=" + length + " reader: " + reader);
+            consumer.accept(read);
+            count++;
+        }
+        if(bb.readerIndex() != end) {
+            throw new IllegalStateException("Overread length: length="+length + " overread by "+ (bb.readerIndex() - end) + " reader: "+reader);
+        }
+        return count;
+    }
+
+    /** @return the number of bytes {@link #writeList(ByteBuf, List)} writes for the given list */
+    public static int getWireLength(List<? extends Writeable> writeables) {
+        if(writeables instanceof Writeable)
+            return ((Writeable) writeables).getWireLength();
+        int length = 0;
+        for(Writeable w: writeables)
+            length += w.getWireLength();
+        return length;
+    }
+
     public static void writeList(ByteBuf bb, List<? extends Writeable> writeables) {
+        if(writeables instanceof Writeable) {
+            // lists that know their wire representation (e.g., LazyOFList, U32List) write it
+            // directly, without decoding or boxing the elements
+            ((Writeable) writeables).writeTo(bb);
+            return;
+        }
         for(Writeable w: writeables)
             w.writeTo(bb);
     }
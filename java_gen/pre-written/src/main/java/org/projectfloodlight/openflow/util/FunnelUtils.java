@@ -8,6 +8,11 @@ import com.google.common.hash.PrimitiveSink;
 
 public class FunnelUtils {
     public static void putList(List<? extends PrimitiveSinkable> sinkables, PrimitiveSink sink) {
+        if(sinkables instanceof PrimitiveSinkable) {
+            // primitive lists (e.g., U32List) funnel their values without boxing
+            ((PrimitiveSinkable) sinkables).putTo(sink);
+            return;
+        }
         for(PrimitiveSinkable p: sinkables)
             p.putTo(sink);
     }
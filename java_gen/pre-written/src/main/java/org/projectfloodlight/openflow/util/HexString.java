@@ -30,6 +30,17 @@ public final class HexString {
      * @return "0f:ca:fe:de:ad:be:ef"
      */
     public static String toHexString(final byte[] bytes) {
+        return toHexString(bytes, ':');
+    }
+
+    /**
+     * Convert a string of bytes to a hex string, with the given separator between bytes
+     *
+     * @param bytes the byte[] to convert
+     * @param separator the character to put between two bytes
+     * @return e.g., "0f ca fe de ad be ef" for separator ' '
+     */
+    public static String toHexString(final byte[] bytes, final char separator) {
         int lenBytes = bytes.length;
         if (lenBytes == 0) {
             return "";
@@ -45,7 +56,7 @@ public final class HexString {
             if (++i >= lenBytes) {
                 break;
             }
-            arr[charPos++] = ':';
+            arr[charPos++] = separator;
         }
 
         return new String(arr, 0, arr.length);
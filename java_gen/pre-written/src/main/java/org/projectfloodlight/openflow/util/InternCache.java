@@ -0,0 +1,178 @@
+package org.projectfloodlight.openflow.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A bounded cache that interns immutable values by their primitive key, so that values decoded
+ * repeatedly (e.g., the addresses of the same hosts in many messages) share one instance.
+ *
+ * The cache is a set-associative array of {@link #WAYS} entries per set, indexed by a hash of
+ * the key. Within a set, entries are evicted in CLOCK order: an entry that has been hit since
+ * it was last passed over gets a second chance. Lookups and insertions are lock-free: the
+ * entries array is accessed without synchronization, which is safe because the cached values
+ * are immutable, and safely published through their final fields. Concurrent insertions into
+ * the same set may overwrite each other, or be missed by concurrent lookups; this only costs
+ * hits, never correctness.
+ *
+ * Hit and miss counts are kept for tuning the capacity.
+ *
+ * @param <T> the type of the cached values
+ */
+public abstract class InternCache<T> {
+    /** number of entries per set */
+    public static final int WAYS = 4;
+
+    private final Object[] entries;
+    /** CLOCK reference bits of the entries */
+    private final boolean[] referenced;
+    private final int setMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    InternCache(int capacity) {
+        checkArgument(capacity > 0, "capacity must be positive, was: %s", capacity);
+        int size = Math.max(WAYS, Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1);
+        this.entries = new Object[size];
+        this.referenced = new boolean[size];
+        this.setMask = size - WAYS;
+    }
+
+    /** @return the maximum number of cached values (the requested capacity, rounded up to a power of two) */
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /** @return the number of lookups that returned a cached value */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /** @return the number of lookups that had to create a new value */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** Removes all values from the cache, and resets the hit and miss counts. */
+    public void clear() {
+        Arrays.fill(entries, null);
+        Arrays.fill(referenced, false);
+        hits.reset();
+        misses.reset();
+    }
+
+    /** @return the index of the first entry of the set for the given hash */
+    final int set(long hash) {
+        int h = (int) ((hash * 0x9E3779B97F4A7C15L) >>> 32);
+        return h & setMask;
+    }
+
+    @SuppressWarnings("unchecked")
+    final T entry(int index) {
+        return (T) entries[index];
+    }
+
+    final void hit(int index) {
+        referenced[index] = true;
+        hits.increment();
+    }
+
+    final T insert(int set, T value) {
+        misses.increment();
+        int victim = set;
+        for (int i = set; i < set + WAYS; i++) {
+            if (entries[i] == null || !referenced[i]) {
+                victim = i;
+                break;
+            }
+            // second chance
+            referenced[i] = false;
+        }
+        referenced[victim] = false;
+        entries[victim] = value;
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(capacity=" + getCapacity() + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ")";
+    }
+
+    /** An intern cache for values identified by a single long key. */
+    public static final class OfLong<T> extends InternCache<T> {
+        private final ToLongFunction<? super T> keyOf;
+        private final LongFunction<? extends T> factory;
+
+        /**
+         * @param capacity the maximum number of cached values
+         * @param keyOf returns the key of a value
+         * @param factory creates the value for a key
+         */
+        public OfLong(int capacity, @Nonnull ToLongFunction<? super T> keyOf,
+                @Nonnull LongFunction<? extends T> factory) {
+            super(capacity);
+            this.keyOf = checkNotNull(keyOf, "keyOf must not be null");
+            this.factory = checkNotNull(factory, "factory must not be null");
+        }
+
+        /** @return the cached value for the key; creates and caches it if not present */
+        public T intern(long key) {
+            int set = set(key);
+            for (int i = set; i < set + WAYS; i++) {
+                T value = entry(i);
+                if (value != null && keyOf.applyAsLong(value) == key) {
+                    hit(i);
+                    return value;
+                }
+            }
+            return insert(set, factory.apply(key));
+        }
+    }
+
+    /** An intern cache for values identified by a pair of long keys. */
+    public static final class OfLongPair<T> extends InternCache<T> {
+        /** creates the value for a pair of keys */
+        public interface Factory<T> {
+            T create(long key1, long key2);
+        }
+
+        private final ToLongFunction<? super T> key1Of;
+        private final ToLongFunction<? super T> key2Of;
+        private final Factory<? extends T> factory;
+
+        /**
+         * @param capacity the maximum number of cached values
+         * @param key1Of returns the first key of a value
+         * @param key2Of returns the second key of a value
+         * @param factory creates the value for a pair of keys
+         */
+        public OfLongPair(int capacity, @Nonnull ToLongFunction<? super T> key1Of,
+                @Nonnull ToLongFunction<? super T> key2Of, @Nonnull Factory<? extends T> factory) {
+            super(capacity);
+            this.key1Of = checkNotNull(key1Of, "key1Of must not be null");
+            this.key2Of = checkNotNull(key2Of, "key2Of must not be null");
+            this.factory = checkNotNull(factory, "factory must not be null");
+        }
+
+        /** @return the cached value for the keys; creates and caches it if not present */
+        public T intern(long key1, long key2) {
+            int set = set(key1 * 31 + key2);
+            for (int i = set; i < set + WAYS; i++) {
+                T value = entry(i);
+                if (value != null && key2Of.applyAsLong(value) == key2 && key1Of.applyAsLong(value) == key1) {
+                    hit(i);
+                    return value;
+                }
+            }
+            return insert(set, factory.create(key1, key2));
+        }
+    }
+}
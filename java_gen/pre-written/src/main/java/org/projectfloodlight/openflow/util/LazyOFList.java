@@ -0,0 +1,158 @@
+package org.projectfloodlight.openflow.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFMessageReader;
+import org.projectfloodlight.openflow.protocol.Writeable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * An immutable list of OpenFlow objects that is decoded lazily. Holds a private copy of the
+ * wire representation of the list, and decodes each element on first access. Decoded
+ * elements are memoized. Lists are only read lazily on request, by the readers returned by
+ * {@link org.projectfloodlight.openflow.protocol.OFFactory#getLazyListReader()}.
+ *
+ * The framing of the list (i.e., the lengths of the elements) is validated when the list is
+ * read, so malformed lists are still rejected with an {@link OFParseError} by the message
+ * readers. Errors in the content of an element are only detected when the element is
+ * accessed, and are reported as {@link IllegalStateException}.
+ *
+ * Writing the list out via {@link ChannelUtils#writeList(ByteBuf, List)} copies the wire
+ * representation without decoding the elements.
+ *
+ * Instances are thread-safe: decoded elements are published through an
+ * {@link AtomicReferenceArray}. Concurrent first accesses may decode an element more than
+ * once, but all callers observe the same instance.
+ *
+ * @param <T> the element type
+ */
+public final class LazyOFList<T> extends AbstractList<T> implements RandomAccess, Writeable {
+    /** Determines the wire length of an element without decoding it */
+    @FunctionalInterface
+    public interface ElementLength {
+        /** @return the length in bytes of the element starting at index of bb */
+        int getLength(ByteBuf bb, int index);
+    }
+
+    /** wire representation of the list, starting at index 0 */
+    private final ByteBuf data;
+    private final int size;
+    private final OFMessageReader<T> reader;
+    private final ElementLength elementLength;
+    /** start offsets of the elements in data, plus the end of the list; created on first access */
+    private volatile int[] offsets;
+    private final AtomicReferenceArray<T> elements;
+
+    private LazyOFList(ByteBuf data, int size, OFMessageReader<T> reader, ElementLength elementLength) {
+        this.data = data;
+        this.size = size;
+        this.reader = reader;
+        this.elementLength = elementLength;
+        this.elements = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Reads a list of the given byte length from bb. The elements are decoded on demand by the
+     * given reader.
+     *
+     * @param bb the buffer to read from
+     * @param length the length of the list in bytes
+     * @param reader reader for the elements
+     * @param elementLength determines the length of an element
+     * @return a lazily decoded list
+     * @throws OFParseError if the lengths of the elements do not add up to the list length
+     */
+    public static <T> List<T> read(ByteBuf bb, int length, OFMessageReader<T> reader,
+            ElementLength elementLength) throws OFParseError {
+        if(length == 0)
+            return ImmutableList.of();
+        if(bb.readableBytes() < length)
+            throw new OFParseError("List length " + length + " exceeds readable bytes " + bb.readableBytes());
+
+        int end = bb.readerIndex() + length;
+        int count = 0;
+        for(int index = bb.readerIndex(); index < end; count++) {
+            int len;
+            try {
+                len = elementLength.getLength(bb, index);
+            } catch (IndexOutOfBoundsException e) {
+                throw new OFParseError("Truncated list element at offset " + (index - bb.readerIndex()), e);
+            }
+            if(len <= 0 || len > end - index)
+                throw new OFParseError("Invalid list element length " + len + " at offset "
+                        + (index - bb.readerIndex()) + " of list of length " + length);
+            index += len;
+        }
+
+        byte[] bytes = new byte[length];
+        bb.readBytes(bytes);
+        return new LazyOFList<T>(Unpooled.wrappedBuffer(bytes), count, reader, elementLength);
+    }
+
+    private int[] offsets() {
+        int[] result = offsets;
+        if(result == null) {
+            result = new int[size + 1];
+            int index = 0;
+            for(int i = 0; i < size; i++) {
+                result[i] = index;
+                index += elementLength.getLength(data, index);
+            }
+            result[size] = index;
+            offsets = result;
+        }
+        return result;
+    }
+
+    @Override
+    public T get(int i) {
+        Preconditions.checkElementIndex(i, size);
+        T element = elements.get(i);
+        if(element == null) {
+            element = decode(i);
+            if(!elements.compareAndSet(i, null, element))
+                element = elements.get(i);
+        }
+        return element;
+    }
+
+    private T decode(int i) {
+        int[] offsets = offsets();
+        ByteBuf bb = data.duplicate();
+        bb.readerIndex(offsets[i]);
+        T element;
+        try {
+            element = reader.readFrom(bb);
+        } catch (OFParseError e) {
+            throw new IllegalStateException("Error decoding list element " + i + " reader: " + reader, e);
+        }
+        if(element == null || bb.readerIndex() != offsets[i + 1])
+            throw new IllegalStateException("Error decoding list element " + i + ": length mismatch, reader: " + reader);
+        return element;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getWireLength() {
+        return data.writerIndex();
+    }
+
+    /** Writes the wire representation of the list, without decoding the elements. */
+    @Override
+    public void writeTo(ByteBuf bb) {
+        bb.writeBytes(data, 0, data.writerIndex());
+    }
+}
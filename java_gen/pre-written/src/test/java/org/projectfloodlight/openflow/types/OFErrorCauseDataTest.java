@@ -2,6 +2,10 @@ package org.projectfloodlight.openflow.types;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -72,4 +76,34 @@ public class OFErrorCauseDataTest {
         assertThat(emptyCause.toString(), Matchers.containsString("OFFlowAdd"));
         assertThat(emptyCause.toString(), Matchers.containsString("idleTimeout=5"));
     }
+
+    @Test
+    public void testReadParsesOnce() {
+        OFFlowAdd flowAdd = OFFactories.getFactory(OFVersion.OF_13).buildFlowAdd()
+        .setXid(0x12345678)
+        .setIdleTimeout(5)
+        .build();
+
+        ByteBuf bb = Unpooled.buffer();
+        bb.writeByte(0xff);
+        flowAdd.writeTo(bb);
+        int length = bb.readableBytes() - 1;
+        bb.readByte();
+
+        OFErrorCauseData cause = OFErrorCauseData.read(bb, length, OFVersion.OF_13);
+        assertThat(bb.isReadable(), equalTo(false));
+        assertThat(cause.getWireLength(), equalTo(length));
+        assertThat(cause.getParsedMessage().get(), equalTo((Object) flowAdd));
+        assertThat(cause.getParsedMessage().get(), sameInstance(cause.getParsedMessage().get()));
+        assertThat(cause.toString(), equalTo(flowAdd.toString()));
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void testDataBuffer() {
+        OFErrorCauseData cause = OFErrorCauseData.of(new byte[] {0x1, 0x2}, OFVersion.OF_13);
+        ByteBuffer buffer = cause.getDataBuffer();
+        assertThat(buffer.remaining(), equalTo(2));
+        assertThat(buffer.get(1), equalTo((byte) 0x2));
+        buffer.put(0, (byte) 0x3);
+    }
 }
@@ -0,0 +1,134 @@
+package org.projectfloodlight.openflow.types;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFHello;
+import org.projectfloodlight.openflow.protocol.OFHelloElem;
+import org.projectfloodlight.openflow.protocol.OFHelloElemVersionbitmap;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.Writeable;
+import org.projectfloodlight.openflow.util.ChannelUtils;
+import org.projectfloodlight.openflow.util.FunnelUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class PrimitiveListTest {
+
+    private static HashCode funnel(List<? extends PrimitiveSinkable> list) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        FunnelUtils.putList(list, hasher);
+        return hasher.hash();
+    }
+
+    /** checks that the primitive list behaves exactly like a list of the boxed values */
+    private static <T extends Writeable & PrimitiveSinkable> void checkList(List<T> list, ImmutableList<T> boxed) {
+        assertThat(list, equalTo((List<T>) boxed));
+        assertThat(boxed, equalTo(list));
+        assertThat(list.hashCode(), equalTo(boxed.hashCode()));
+        assertThat(list.toString(), equalTo(boxed.toString()));
+        assertThat(ChannelUtils.getWireLength(list), equalTo(ChannelUtils.getWireLength(boxed)));
+
+        ByteBuf written = Unpooled.buffer();
+        ChannelUtils.writeList(written, list);
+        ByteBuf expected = Unpooled.buffer();
+        ChannelUtils.writeList(expected, boxed);
+        assertThat(written, equalTo(expected));
+
+        assertThat(funnel(list), equalTo(funnel(boxed)));
+    }
+
+    @Test
+    public void testU8List() throws OFParseError {
+        U8List list = U8List.ofRaw((byte) 1, (byte) 0xff);
+        checkList(list, ImmutableList.of(U8.of((short) 1), U8.of((short) 0xff)));
+        assertThat(list.getRaw(1), equalTo((byte) 0xff));
+        assertThat(list.getValue(1), equalTo((short) 0xff));
+
+        ByteBuf bb = Unpooled.wrappedBuffer(new byte[] { 1, (byte) 0xff, 7 });
+        assertThat(U8List.read(bb, 2), equalTo(list));
+        assertThat(bb.readerIndex(), equalTo(2));
+    }
+
+    @Test
+    public void testU16List() throws OFParseError {
+        U16List list = U16List.ofRaw((short) 1, (short) 0xffff);
+        checkList(list, ImmutableList.of(U16.of(1), U16.of(0xffff)));
+        assertThat(list.getRaw(1), equalTo((short) 0xffff));
+        assertThat(list.getValue(1), equalTo(0xffff));
+    }
+
+    @Test
+    public void testU32List() throws OFParseError {
+        U32List list = U32List.ofRaw(1, 0xffff_ffff);
+        checkList(list, ImmutableList.of(U32.of(1), U32.of(0xffff_ffffL)));
+        assertThat(list.getRaw(1), equalTo(0xffff_ffff));
+        assertThat(list.getValue(1), equalTo(0xffff_ffffL));
+
+        ByteBuf bb = Unpooled.buffer();
+        list.writeTo(bb);
+        assertThat(U32List.read(bb, 8), equalTo(list));
+        assertThat(U32List.read(bb, 0), sameInstance(U32List.EMPTY));
+    }
+
+    @Test
+    public void testU64List() throws OFParseError {
+        U64List list = U64List.ofRaw(1L, 0x1234_5678_9abc_def0L, -1L);
+        checkList(list, ImmutableList.of(U64.of(1), U64.of(0x1234_5678_9abc_def0L), U64.of(-1L)));
+        assertThat(list.getValue(2), equalTo(-1L));
+        assertThat(U64List.copyOf(ImmutableList.copyOf(list)), equalTo(list));
+        assertThat(U64List.copyOf(list), sameInstance(list));
+    }
+
+    @Test
+    public void testOfRawCopiesArray() {
+        int[] raw = { 1, 2 };
+        U32List list = U32List.ofRaw(raw);
+        raw[0] = 3;
+        assertThat(list.getRaw(0), equalTo(1));
+        list.toRawArray()[1] = 3;
+        assertThat(list.getRaw(1), equalTo(2));
+    }
+
+    @Test(expected = OFParseError.class)
+    public void testReadInvalidLength() throws OFParseError {
+        U64List.read(Unpooled.wrappedBuffer(new byte[12]), 12);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        U16List.ofRaw((short) 1).set(0, U16.of(2));
+    }
+
+    @Test
+    public void testGeneratedMessage() throws OFParseError {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFHello hello = factory.buildHello()
+                .setElements(ImmutableList.<OFHelloElem>of(factory.buildHelloElemVersionbitmap()
+                        .setBitmaps(ImmutableList.of(U32.of(0x12)))
+                        .build()))
+                .build();
+        ByteBuf bb = Unpooled.buffer();
+        hello.writeTo(bb);
+
+        OFHello read = (OFHello) factory.getReader().readFrom(bb);
+        assertThat(read, equalTo(hello));
+        List<U32> bitmaps = ((OFHelloElemVersionbitmap) read.getElements().get(0)).getBitmaps();
+        assertThat(bitmaps, instanceOf(U32List.class));
+        assertThat(((U32List) bitmaps).getValue(0), equalTo(0x12L));
+    }
+}
@@ -187,6 +187,16 @@ public class HexStringTest {
                 equalTo(new byte[]{(byte) 0xff, 0x01, (byte) 0xfe, 0x02, (byte) 0xfd}));
 
     }
+
+    @Test
+    public void testToHexStringSeparator() {
+        assertThat(HexString.toHexString(new byte[]{}, ' '), equalTo(""));
+        assertThat(HexString.toHexString(new byte[]{0x01}, ' '), equalTo("01"));
+        assertThat(HexString.toHexString(new byte[]{(byte) 0xff, 0x0e, 0x00, (byte) 0x80}, ' '),
+                equalTo("ff 0e 00 80"));
+        assertThat(HexString.toHexString(new byte[]{0x0f, (byte) 0xca}), equalTo("0f:ca"));
+    }
+
     @Test
     public void testToBytesRandom() {
         Random r = new Random();
@@ -0,0 +1,150 @@
+package org.projectfloodlight.openflow.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.IPv6Address;
+import org.projectfloodlight.openflow.types.MacAddress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class InternCacheTest {
+
+    @Test
+    public void testCapacity() {
+        assertThat(new InternCache.OfLong<Long>(1, Long::longValue, Long::valueOf).getCapacity(),
+                equalTo(InternCache.WAYS));
+        assertThat(new InternCache.OfLong<Long>(1000, Long::longValue, Long::valueOf).getCapacity(),
+                equalTo(1024));
+        assertThat(new InternCache.OfLong<Long>(1024, Long::longValue, Long::valueOf).getCapacity(),
+                equalTo(1024));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new InternCache.OfLong<Long>(0, Long::longValue, Long::valueOf);
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        InternCache.OfLong<String> cache = new InternCache.OfLong<>(64, Long::parseLong, Long::toString);
+        String first = cache.intern(42);
+        assertThat(first, equalTo("42"));
+        assertThat(cache.intern(42), sameInstance(first));
+        assertThat(cache.intern(43), equalTo("43"));
+        assertThat(cache.getHitCount(), equalTo(1L));
+        assertThat(cache.getMissCount(), equalTo(2L));
+
+        cache.clear();
+        assertThat(cache.getHitCount(), equalTo(0L));
+        assertThat(cache.intern(42), not(sameInstance(first)));
+    }
+
+    @Test
+    public void testBounded() {
+        InternCache.OfLong<String> cache = new InternCache.OfLong<>(16, Long::parseLong, Long::toString);
+        for (long i = 0; i < 10000; i++)
+            assertThat(cache.intern(i), equalTo(Long.toString(i)));
+        int cached = 0;
+        for (long i = 0; i < 10000; i++) {
+            long hits = cache.getHitCount();
+            cache.intern(i);
+            if (cache.getHitCount() > hits)
+                cached++;
+        }
+        assertThat(cached, lessThan(17));
+    }
+
+    @Test
+    public void testHitEntrySurvivesEviction() {
+        InternCache.OfLong<String> cache = new InternCache.OfLong<>(InternCache.WAYS, Long::parseLong, Long::toString);
+        String hot = cache.intern(0);
+        for (long i = 1; i < 1000; i++) {
+            // keep the entry referenced, so it always gets a second chance
+            assertThat(cache.intern(0), sameInstance(hot));
+            cache.intern(i);
+        }
+    }
+
+    @Test
+    public void testLongPair() {
+        InternCache.OfLongPair<long[]> cache = new InternCache.OfLongPair<>(16,
+                a -> a[0], a -> a[1], (k1, k2) -> new long[] { k1, k2 });
+        long[] value = cache.intern(1, 2);
+        assertThat(cache.intern(1, 2), sameInstance(value));
+        assertThat(cache.intern(2, 1), equalTo(new long[] { 2, 1 }));
+        assertThat(cache.getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testConcurrentInterning() throws InterruptedException {
+        InternCache.OfLong<String> cache = new InternCache.OfLong<>(64, Long::parseLong, Long::toString);
+        AtomicReference<AssertionError> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (long i = 0; i < 100000; i++) {
+                    long key = i % 200;
+                    if (!cache.intern(key).equals(Long.toString(key)))
+                        failure.compareAndSet(null, new AssertionError("wrong value for " + key));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        if (failure.get() != null)
+            throw failure.get();
+    }
+
+    @Test
+    public void testReadAddresses() throws OFParseError {
+        ByteBuf bb = Unpooled.buffer();
+        for (int i = 0; i < 2; i++) {
+            MacAddress.of("00:11:22:33:44:55").write6Bytes(bb);
+            IPv4Address.of("10.0.0.1").write4Bytes(bb);
+            IPv6Address.of("fe80::1").write16Bytes(bb);
+        }
+
+        InternCache<MacAddress> macCache = MacAddress.enableInternCache(256);
+        InternCache<IPv4Address> ipv4Cache = IPv4Address.enableInternCache(256);
+        InternCache<IPv6Address> ipv6Cache = IPv6Address.enableInternCache(256);
+        try {
+            assertThat(MacAddress.getInternCache(), sameInstance(macCache));
+            MacAddress mac = MacAddress.read6Bytes(bb);
+            IPv4Address ipv4 = IPv4Address.read4Bytes(bb);
+            IPv6Address ipv6 = IPv6Address.read16Bytes(bb);
+            assertThat(mac, equalTo(MacAddress.of("00:11:22:33:44:55")));
+            assertThat(ipv4, equalTo(IPv4Address.of("10.0.0.1")));
+            assertThat(ipv6, equalTo(IPv6Address.of("fe80::1")));
+            assertThat(MacAddress.read6Bytes(bb), sameInstance(mac));
+            assertThat(IPv4Address.read4Bytes(bb), sameInstance(ipv4));
+            assertThat(IPv6Address.read16Bytes(bb), sameInstance(ipv6));
+            assertThat(macCache.getHitCount(), equalTo(1L));
+            assertThat(ipv4Cache.getMissCount(), equalTo(1L));
+            assertThat(ipv6Cache.getHitCount(), equalTo(1L));
+        } finally {
+            MacAddress.disableInternCache();
+            IPv4Address.disableInternCache();
+            IPv6Address.disableInternCache();
+        }
+
+        assertThat(MacAddress.getInternCache(), equalTo(null));
+        MacAddress first = MacAddress.read6Bytes(bb.readerIndex(0));
+        MacAddress second = MacAddress.read6Bytes(bb.readerIndex(6 + 4 + 16));
+        assertThat(second, equalTo(first));
+        assertThat(second, not(sameInstance(first)));
+    }
+}
@@ -0,0 +1,97 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsEntry;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsReply;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.action.OFAction;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+import org.projectfloodlight.openflow.util.LazyOFList;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class LazyOFListTest {
+    private final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+
+    private OFFlowStatsReply buildReply() {
+        List<OFFlowStatsEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            List<OFAction> actions = new ArrayList<>();
+            actions.add(factory.actions().output(OFPort.of(i + 1), 0xffff));
+            entries.add(factory.buildFlowStatsEntry()
+                    .setTableId(TableId.of(i))
+                    .setCookie(U64.of(i))
+                    .setMatch(factory.matchWildcardAll())
+                    .setInstructions(Collections.singletonList(
+                            factory.instructions().applyActions(actions)))
+                    .build());
+        }
+        return factory.buildFlowStatsReply().setXid(5).setEntries(entries).build();
+    }
+
+    @Test
+    public void testLazyEntries() throws OFParseError {
+        OFFlowStatsReply reply = buildReply();
+        ByteBuf bb = Unpooled.buffer();
+        reply.writeTo(bb);
+
+        OFMessage read = factory.getLazyListReader().readFrom(bb);
+        assertThat(read, equalTo((OFMessage) reply));
+        OFFlowStatsReply readReply = (OFFlowStatsReply) read;
+        assertThat(readReply.getEntries(), instanceOf(LazyOFList.class));
+        assertThat(readReply.getEntries().size(), equalTo(3));
+        assertThat(readReply.getEntries().get(1), sameInstance(readReply.getEntries().get(1)));
+        assertThat(readReply.getEntries().get(2).getTableId(), equalTo(TableId.of(2)));
+    }
+
+    @Test
+    public void testEagerByDefault() throws OFParseError {
+        OFFlowStatsReply reply = buildReply();
+        ByteBuf bb = Unpooled.buffer();
+        reply.writeTo(bb);
+
+        OFFlowStatsReply read = (OFFlowStatsReply) factory.getReader().readFrom(bb);
+        assertThat(read, equalTo(reply));
+        assertThat(read.getEntries(), not(instanceOf(LazyOFList.class)));
+    }
+
+    @Test
+    public void testRewriteWithoutDecoding() throws OFParseError {
+        OFFlowStatsReply reply = buildReply();
+        ByteBuf bb = Unpooled.buffer();
+        reply.writeTo(bb);
+        ByteBuf expected = bb.copy();
+
+        OFMessage read = factory.getLazyListReader().readFrom(bb);
+        ByteBuf out = Unpooled.buffer();
+        read.writeTo(out);
+        assertThat(out, equalTo(expected));
+    }
+
+    @Test(expected = OFParseError.class)
+    public void testInvalidElementLength() throws OFParseError {
+        OFFlowStatsReply reply = buildReply();
+        ByteBuf bb = Unpooled.buffer();
+        reply.writeTo(bb);
+        // corrupt the length of the first flow stats entry (header 16 bytes, entry length at 0)
+        bb.setShort(16, 0xffff);
+        factory.getLazyListReader().readFrom(bb);
+    }
+}
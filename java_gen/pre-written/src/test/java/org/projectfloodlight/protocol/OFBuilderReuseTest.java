@@ -0,0 +1,119 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFBuilderPool;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowAdd;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFObject;
+import org.projectfloodlight.openflow.protocol.OFPacketOut;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.action.OFAction;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.IpProtocol;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TransportPort;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class OFBuilderReuseTest {
+
+    private static ByteBuf write(OFObject object) {
+        ByteBuf bb = Unpooled.buffer();
+        object.writeTo(bb);
+        return bb;
+    }
+
+    private static ByteBuf write(OFMessage.Builder builder) {
+        ByteBuf bb = Unpooled.buffer();
+        builder.writeTo(bb);
+        return bb;
+    }
+
+    private static Match match(OFFactory factory) {
+        return factory.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.IPV4_DST, IPv4Address.of("10.0.0.1"))
+                .setExact(MatchField.TCP_DST, TransportPort.of(80))
+                .build();
+    }
+
+    private static OFFlowAdd.Builder flowAdd(OFFactory factory) {
+        return factory.buildFlowAdd()
+                .setXid(7)
+                .setPriority(100)
+                .setMatch(match(factory))
+                .setActions(Collections.<OFAction>singletonList(factory.actions().output(OFPort.of(2), 0)));
+    }
+
+    @Test
+    public void testBuilderWriteTo() {
+        for (OFVersion version : new OFVersion[] { OFVersion.OF_10, OFVersion.OF_13, OFVersion.OF_15 }) {
+            OFFactory factory = OFFactories.getFactory(version);
+            OFFlowAdd.Builder builder = flowAdd(factory);
+            assertThat(version.toString(), write(builder), equalTo(write(builder.build())));
+        }
+    }
+
+    @Test
+    public void testBuilderWithParentWriteTo() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFFlowAdd.Builder builder = flowAdd(factory).build().createBuilder().setPriority(200);
+        assertThat(write(builder), equalTo(write(builder.build())));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteToWithoutMandatoryProperty() {
+        OFFactories.getFactory(OFVersion.OF_13).errorMsgs().buildHelloFailedErrorMsg().writeTo(Unpooled.buffer());
+    }
+
+    @Test
+    public void testReset() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFFlowAdd.Builder builder = flowAdd(factory);
+        OFFlowAdd empty = factory.buildFlowAdd().setXid(7).build();
+        assertThat(builder.reset().setXid(7).build(), equalTo(empty));
+
+        // a builder of a message resets to the message
+        OFFlowAdd flowAdd = flowAdd(factory).build();
+        OFFlowAdd.Builder withParent = flowAdd.createBuilder().setPriority(1).setXid(8);
+        assertThat(withParent.reset().build(), equalTo(flowAdd));
+    }
+
+    @Test
+    public void testBuilderPool() throws InterruptedException {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFBuilderPool<OFPacketOut.Builder> pool = factory.builderPool(OFFactory::buildPacketOut);
+
+        OFPacketOut.Builder builder = pool.get();
+        OFPacketOut first = builder.setBufferId(OFBufferId.NO_BUFFER).setData(new byte[] { 1, 2 }).build();
+        OFPacketOut.Builder reused = pool.get();
+        assertThat(reused, sameInstance(builder));
+        OFPacketOut second = reused.build();
+        // reset, with a new xid
+        assertThat(second.getData().length, equalTo(0));
+        assertThat(second.getXid(), not(equalTo(first.getXid())));
+        assertThat(second, equalTo(factory.buildPacketOut().setXid(second.getXid()).build()));
+
+        AtomicReference<OFPacketOut.Builder> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> other.set(pool.get()));
+        thread.start();
+        thread.join();
+        assertThat(other.get(), not(sameInstance(builder)));
+    }
+}
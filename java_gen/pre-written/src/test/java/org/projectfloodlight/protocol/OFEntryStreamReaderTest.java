@@ -0,0 +1,77 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFEntryStreamReader;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsEntry;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsReply;
+import org.projectfloodlight.openflow.protocol.OFStatsReplyFlags;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class OFEntryStreamReaderTest {
+
+    @Test
+    public void testStreamFlowStatsEntries() throws OFParseError {
+        for (OFVersion version : new OFVersion[] { OFVersion.OF_10, OFVersion.OF_13 }) {
+            OFFactory factory = OFFactories.getFactory(version);
+            List<OFFlowStatsEntry> entries = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                entries.add(factory.buildFlowStatsEntry()
+                        .setTableId(TableId.of(i))
+                        .setCookie(U64.of(i))
+                        .setMatch(factory.matchWildcardAll())
+                        .build());
+            }
+            OFFlowStatsReply reply = factory.buildFlowStatsReply()
+                    .setXid(42)
+                    .setFlags(ImmutableSet.of(OFStatsReplyFlags.REPLY_MORE))
+                    .setEntries(entries)
+                    .build();
+            ByteBuf bb = Unpooled.buffer();
+            reply.writeTo(bb);
+
+            OFEntryStreamReader<OFFlowStatsReply, OFFlowStatsEntry> reader = factory.getFlowStatsReplyEntryReader();
+            List<OFFlowStatsEntry> streamed = new ArrayList<>();
+            OFFlowStatsReply header = reader.readEntries(bb, streamed::add);
+
+            assertThat(streamed, equalTo(entries));
+            assertThat(header.getXid(), equalTo(42L));
+            assertThat(header.getFlags(), equalTo(reply.getFlags()));
+            assertThat(header.getEntries(), equalTo((List<OFFlowStatsEntry>) ImmutableList.<OFFlowStatsEntry>of()));
+            assertThat(bb.isReadable(), equalTo(false));
+        }
+    }
+
+    @Test
+    public void testPartialMessage() throws OFParseError {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFFlowStatsReply reply = factory.buildFlowStatsReply()
+                .setEntries(ImmutableList.of(factory.buildFlowStatsEntry().build()))
+                .build();
+        ByteBuf bb = Unpooled.buffer();
+        reply.writeTo(bb);
+        bb.writerIndex(bb.writerIndex() - 1);
+
+        List<OFFlowStatsEntry> streamed = new ArrayList<>();
+        assertThat(factory.getFlowStatsReplyEntryReader().readEntries(bb, streamed::add), nullValue());
+        assertThat(streamed.isEmpty(), equalTo(true));
+        assertThat(bb.readerIndex(), equalTo(0));
+    }
+}
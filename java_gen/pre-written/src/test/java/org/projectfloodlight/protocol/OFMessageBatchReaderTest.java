@@ -0,0 +1,125 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFEchoRequest;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFHello;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageBatchReader;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class OFMessageBatchReaderTest {
+    private final OFHello hello10 = OFFactories.getFactory(OFVersion.OF_10).buildHello().setXid(1).build();
+    private final OFEchoRequest echo13 = OFFactories.getFactory(OFVersion.OF_13).buildEchoRequest()
+            .setXid(2).setData(new byte[] { 1, 2, 3 }).build();
+    private final OFHello hello14 = OFFactories.getFactory(OFVersion.OF_14).buildHello().setXid(3).build();
+
+    @Test
+    public void testReadAllMixedVersions() throws OFParseError {
+        ByteBuf bb = Unpooled.buffer();
+        hello10.writeTo(bb);
+        echo13.writeTo(bb);
+        hello14.writeTo(bb);
+        // first 5 bytes of another message
+        bb.writeBytes(new byte[] { 4, 2, 0, 12, 0 });
+
+        List<OFMessage> messages = new ArrayList<>();
+        int pending = OFMessageBatchReader.generic().readAll(bb, messages::add);
+
+        assertThat(messages, contains((OFMessage) hello10, echo13, hello14));
+        assertThat(pending, equalTo(5));
+        assertThat(bb.readableBytes(), equalTo(5));
+    }
+
+    @Test
+    public void testReadAllPartialFrame() throws OFParseError {
+        ByteBuf bb = Unpooled.buffer();
+        echo13.writeTo(bb);
+        bb.writerIndex(bb.writerIndex() - 1);
+
+        List<OFMessage> messages = new ArrayList<>();
+        int pending = OFMessageBatchReader.generic().readAll(bb, messages::add);
+        assertThat(messages.isEmpty(), equalTo(true));
+        assertThat(pending, equalTo(bb.writerIndex()));
+        assertThat(bb.readerIndex(), equalTo(0));
+    }
+
+    @Test
+    public void testReadAllIntoArray() throws OFParseError {
+        ByteBuf bb = Unpooled.buffer();
+        hello10.writeTo(bb);
+        echo13.writeTo(bb);
+        hello14.writeTo(bb);
+
+        OFMessage[] messages = new OFMessage[2];
+        assertThat(OFMessageBatchReader.generic().readAll(bb, messages), equalTo(2));
+        assertThat(messages, equalTo(new OFMessage[] { hello10, echo13 }));
+        assertThat(OFMessageBatchReader.generic().readAll(bb, messages), equalTo(1));
+        assertThat(messages[0], equalTo((OFMessage) hello14));
+        assertThat(bb.isReadable(), equalTo(false));
+    }
+
+    @Test
+    public void testUnknownVersion() {
+        ByteBuf bb = Unpooled.buffer();
+        hello10.writeTo(bb);
+        bb.writeBytes(new byte[] { 0x7f, 0, 0, 8, 0, 0, 0, 1 });
+        try {
+            OFMessageBatchReader.generic().readAll(bb, m -> { });
+            fail("Expected OFParseError");
+        } catch (OFParseError e) {
+            assertThat(e.getMessage(), containsString("Unknown wire version"));
+            assertThat(bb.readerIndex(), equalTo(8));
+        }
+    }
+
+    @Test
+    public void testForVersion() throws OFParseError {
+        OFMessageBatchReader reader = OFMessageBatchReader.forVersion(OFVersion.OF_13);
+        assertThat(reader.getVersion(), equalTo(OFVersion.OF_13));
+        assertThat(OFMessageBatchReader.generic().getVersion(), nullValue());
+
+        ByteBuf bb = Unpooled.buffer();
+        echo13.writeTo(bb);
+        hello10.writeTo(bb);
+        List<OFMessage> messages = new ArrayList<>();
+        try {
+            reader.readAll(bb, messages::add);
+            fail("Expected OFParseError");
+        } catch (OFParseError e) {
+            assertThat(e.getMessage(), containsString("restricted to OF_13"));
+            assertThat(messages, contains((OFMessage) echo13));
+            // positioned at the start of the offending message
+            assertThat(bb.readerIndex(), equalTo(11));
+        }
+    }
+
+    @Test
+    public void testMalformedMessage() {
+        ByteBuf bb = Unpooled.buffer();
+        hello10.writeTo(bb);
+        // OF1.3 barrier requests are 8 bytes long
+        bb.writeBytes(new byte[] { 4, 20, 0, 12, 0, 0, 0, 1, 0, 0, 0, 0 });
+        try {
+            OFMessageBatchReader.generic().readAll(bb, m -> { });
+            fail("Expected OFParseError");
+        } catch (OFParseError e) {
+            assertThat(e.getMessage(), containsString("Wrong length"));
+            assertThat(bb.readerIndex(), equalTo(8));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageBatchReader;
+import org.projectfloodlight.openflow.protocol.OFMessageBatchWriter;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+public class OFMessageBatchWriterTest {
+    private final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+
+    /** records everything written to it, accepting at most maxPerWrite bytes per call */
+    private static class RecordingChannel implements GatheringByteChannel {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final int maxPerWrite;
+        int gatheringWrites;
+
+        RecordingChannel(int maxPerWrite) {
+            this.maxPerWrite = maxPerWrite;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            gatheringWrites++;
+            long written = 0;
+            for (int i = offset; i < offset + length && written < maxPerWrite; i++) {
+                while (srcs[i].hasRemaining() && written < maxPerWrite) {
+                    out.write(srcs[i].get());
+                    written++;
+                }
+            }
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[] { src });
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private List<OFMessage> messages(int count) {
+        List<OFMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            messages.add(factory.buildEchoRequest().setXid(i).setData(new byte[i % 50]).build());
+        return messages;
+    }
+
+    private static ByteBuf write(List<OFMessage> messages) {
+        ByteBuf bb = Unpooled.buffer();
+        for (OFMessage m : messages)
+            m.writeTo(bb);
+        return bb;
+    }
+
+    @Test
+    public void testChunksSplitOnMessageBoundaries() throws OFParseError {
+        List<OFMessage> messages = messages(100);
+        OFMessageBatchWriter writer = new OFMessageBatchWriter(PooledByteBufAllocator.DEFAULT, 256);
+        writer.writeAll(messages);
+        assertThat(writer.getMessageCount(), equalTo(100));
+        ByteBuf expected = write(messages);
+        assertThat(writer.getByteCount(), equalTo((long) expected.readableBytes()));
+
+        CompositeByteBuf batch = writer.finish();
+        try {
+            assertThat(writer.getMessageCount(), equalTo(0));
+            assertThat(batch, equalTo(expected));
+            List<OFMessage> read = new ArrayList<>();
+            for (int i = 0; i < batch.numComponents(); i++) {
+                ByteBuf component = batch.internalComponent(i);
+                assertThat(component.isDirect(), equalTo(true));
+                assertThat(component.readableBytes(), lessThanOrEqualTo(256));
+                // every chunk holds complete messages only
+                assertThat(OFMessageBatchReader.generic().readAll(component.duplicate(), read::add), equalTo(0));
+            }
+            assertThat(read, equalTo(messages));
+        } finally {
+            batch.release();
+        }
+    }
+
+    @Test
+    public void testOversizedMessage() {
+        OFMessage big = factory.buildEchoRequest().setXid(1).setData(new byte[1000]).build();
+        OFMessageBatchWriter writer = new OFMessageBatchWriter(PooledByteBufAllocator.DEFAULT, 256);
+        writer.write(factory.buildHello().build()).write(big);
+        CompositeByteBuf batch = writer.finish();
+        try {
+            assertThat(batch.numComponents(), equalTo(2));
+            assertThat(batch.internalComponent(1).readableBytes(), equalTo(big.getWireLength()));
+        } finally {
+            batch.release();
+        }
+    }
+
+    @Test
+    public void testGatheringWrite() throws IOException {
+        List<OFMessage> messages = messages(50);
+        OFMessageBatchWriter writer = new OFMessageBatchWriter(PooledByteBufAllocator.DEFAULT, 128);
+        writer.writeAll(messages);
+        int total = writer.getPendingBytes();
+
+        RecordingChannel channel = new RecordingChannel((total + 1) / 2);
+        int first = writer.writeTo(channel);
+        assertThat(first, equalTo((total + 1) / 2));
+        assertThat(writer.getPendingBytes(), equalTo(total - first));
+        writer.writeTo(channel);
+        assertThat(writer.getPendingBytes(), equalTo(0));
+        assertThat(channel.gatheringWrites, equalTo(2));
+
+        assertThat(Unpooled.wrappedBuffer(channel.out.toByteArray()), equalTo(write(messages)));
+        writer.release();
+    }
+}
@@ -0,0 +1,183 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.codec.OFMessageDecoder;
+import org.projectfloodlight.openflow.codec.OFMessageEncoder;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFRawMessage;
+import org.projectfloodlight.openflow.protocol.OFType;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+
+public class OFMessageCodecTest {
+    private final OFFactory factory13 = OFFactories.getFactory(OFVersion.OF_13);
+    private final OFFactory factory10 = OFFactories.getFactory(OFVersion.OF_10);
+
+    private static ByteBuf write(OFMessage... messages) {
+        ByteBuf bb = Unpooled.buffer();
+        for (OFMessage m : messages)
+            m.writeTo(bb);
+        return bb;
+    }
+
+    @Test
+    public void testDecodeSplitFrames() {
+        OFMessage hello = factory10.buildHello().setXid(1).build();
+        OFMessage echo = factory13.buildEchoRequest().setXid(2).setData(new byte[] { 1, 2, 3 }).build();
+        OFMessage barrier = factory13.buildBarrierRequest().setXid(3).build();
+        ByteBuf bb = write(hello, echo, barrier);
+
+        EmbeddedChannel channel = new EmbeddedChannel(new OFMessageDecoder());
+        // deliver the bytes in two chunks that split the echo request
+        channel.writeInbound(bb.readRetainedSlice(12));
+        assertThat(channel.readInbound(), equalTo((Object) hello));
+        assertThat(channel.readInbound(), nullValue());
+
+        channel.writeInbound(bb);
+        assertThat(channel.readInbound(), equalTo((Object) echo));
+        assertThat(channel.readInbound(), equalTo((Object) barrier));
+        assertThat(channel.readInbound(), nullValue());
+        assertThat(channel.finish(), equalTo(false));
+    }
+
+    @Test
+    public void testDecoderPinnedVersion() {
+        OFMessageDecoder decoder = new OFMessageDecoder();
+        EmbeddedChannel channel = new EmbeddedChannel(decoder);
+        decoder.pinVersion(OFVersion.OF_13);
+        assertThat(decoder.getPinnedVersion(), equalTo(OFVersion.OF_13));
+
+        OFMessage barrier = factory13.buildBarrierRequest().setXid(3).build();
+        channel.writeInbound(write(barrier));
+        assertThat(channel.readInbound(), equalTo((Object) barrier));
+
+        try {
+            channel.writeInbound(write(factory10.buildHello().setXid(1).build()));
+            throw new AssertionError("Expected DecoderException");
+        } catch (DecoderException e) {
+            assertThat(e.getCause(), instanceOf(OFParseError.class));
+        }
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testEncoderCoalescesUntilFlush() {
+        EmbeddedChannel channel = new EmbeddedChannel(new OFMessageEncoder());
+        OFMessage hello = factory13.buildHello().setXid(1).build();
+        OFMessage echo = factory13.buildEchoRequest().setXid(2).setData(new byte[] { 1, 2, 3 }).build();
+        OFMessage barrier = factory13.buildBarrierRequest().setXid(3).build();
+
+        ChannelFuture f1 = channel.write(hello);
+        ChannelFuture f2 = channel.write(echo);
+        ChannelFuture f3 = channel.write(barrier);
+        assertThat(channel.outboundMessages().isEmpty(), equalTo(true));
+        assertThat(f1.isDone(), equalTo(false));
+
+        channel.flush();
+        assertThat(channel.outboundMessages().size(), equalTo(1));
+        ByteBuf out = channel.readOutbound();
+        assertThat(out, equalTo(write(hello, echo, barrier)));
+        out.release();
+        assertThat(f1.isSuccess() && f2.isSuccess() && f3.isSuccess(), equalTo(true));
+        assertThat(channel.finish(), equalTo(false));
+    }
+
+    @Test
+    public void testEncoderRespectsWatermark() {
+        OFMessageEncoder encoder = new OFMessageEncoder();
+        EmbeddedChannel channel = new EmbeddedChannel(encoder);
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+
+        OFMessage hello = factory13.buildHello().setXid(1).build();
+        OFMessage barrier = factory13.buildBarrierRequest().setXid(3).build();
+        // both messages are 8 bytes long; the batch is passed down once it reaches 16 bytes
+        channel.write(hello);
+        channel.write(barrier);
+        channel.write(hello);
+        // the first batch is accounted for by the outbound buffer before the flush
+        assertThat(channel.isWritable(), equalTo(false));
+
+        channel.flush();
+        assertThat(channel.outboundMessages().size(), equalTo(2));
+        ByteBuf first = channel.readOutbound();
+        ByteBuf second = channel.readOutbound();
+        assertThat(first, equalTo(write(hello, barrier)));
+        assertThat(second, equalTo(write(hello)));
+        first.release();
+        second.release();
+        channel.finish();
+    }
+
+    @Test
+    public void testEncoderPinnedVersion() {
+        OFMessageEncoder encoder = new OFMessageEncoder();
+        EmbeddedChannel channel = new EmbeddedChannel(encoder);
+        encoder.pinVersion(OFVersion.OF_13);
+
+        ChannelFuture wrong = channel.writeAndFlush(factory10.buildHello().setXid(1).build());
+        assertThat(wrong.cause(), instanceOf(IllegalArgumentException.class));
+        assertThat(channel.outboundMessages().isEmpty(), equalTo(true));
+
+        OFMessage hello = factory13.buildHello().setXid(1).build();
+        assertThat(channel.writeAndFlush(hello).isSuccess(), equalTo(true));
+        ByteBuf out = channel.readOutbound();
+        assertThat(out, equalTo(write(hello)));
+        out.release();
+        channel.finish();
+    }
+
+    @Test
+    public void testEncoderReleasesMessages() {
+        OFMessageEncoder encoder = new OFMessageEncoder();
+        EmbeddedChannel channel = new EmbeddedChannel(encoder);
+        OFMessage barrier = factory13.buildBarrierRequest().setXid(3).build();
+        OFRawMessage raw = new OFRawMessage(OFVersion.OF_13, OFType.BARRIER_REQUEST, 3, write(barrier));
+        assertThat(channel.writeAndFlush(raw).isSuccess(), equalTo(true));
+        assertThat(raw.refCnt(), equalTo(0));
+        ByteBuf out = channel.readOutbound();
+        assertThat(out, equalTo(write(barrier)));
+        out.release();
+
+        // failed writes release the message as well
+        encoder.pinVersion(OFVersion.OF_10);
+        raw = new OFRawMessage(OFVersion.OF_13, OFType.BARRIER_REQUEST, 3, write(barrier));
+        assertThat(channel.writeAndFlush(raw).cause(), instanceOf(IllegalArgumentException.class));
+        assertThat(raw.refCnt(), equalTo(0));
+        assertThat(channel.finish(), equalTo(false));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        EmbeddedChannel client = new EmbeddedChannel(new OFMessageEncoder());
+        EmbeddedChannel server = new EmbeddedChannel(new OFMessageDecoder(OFVersion.OF_13));
+        OFMessage[] messages = new OFMessage[100];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = factory13.buildEchoRequest().setXid(i).setData(new byte[i]).build();
+            client.write(messages[i]);
+        }
+        client.flush();
+
+        ByteBuf out;
+        while ((out = client.readOutbound()) != null)
+            server.writeInbound(out);
+        for (OFMessage m : messages)
+            assertThat(server.readInbound(), equalTo((Object) m));
+        assertThat(server.readInbound(), nullValue());
+        client.finish();
+        server.finish();
+    }
+}
@@ -0,0 +1,60 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFEchoRequest;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsEntry;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+
+public class OFMessageHashCodeTest {
+    private final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+
+    private OFFlowStatsEntry entry(int tableId, int priority, long durationSec) {
+        return factory.buildFlowStatsEntry()
+                .setTableId(TableId.of(tableId))
+                .setPriority(priority)
+                .setDurationSec(durationSec)
+                .setCookie(U64.of(0xc00c1e))
+                .setMatch(factory.buildMatch().build())
+                .build();
+    }
+
+    @Test
+    public void testFieldsBeforeLongFieldsAreHashed() {
+        // table id and priority precede and follow the long duration fields
+        Set<Integer> hashes = new HashSet<>();
+        for (int tableId = 0; tableId < 16; tableId++)
+            for (int priority = 0; priority < 16; priority++)
+                hashes.add(entry(tableId, priority, 10).hashCode());
+        assertThat(hashes.size(), greaterThan(250));
+        assertThat(entry(1, 1, 10).hashCode(), not(equalTo(entry(2, 1, 10).hashCode())));
+    }
+
+    @Test
+    public void testHashCodeIsStable() {
+        OFFlowStatsEntry entry = entry(1, 2, 3);
+        int hash = entry.hashCode();
+        assertThat(entry.hashCode(), equalTo(hash));
+        assertThat(entry(1, 2, 3).hashCode(), equalTo(hash));
+        assertThat(entry.createBuilder().build().hashCode(), equalTo(hash));
+    }
+
+    @Test
+    public void testHashCodeIgnoreXid() {
+        OFEchoRequest request = factory.buildEchoRequest().setXid(1).setData(new byte[] { 1, 2 }).build();
+        OFEchoRequest other = request.createBuilder().setXid(2).build();
+        assertThat(request.hashCode(), not(equalTo(other.hashCode())));
+        assertThat(request.hashCodeIgnoreXid(), equalTo(other.hashCodeIgnoreXid()));
+    }
+}
@@ -0,0 +1,88 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageHeader;
+import org.projectfloodlight.openflow.protocol.OFNiciraControllerRole;
+import org.projectfloodlight.openflow.protocol.OFStatsType;
+import org.projectfloodlight.openflow.protocol.OFType;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class OFMessageHeaderTest {
+
+    private static ByteBuf write(OFMessage m) {
+        ByteBuf bb = Unpooled.buffer();
+        // leading garbage - header offsets are relative to the reader index
+        bb.writeInt(0xdeadbeef);
+        bb.readerIndex(4);
+        m.writeTo(bb);
+        return bb;
+    }
+
+    @Test
+    public void testHeaderFields() throws OFParseError {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        ByteBuf bb = write(factory.buildEchoRequest().setXid(0xfedcba98L).setData(new byte[] { 1, 2 }).build());
+
+        assertThat(OFMessageHeader.isComplete(bb), equalTo(true));
+        assertThat(OFMessageHeader.getVersion(bb), equalTo(OFVersion.OF_13));
+        assertThat(OFMessageHeader.getType(bb), equalTo(OFType.ECHO_REQUEST));
+        assertThat(OFMessageHeader.getLength(bb), equalTo(10));
+        assertThat(OFMessageHeader.getXid(bb), equalTo(0xfedcba98L));
+        assertThat(OFMessageHeader.getStatsType(bb), nullValue());
+        assertThat(OFMessageHeader.getExperimenter(bb), equalTo(OFMessageHeader.NO_EXPERIMENTER));
+        assertThat(bb.readerIndex(), equalTo(4));
+
+        bb.writerIndex(bb.writerIndex() - 1);
+        assertThat(OFMessageHeader.isComplete(bb), equalTo(false));
+    }
+
+    @Test
+    public void testStats() throws OFParseError {
+        for (OFVersion version : new OFVersion[] { OFVersion.OF_10, OFVersion.OF_13 }) {
+            OFFactory factory = OFFactories.getFactory(version);
+            ByteBuf bb = write(factory.buildFlowStatsRequest().setXid(1).build());
+            assertThat(OFMessageHeader.getType(bb), equalTo(OFType.STATS_REQUEST));
+            assertThat(OFMessageHeader.getStatsType(bb), equalTo(OFStatsType.FLOW));
+            assertThat(OFMessageHeader.getExperimenter(bb), equalTo(OFMessageHeader.NO_EXPERIMENTER));
+        }
+    }
+
+    @Test
+    public void testExperimenterStats() throws OFParseError {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        ByteBuf bb = write(factory.buildBsnLacpStatsRequest().setXid(2).build());
+        assertThat(OFMessageHeader.getStatsType(bb), equalTo(OFStatsType.EXPERIMENTER));
+        assertThat(OFMessageHeader.getExperimenter(bb), equalTo(0x5c16c7L));
+
+        // OF 1.0 vendor stats request: no padding before the experimenter id
+        bb = Unpooled.wrappedBuffer(new byte[] { 1, 0x10, 0, 16, 0, 0, 0, 2,
+                (byte) 0xff, (byte) 0xff, 0, 0, 0, 0x5c, 0x16, (byte) 0xc7 });
+        assertThat(OFMessageHeader.getStatsType(bb), equalTo(OFStatsType.EXPERIMENTER));
+        assertThat(OFMessageHeader.getExperimenter(bb), equalTo(0x5c16c7L));
+    }
+
+    @Test
+    public void testExperimenter() throws OFParseError {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_10);
+        ByteBuf bb = write(factory.buildNiciraControllerRoleRequest().setXid(3).setRole(OFNiciraControllerRole.ROLE_MASTER).build());
+        assertThat(OFMessageHeader.getType(bb), equalTo(OFType.EXPERIMENTER));
+        assertThat(OFMessageHeader.getExperimenter(bb), equalTo(0x2320L));
+    }
+
+    @Test(expected = OFParseError.class)
+    public void testUnknownVersion() throws OFParseError {
+        ByteBuf bb = Unpooled.wrappedBuffer(new byte[] { 0x7f, 0, 0, 8, 0, 0, 0, 1 });
+        OFMessageHeader.getType(bb);
+    }
+}
@@ -0,0 +1,155 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowAdd;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageTemplate;
+import org.projectfloodlight.openflow.protocol.OFMessageTemplate.Field;
+import org.projectfloodlight.openflow.protocol.OFMessageTemplate.FieldCodec;
+import org.projectfloodlight.openflow.protocol.OFPacketOut;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.action.OFAction;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.MacAddress;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.U64;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class OFMessageTemplateTest {
+
+    private static Match match(OFFactory factory, OFPort inPort, MacAddress ethDst, IPv4Address ipv4Dst) {
+        return factory.buildMatch()
+                .setExact(MatchField.IN_PORT, inPort)
+                .setExact(MatchField.ETH_DST, ethDst)
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setExact(MatchField.IPV4_DST, ipv4Dst)
+                .build();
+    }
+
+    private static OFFlowAdd.Builder flowAdd(OFFactory factory, OFPort inPort, MacAddress ethDst,
+            IPv4Address ipv4Dst, OFPort outPort) {
+        List<OFAction> actions = Collections.singletonList(factory.actions().output(outPort, 0xffff));
+        return factory.buildFlowAdd()
+                .setIdleTimeout(5)
+                .setPriority(100)
+                .setMatch(match(factory, inPort, ethDst, ipv4Dst))
+                .setActions(actions);
+    }
+
+    private static ByteBuf write(OFMessage m) {
+        ByteBuf bb = Unpooled.buffer();
+        m.writeTo(bb);
+        return bb;
+    }
+
+    @Test
+    public void testFlowAddTemplate() throws OFParseError {
+        for (OFVersion version : new OFVersion[] { OFVersion.OF_10, OFVersion.OF_13 }) {
+            OFFactory factory = OFFactories.getFactory(version);
+            OFPort inPort0 = OFPort.of(1);
+            MacAddress ethDst0 = MacAddress.of("00:00:00:00:00:01");
+            IPv4Address ipv4Dst0 = IPv4Address.of("10.0.0.1");
+            OFPort outPort0 = OFPort.of(2);
+
+            OFMessageTemplate.Definition<OFFlowAdd.Builder> def = OFMessageTemplate.define(
+                    () -> flowAdd(factory, inPort0, ethDst0, ipv4Dst0, outPort0));
+            Field<U64> cookie = def.addField(OFFlowAdd.Builder::setCookie, FieldCodec.u64());
+            Field<OFPort> inPort = def.addField(
+                    (b, v) -> b.setMatch(match(factory, v, ethDst0, ipv4Dst0)), FieldCodec.port(version));
+            Field<MacAddress> ethDst = def.addField(
+                    (b, v) -> b.setMatch(match(factory, inPort0, v, ipv4Dst0)), FieldCodec.macAddress());
+            Field<IPv4Address> ipv4Dst = def.addField(
+                    (b, v) -> b.setMatch(match(factory, inPort0, ethDst0, v)), FieldCodec.ipv4Address());
+            Field<OFPort> outPort = def.addField(
+                    (b, v) -> b.setActions(Collections.<OFAction>singletonList(factory.actions().output(v, 0xffff))),
+                    FieldCodec.port(version));
+            OFMessageTemplate<OFFlowAdd.Builder> template = def.build();
+
+            OFMessageTemplate<OFFlowAdd.Builder>.Stamp stamp = template.newStamp();
+            for (int i = 0; i < 3; i++) {
+                OFFlowAdd expected = flowAdd(factory, OFPort.of(10 + i), MacAddress.of(0xa0000 + i),
+                        IPv4Address.of(0x0a000100 + i), OFPort.of(20 + i))
+                        .setXid(1000 + i)
+                        .setCookie(U64.of(0xc00c1e + i))
+                        .build();
+                stamp.setXid(1000 + i)
+                        .set(cookie, U64.of(0xc00c1e + i))
+                        .set(inPort, OFPort.of(10 + i))
+                        .set(ethDst, MacAddress.of(0xa0000 + i))
+                        .set(ipv4Dst, IPv4Address.of(0x0a000100 + i))
+                        .set(outPort, OFPort.of(20 + i));
+
+                ByteBuf bb = Unpooled.buffer();
+                stamp.writeTo(bb);
+                assertThat(version.toString(), bb, equalTo(write(expected)));
+                assertThat(stamp.decode(), equalTo((OFMessage) expected));
+            }
+        }
+    }
+
+    @Test
+    public void testPacketOutTemplate() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFMessageTemplate.Definition<OFPacketOut.Builder> def = OFMessageTemplate.define(
+                () -> factory.buildPacketOut()
+                        .setBufferId(OFBufferId.NO_BUFFER)
+                        .setInPort(OFPort.CONTROLLER)
+                        .setActions(Collections.<OFAction>singletonList(factory.actions().output(OFPort.of(1), 0)))
+                        .setData(new byte[] { 1, 2, 3, 4 }));
+        Field<OFPort> outPort = def.addField(
+                (b, v) -> b.setActions(Collections.<OFAction>singletonList(factory.actions().output(v, 0))),
+                FieldCodec.port(OFVersion.OF_13));
+        OFMessageTemplate<OFPacketOut.Builder> template = def.build();
+
+        ByteBuf bb = Unpooled.buffer();
+        template.newStamp().setXid(7).set(outPort, OFPort.of(9)).writeTo(bb);
+        OFPacketOut expected = factory.buildPacketOut()
+                .setXid(7)
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setInPort(OFPort.CONTROLLER)
+                .setActions(Collections.<OFAction>singletonList(factory.actions().output(OFPort.of(9), 0)))
+                .setData(new byte[] { 1, 2, 3, 4 })
+                .build();
+        assertThat(bb, equalTo(write(expected)));
+        assertThat(template.getWireLength(), equalTo(expected.getWireLength()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFieldNotInMessage() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFMessageTemplate.Definition<OFFlowAdd.Builder> def = OFMessageTemplate.define(
+                () -> factory.buildFlowAdd());
+        def.addField((b, v) -> { }, FieldCodec.u64());
+        def.build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFieldWildcardedInTemplate() {
+        // setting nw_dst clears its wildcard bits, outside of the field
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_10);
+        OFMessageTemplate.Definition<OFFlowAdd.Builder> def = OFMessageTemplate.define(
+                () -> factory.buildFlowAdd()
+                        .setMatch(factory.buildMatch().setExact(MatchField.ETH_TYPE, EthType.IPv4).build()));
+        def.addField((b, v) -> b.setMatch(factory.buildMatch()
+                        .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                        .setExact(MatchField.IPV4_DST, v)
+                        .build()),
+                FieldCodec.ipv4Address());
+        def.build();
+    }
+}
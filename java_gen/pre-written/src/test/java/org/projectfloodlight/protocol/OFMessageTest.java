@@ -6,11 +6,13 @@ import static org.junit.Assert.fail;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
 import org.projectfloodlight.openflow.protocol.OFFactories;
 import org.projectfloodlight.openflow.protocol.OFFactory;
 import org.projectfloodlight.openflow.protocol.OFPacketOut;
 import org.projectfloodlight.openflow.protocol.OFVersion;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 
 public class OFMessageTest {
@@ -35,4 +37,20 @@ public class OFMessageTest {
         }
     }
 
+    @Test
+    public void experimenterStatsReplyTooShort() {
+        // a 16 byte experimenter stats reply, followed by bytes of the next message where its
+        // experimenter id would be
+        ByteBuf bb = Unpooled.buffer();
+        bb.writeByte(4).writeByte(19).writeShort(16).writeInt(1);
+        bb.writeShort(0xffff).writeShort(0).writeZero(4);
+        bb.writeInt(0x12345678).writeInt(0);
+        try {
+            OFFactories.getFactory(OFVersion.OF_13).getReader().readFrom(bb);
+            fail("Expected OFParseError");
+        } catch(OFParseError e) {
+            assertThat(e.getMessage(), containsString("Wrong length: Expected to be >= 24, was: 16"));
+        }
+    }
+
 }
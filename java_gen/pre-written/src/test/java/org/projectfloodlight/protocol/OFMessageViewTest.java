@@ -0,0 +1,162 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsReply;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageView;
+import org.projectfloodlight.openflow.protocol.OFPacketIn;
+import org.projectfloodlight.openflow.protocol.OFPacketInReason;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class OFMessageViewTest {
+
+    private OFFactory factory;
+    private OFPacketIn packetIn;
+
+    @Before
+    public void setup() {
+        factory = OFFactories.getFactory(OFVersion.OF_13);
+        packetIn = factory.buildPacketIn()
+                .setXid(0x12345678L)
+                .setBufferId(OFBufferId.of(42))
+                .setTotalLen(3)
+                .setReason(OFPacketInReason.ACTION)
+                .setTableId(TableId.of(7))
+                .setCookie(U64.of(0xdeadbeefL))
+                .setMatch(factory.buildMatch().setExact(MatchField.IN_PORT, OFPort.of(5)).build())
+                .setData(new byte[] { 1, 2, 3 })
+                .build();
+    }
+
+    @Test
+    public void testFixedOffsetGetters() throws Exception {
+        ByteBuf bb = Unpooled.buffer();
+        packetIn.writeTo(bb);
+
+        OFMessage read = factory.getViewReader().readFrom(bb);
+        assertThat(read, instanceOf(OFMessageView.class));
+        assertThat(bb.isReadable(), equalTo(false));
+
+        OFPacketIn view = (OFPacketIn) read;
+        // the view holds its own reference on the buffer
+        assertThat(bb.refCnt(), equalTo(2));
+        assertThat(view.getXid(), equalTo(0x12345678L));
+        assertThat(view.getType(), equalTo(packetIn.getType()));
+        assertThat(view.getBufferId(), equalTo(OFBufferId.of(42)));
+        assertThat(view.getTableId(), equalTo(TableId.of(7)));
+        assertThat(view.getCookie(), equalTo(U64.of(0xdeadbeefL)));
+        assertThat(view.getReason(), equalTo(OFPacketInReason.ACTION));
+        assertThat(view.getMatch(), equalTo(packetIn.getMatch()));
+        assertThat(view.getData(), equalTo(new byte[] { 1, 2, 3 }));
+        assertThat(((OFMessageView) view).release(), equalTo(true));
+        assertThat(bb.refCnt(), equalTo(1));
+    }
+
+    @Test
+    public void testGettersDoNotDecodeMessage() throws Exception {
+        ByteBuf bb = Unpooled.buffer();
+        packetIn.writeTo(bb);
+        // an illegal reason, at offset 14: the message as a whole cannot be decoded
+        bb.setByte(14, 0x7f);
+
+        OFPacketIn view = (OFPacketIn) factory.getViewReader().readFrom(bb);
+        assertThat(view.getMatch().get(MatchField.IN_PORT), equalTo(OFPort.of(5)));
+        assertThat(view.getData(), equalTo(new byte[] { 1, 2, 3 }));
+        assertThat(view.getTableId(), equalTo(TableId.of(7)));
+        try {
+            view.getReason();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        ((OFMessageView) view).release();
+    }
+
+    @Test
+    public void testEquals() throws Exception {
+        ByteBuf bb = Unpooled.buffer();
+        packetIn.writeTo(bb);
+        packetIn.writeTo(bb);
+        packetIn.createBuilder().setXid(1).build().writeTo(bb);
+
+        OFMessageView view = (OFMessageView) factory.getViewReader().readFrom(bb);
+        OFMessageView same = (OFMessageView) factory.getViewReader().readFrom(bb);
+        OFMessageView otherXid = (OFMessageView) factory.getViewReader().readFrom(bb);
+        assertThat(view, equalTo(same));
+        assertThat(view.hashCode(), equalTo(same.hashCode()));
+        assertThat(view, not(equalTo(otherXid)));
+        assertThat(view.equalsIgnoreXid(otherXid), equalTo(true));
+        assertThat(view.hashCodeIgnoreXid(), equalTo(otherXid.hashCodeIgnoreXid()));
+
+        // views are only equal to views, symmetrically; compare messages by toMessage()
+        assertThat(view.equals(packetIn), equalTo(false));
+        assertThat(packetIn.equals(view), equalTo(false));
+        assertThat(view.toMessage(), equalTo((OFMessage) packetIn));
+        view.release();
+        same.release();
+        otherXid.release();
+    }
+
+    @Test
+    public void testToMessageAndWriteTo() throws Exception {
+        ByteBuf bb = Unpooled.buffer();
+        packetIn.writeTo(bb);
+        int length = bb.readableBytes();
+
+        OFMessageView view = (OFMessageView) OFFactories.getGenericViewReader().readFrom(bb);
+        assertThat(view.getWireLength(), equalTo(length));
+        OFMessage message = view.toMessage();
+        assertThat(message, equalTo((OFMessage) packetIn));
+        assertThat(view.toMessage(), sameInstance(message));
+
+        ByteBuf out = Unpooled.buffer();
+        view.writeTo(out);
+        bb.readerIndex(0);
+        assertThat(out, equalTo(bb));
+        view.release();
+    }
+
+    @Test
+    public void testPartialMessage() throws Exception {
+        ByteBuf bb = Unpooled.buffer();
+        packetIn.writeTo(bb);
+        ByteBuf partial = bb.slice(0, bb.readableBytes() - 1);
+
+        assertThat(factory.getViewReader().readFrom(partial), nullValue());
+        assertThat(partial.readerIndex(), equalTo(0));
+        assertThat(bb.refCnt(), equalTo(1));
+    }
+
+    @Test
+    public void testVirtualDispatch() throws Exception {
+        OFFlowStatsReply reply = factory.buildFlowStatsReply().setXid(3).build();
+        ByteBuf bb = Unpooled.buffer();
+        reply.writeTo(bb);
+
+        OFMessage read = factory.getViewReader().readFrom(bb);
+        assertThat(read, notNullValue());
+        assertThat(read, instanceOf(OFFlowStatsReply.class));
+        assertThat(((OFMessageView) read).toMessage(), equalTo((OFMessage) reply));
+        ((OFMessageView) read).release();
+    }
+}
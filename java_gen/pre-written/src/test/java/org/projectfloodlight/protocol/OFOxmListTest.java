@@ -1,19 +1,38 @@
 package org.projectfloodlight.protocol;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertFalse;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
 import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
 import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowAdd;
+import org.projectfloodlight.openflow.protocol.OFMatchV3;
 import org.projectfloodlight.openflow.protocol.OFOxmList;
 import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.match.Match;
 import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.protocol.oxm.OFOxm;
 import org.projectfloodlight.openflow.protocol.oxm.OFOxmIpv6DstMasked;
 import org.projectfloodlight.openflow.protocol.oxm.OFOxmIpv6SrcMasked;
 import org.projectfloodlight.openflow.protocol.oxm.OFOxms;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.OFBooleanValue;
+import org.projectfloodlight.openflow.types.IPv4Address;
 import org.projectfloodlight.openflow.types.IPv6AddressWithMask;
+import org.projectfloodlight.openflow.types.IpProtocol;
+import org.projectfloodlight.openflow.types.TransportPort;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 public class OFOxmListTest {
     private OFOxms oxms;
@@ -38,4 +57,108 @@ public class OFOxmListTest {
         assertThat(list.get(MatchField.IPV6_DST), CoreMatchers.nullValue());
         assertFalse(list.get(MatchField.IPV6_SRC).isMasked());
     }
+
+    @Test
+    public void testCompactList() {
+        OFOxm<?> ethType = oxms.ethType(EthType.IPv4);
+        OFOxm<?> ipv4Dst = oxms.ipv4Dst(IPv4Address.of("10.0.0.1"));
+        // ordinal 65, in the second word of the field bitmap
+        OFOxm<?> cacheHit = oxms.bsnL2CacheHit(OFBooleanValue.TRUE);
+
+        OFOxmList list = OFOxmList.of(cacheHit, ipv4Dst, ethType);
+        assertThat(list.size(), equalTo(3));
+        // iterates in the order of the match fields
+        assertThat(list, contains(ethType, ipv4Dst, cacheHit));
+        assertThat(list.get(MatchField.ETH_TYPE), equalTo((Object) ethType));
+        assertThat(list.get(MatchField.IPV4_DST), equalTo((Object) ipv4Dst));
+        assertThat(list.get(MatchField.BSN_L2_CACHE_HIT), equalTo((Object) cacheHit));
+        assertThat(list.get(MatchField.IPV4_SRC), nullValue());
+        assertThat(list.get(MatchField.BSN_VLAN_XLATE_PORT_GROUP_ID), nullValue());
+        assertThat(list.get(MatchField.BSN_INNER_ETH_DST), nullValue());
+        assertThat(OFOxmList.of(ethType).get(MatchField.BSN_L2_CACHE_HIT), nullValue());
+
+        OFOxmList other = OFOxmList.of(ethType, cacheHit, ipv4Dst);
+        assertThat(other, equalTo(list));
+        assertThat(other.hashCode(), equalTo(list.hashCode()));
+        assertThat(OFOxmList.of(ethType, ipv4Dst), not(equalTo(list)));
+        assertThat(list.toString(), equalTo("OFOxmList{ETH_TYPE=" + ethType + ", IPV4_DST=" + ipv4Dst
+                + ", BSN_L2_CACHE_HIT=" + cacheHit + "}"));
+
+        // a later OXM for the same field replaces an earlier one
+        OFOxm<?> otherDst = oxms.ipv4Dst(IPv4Address.of("10.0.0.2"));
+        assertThat(OFOxmList.of(ipv4Dst, ethType, otherDst), contains(ethType, otherDst));
+
+        OFOxmList.Builder builder = list.createBuilder();
+        builder.unset(MatchField.IPV4_DST);
+        assertThat(builder.build(), contains(ethType, cacheHit));
+        assertThat(list.createBuilder().build(), equalTo(list));
+        assertThat(OFOxmList.of(), sameInstance(OFOxmList.EMPTY));
+    }
+
+    private static OFMatchV3 readMatch(OFFactory factory, IPv4Address dst) throws OFParseError {
+        Match match = factory.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.IPV4_DST, dst)
+                .build();
+        OFFlowAdd flowAdd = factory.buildFlowAdd().setMatch(match).build();
+        ByteBuf bb = Unpooled.buffer();
+        flowAdd.writeTo(bb);
+        return (OFMatchV3) ((OFFlowAdd) factory.getReader().readFrom(bb)).getMatch();
+    }
+
+    @Test
+    public void testInterning() throws OFParseError {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        assertFalse(OFOxmList.isInterningEnabled());
+        OFMatchV3 m1 = readMatch(factory, IPv4Address.of("10.0.0.1"));
+        OFMatchV3 m2 = readMatch(factory, IPv4Address.of("10.0.0.1"));
+        assertThat(m2.getOxmList(), equalTo(m1.getOxmList()));
+        assertThat(m2.getOxmList(), not(sameInstance(m1.getOxmList())));
+
+        OFOxmList.enableInterning();
+        try {
+            m1 = readMatch(factory, IPv4Address.of("10.0.0.1"));
+            m2 = readMatch(factory, IPv4Address.of("10.0.0.1"));
+            OFMatchV3 m3 = readMatch(factory, IPv4Address.of("10.0.0.2"));
+            // equal lists are shared
+            assertThat(m2.getOxmList(), sameInstance(m1.getOxmList()));
+            assertThat(m3.getOxmList(), not(equalTo(m1.getOxmList())));
+            // equal OXMs of different lists are shared
+            assertThat(m3.getOxmList().get(MatchField.ETH_TYPE),
+                    sameInstance(m1.getOxmList().get(MatchField.ETH_TYPE)));
+            assertThat(m3.getOxmList().get(MatchField.IP_PROTO),
+                    sameInstance(m1.getOxmList().get(MatchField.IP_PROTO)));
+            // lists built from OXMs are interned, too
+            OFOxmList built = OFOxmList.of(oxms.ethType(EthType.IPv4), oxms.ipProto(IpProtocol.TCP),
+                    oxms.ipv4Dst(IPv4Address.of("10.0.0.2")));
+            assertThat(built, sameInstance(m3.getOxmList()));
+        } finally {
+            OFOxmList.disableInterning();
+        }
+    }
+
+    @Test
+    public void testArePrerequisitesOK() {
+        // TCP_SRC requires IP_PROTO = TCP, which requires ETH_TYPE = IPv4 or IPv6
+        OFOxmList list = OFOxmList.of(oxms.ethType(EthType.IPv6), oxms.ipProto(IpProtocol.TCP),
+                oxms.tcpSrc(TransportPort.of(80)), oxms.ipv4Src(IPv4Address.of("1.2.3.4")));
+        assertThat(list.arePrerequisitesOK(MatchField.ETH_TYPE), equalTo(true));
+        assertThat(list.arePrerequisitesOK(MatchField.IP_PROTO), equalTo(true));
+        assertThat(list.arePrerequisitesOK(MatchField.TCP_SRC), equalTo(true));
+        assertThat(list.arePrerequisitesOK(MatchField.IPV4_SRC), equalTo(false));
+        // absent fields are not in effect
+        assertThat(list.arePrerequisitesOK(MatchField.TCP_DST), equalTo(false));
+
+        // unmet prerequisites propagate
+        list = OFOxmList.of(oxms.ethType(EthType.ARP), oxms.ipProto(IpProtocol.TCP),
+                oxms.tcpSrc(TransportPort.of(80)));
+        assertThat(list.arePrerequisitesOK(MatchField.ETH_TYPE), equalTo(true));
+        assertThat(list.arePrerequisitesOK(MatchField.IP_PROTO), equalTo(false));
+        assertThat(list.arePrerequisitesOK(MatchField.TCP_SRC), equalTo(false));
+
+        list = OFOxmList.of(oxms.ipProto(IpProtocol.TCP), oxms.tcpSrc(TransportPort.of(80)));
+        assertThat(list.arePrerequisitesOK(MatchField.TCP_SRC), equalTo(false));
+        assertThat(OFOxmList.EMPTY.arePrerequisitesOK(MatchField.ETH_TYPE), equalTo(false));
+    }
 }
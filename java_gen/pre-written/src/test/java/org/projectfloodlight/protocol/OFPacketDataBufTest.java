@@ -0,0 +1,138 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageView;
+import org.projectfloodlight.openflow.protocol.OFPacketIn;
+import org.projectfloodlight.openflow.protocol.OFPacketInReason;
+import org.projectfloodlight.openflow.protocol.OFPacketOut;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.action.OFAction;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+public class OFPacketDataBufTest {
+    private static final byte[] PAYLOAD = { 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+
+    private static OFPacketIn packetIn(OFVersion version) {
+        OFFactory factory = OFFactories.getFactory(version);
+        OFPacketIn.Builder builder = factory.buildPacketIn()
+                .setXid(1)
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setTotalLen(PAYLOAD.length)
+                .setReason(OFPacketInReason.NO_MATCH)
+                .setData(PAYLOAD);
+        if (version == OFVersion.OF_10)
+            builder.setInPort(OFPort.of(3));
+        else
+            builder.setTableId(TableId.of(1))
+                    .setCookie(U64.of(0xc00c1e))
+                    .setMatch(factory.buildMatch().setExact(MatchField.IN_PORT, OFPort.of(3)).build());
+        return builder.build();
+    }
+
+    private static OFPacketOut packetOut(OFVersion version) {
+        OFFactory factory = OFFactories.getFactory(version);
+        OFPacketOut.Builder builder = factory.buildPacketOut()
+                .setXid(2)
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setActions(Collections.<OFAction>singletonList(factory.actions().output(OFPort.of(4), 0)))
+                .setData(PAYLOAD);
+        if (version.compareTo(OFVersion.OF_15) < 0)
+            builder.setInPort(OFPort.CONTROLLER);
+        else
+            builder.setMatch(factory.buildMatch().setExact(MatchField.IN_PORT, OFPort.CONTROLLER).build());
+        return builder.build();
+    }
+
+    @Test
+    public void testMessageDataBuf() {
+        OFPacketIn packetIn = packetIn(OFVersion.OF_13);
+        ByteBuf data = packetIn.getDataBuf();
+        assertThat(data, equalTo(Unpooled.wrappedBuffer(PAYLOAD)));
+        assertThat(data.isReadOnly(), equalTo(true));
+        // wraps the data of the message
+        assertThat(data.unwrap().array(), sameInstance(packetIn.getData()));
+    }
+
+    @Test
+    public void testViewDataBuf() throws OFParseError {
+        OFMessage[] messages = {
+                packetIn(OFVersion.OF_10), packetIn(OFVersion.OF_13), packetIn(OFVersion.OF_15),
+                packetOut(OFVersion.OF_10), packetOut(OFVersion.OF_13), packetOut(OFVersion.OF_15) };
+        for (OFMessage message : messages) {
+            ByteBuf bb = PooledByteBufAllocator.DEFAULT.directBuffer();
+            message.writeTo(bb);
+            OFMessageView view = (OFMessageView) OFFactories.getGenericViewReader().readFrom(bb);
+            bb.release();
+
+            ByteBuf data = view instanceof OFPacketIn ? ((OFPacketIn) view).getDataBuf()
+                    : ((OFPacketOut) view).getDataBuf();
+            assertThat(message.toString(), data, equalTo(Unpooled.wrappedBuffer(PAYLOAD)));
+            assertThat(data.isReadOnly(), equalTo(true));
+            // the slice shares the reference count of the buffer of the view
+            assertThat(data.refCnt(), equalTo(1));
+            data.retain();
+            assertThat(view.release(), equalTo(true));
+            assertThat(data.refCnt(), equalTo(1));
+            assertThat(data, equalTo(Unpooled.wrappedBuffer(PAYLOAD)));
+            assertThat(data.release(), equalTo(true));
+        }
+    }
+
+    @Test
+    public void testBuilderSetDataBuf() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFPacketOut template = packetOut(OFVersion.OF_13);
+
+        // the readable bytes of a pooled buffer are copied; the buffer is left untouched
+        ByteBuf pooled = PooledByteBufAllocator.DEFAULT.buffer();
+        pooled.writeByte(0xff).writeBytes(PAYLOAD);
+        pooled.readByte();
+        OFPacketOut copied = template.createBuilder().setData(pooled).build();
+        assertThat(pooled.readerIndex(), equalTo(1));
+        assertThat(pooled.refCnt(), equalTo(1));
+        pooled.release();
+        assertThat(copied.getData(), equalTo(PAYLOAD));
+        assertThat(copied, equalTo(template));
+
+        // a wrapped array is copied too: the caller may keep modifying it
+        byte[] array = PAYLOAD.clone();
+        OFPacketOut wrapped = factory.buildPacketOut()
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setInPort(OFPort.CONTROLLER)
+                .setData(Unpooled.wrappedBuffer(array))
+                .build();
+        assertThat(wrapped.getData(), not(sameInstance(array)));
+        array[0]++;
+        assertThat(wrapped.getData(), equalTo(PAYLOAD));
+        array[0]--;
+
+        // a slice of an array is copied
+        byte[] sliced = factory.buildPacketOut()
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setInPort(OFPort.CONTROLLER)
+                .setData(Unpooled.wrappedBuffer(array, 1, array.length - 1))
+                .build().getData();
+        assertThat(sliced, not(sameInstance(array)));
+        assertThat(sliced, equalTo(Arrays.copyOfRange(array, 1, array.length)));
+    }
+}
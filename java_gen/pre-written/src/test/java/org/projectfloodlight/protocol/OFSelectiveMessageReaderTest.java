@@ -0,0 +1,81 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+
+import java.util.EnumSet;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.exceptions.OFParseError;
+import org.projectfloodlight.openflow.protocol.OFEchoRequest;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFMessageReader;
+import org.projectfloodlight.openflow.protocol.OFRawMessage;
+import org.projectfloodlight.openflow.protocol.OFSelectiveMessageReader;
+import org.projectfloodlight.openflow.protocol.OFStatsType;
+import org.projectfloodlight.openflow.protocol.OFType;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class OFSelectiveMessageReaderTest {
+    private final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+
+    private static ByteBuf write(OFMessage... messages) {
+        ByteBuf bb = Unpooled.buffer();
+        for (OFMessage m : messages)
+            m.writeTo(bb);
+        return bb;
+    }
+
+    @Test
+    public void testRawPassThrough() throws OFParseError {
+        OFEchoRequest echo = factory.buildEchoRequest().setXid(7).setData(new byte[] { 1, 2, 3 }).build();
+        OFMessage hello = factory.buildHello().setXid(8).build();
+        ByteBuf bb = write(echo, hello);
+
+        OFMessageReader<OFMessage> reader = new OFSelectiveMessageReader(EnumSet.of(OFType.HELLO));
+        OFMessage first = reader.readFrom(bb);
+        assertThat(first, instanceOf(OFRawMessage.class));
+        OFRawMessage raw = (OFRawMessage) first;
+        assertThat(raw.getVersion(), equalTo(OFVersion.OF_13));
+        assertThat(raw.getType(), equalTo(OFType.ECHO_REQUEST));
+        assertThat(raw.getXid(), equalTo(7L));
+        assertThat(raw.decode(), equalTo((OFMessage) echo));
+
+        ByteBuf out = Unpooled.buffer();
+        raw.writeTo(out);
+        assertThat(out, equalTo(write(echo)));
+        assertThat(raw.release(), equalTo(true));
+
+        assertThat(reader.readFrom(bb), equalTo(hello));
+        assertThat(bb.isReadable(), equalTo(false));
+    }
+
+    @Test
+    public void testStatsTypeSelection() throws OFParseError {
+        ByteBuf bb = write(factory.buildFlowStatsRequest().setXid(1).build(),
+                factory.buildPortStatsRequest().setXid(2).build());
+
+        OFMessageReader<OFMessage> reader = new OFSelectiveMessageReader(EnumSet.of(OFType.STATS_REQUEST),
+                EnumSet.of(OFStatsType.FLOW), null);
+        assertThat(reader.readFrom(bb), not(instanceOf(OFRawMessage.class)));
+        OFMessage port = reader.readFrom(bb);
+        assertThat(port, instanceOf(OFRawMessage.class));
+        ((OFRawMessage) port).release();
+    }
+
+    @Test
+    public void testPartialMessage() throws OFParseError {
+        ByteBuf bb = write(factory.buildHello().setXid(8).build());
+        bb.writerIndex(bb.writerIndex() - 1);
+        OFMessageReader<OFMessage> reader = new OFSelectiveMessageReader(EnumSet.noneOf(OFType.class));
+        assertThat(reader.readFrom(bb), equalTo(null));
+        assertThat(bb.readerIndex(), equalTo(0));
+    }
+}
@@ -0,0 +1,69 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowAdd;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.action.OFAction;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.OFPort;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+public class OFWireLengthTest {
+
+    private OFFlowAdd buildFlowAdd(OFFactory factory) {
+        Match match = factory.buildMatch()
+                .setExact(MatchField.IN_PORT, OFPort.of(1))
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setExact(MatchField.IPV4_DST, IPv4Address.of("10.0.0.1"))
+                .build();
+        List<OFAction> actions = new ArrayList<>();
+        actions.add(factory.actions().output(OFPort.of(3), 0xffff));
+        actions.add(factory.actions().output(OFPort.of(2), 0xffff));
+        return factory.buildFlowAdd()
+                .setXid(1)
+                .setMatch(match)
+                .setActions(actions)
+                .build();
+    }
+
+    @Test
+    public void testWireLengthMatchesSerialization() {
+        for (OFVersion version : new OFVersion[] { OFVersion.OF_10, OFVersion.OF_13, OFVersion.OF_15 }) {
+            OFFactory factory = OFFactories.getFactory(version);
+            OFFlowAdd flowAdd = buildFlowAdd(factory);
+            ByteBuf bb = Unpooled.buffer();
+            flowAdd.writeTo(bb);
+            assertThat(version.toString(), flowAdd.getWireLength(), equalTo(bb.readableBytes()));
+        }
+    }
+
+    @Test
+    public void testWriteToAllocator() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFFlowAdd flowAdd = buildFlowAdd(factory);
+        ByteBuf expected = Unpooled.buffer();
+        flowAdd.writeTo(expected);
+
+        ByteBuf bb = flowAdd.writeTo(PooledByteBufAllocator.DEFAULT);
+        try {
+            assertThat(bb.capacity(), equalTo(expected.readableBytes()));
+            assertThat(bb, equalTo(expected));
+        } finally {
+            bb.release();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.projectfloodlight.protocol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowAdd;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.SerializedOFMessage;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.OFPort;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class SerializedOFMessageTest {
+    private final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+
+    private OFFlowAdd buildFlowAdd(long xid) {
+        return factory.buildFlowAdd()
+                .setXid(xid)
+                .setMatch(factory.buildMatch().setExact(
+                        MatchField.IN_PORT, OFPort.of(1)).build())
+                .setActions(Collections.singletonList(factory.actions().output(OFPort.of(2), 0xffff)))
+                .build();
+    }
+
+    private static ByteBuf write(OFMessage m) {
+        ByteBuf bb = Unpooled.buffer();
+        m.writeTo(bb);
+        return bb;
+    }
+
+    @Test
+    public void testWriteMatchesOriginal() {
+        OFFlowAdd flowAdd = buildFlowAdd(10);
+        SerializedOFMessage serialized = SerializedOFMessage.of(flowAdd);
+        assertThat(write(serialized), equalTo(write(flowAdd)));
+        assertThat(serialized.getWireLength(), equalTo(flowAdd.getWireLength()));
+        assertThat(serialized.getXid(), equalTo(10L));
+        assertThat(serialized.getMessage(), sameInstance((OFMessage) flowAdd));
+        assertThat(SerializedOFMessage.of(serialized), sameInstance(serialized));
+    }
+
+    @Test
+    public void testXidRestamping() {
+        SerializedOFMessage serialized = SerializedOFMessage.of(buildFlowAdd(10));
+        SerializedOFMessage restamped = serialized.withXid(0xfedcba98L);
+
+        OFFlowAdd expected = buildFlowAdd(0xfedcba98L);
+        assertThat(write(restamped), equalTo(write(expected)));
+        assertThat(Unpooled.wrappedBuffer(restamped.toWireBytes()), equalTo(write(expected)));
+        assertThat(restamped.getXid(), equalTo(0xfedcba98L));
+        assertThat(restamped.getMessage(), equalTo((OFMessage) expected));
+        assertThat(restamped.createBuilder().build(), equalTo((OFMessage) expected));
+
+        assertThat(restamped, not(equalTo(serialized)));
+        assertThat(restamped.equalsIgnoreXid(serialized), equalTo(true));
+        assertThat(restamped.hashCodeIgnoreXid(), equalTo(serialized.hashCodeIgnoreXid()));
+        assertThat(restamped.withXid(10), equalTo(serialized));
+        assertThat(restamped.withXid(10).hashCode(), equalTo(serialized.hashCode()));
+    }
+}
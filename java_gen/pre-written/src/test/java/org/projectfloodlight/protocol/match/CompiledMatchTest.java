@@ -0,0 +1,182 @@
+package org.projectfloodlight.protocol.match;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.match.CompiledMatch;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.protocol.match.PacketKey;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.IPv6FlowLabel;
+import org.projectfloodlight.openflow.types.IpProtocol;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OFVlanVidMatch;
+import org.projectfloodlight.openflow.types.TransportPort;
+
+public class CompiledMatchTest {
+    private final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+
+    private static Match ipv4Dst(OFFactory factory, String address, int prefixLength) {
+        return factory.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setMasked(MatchField.IPV4_DST, IPv4Address.of(address).withMaskOfLength(prefixLength))
+                .build();
+    }
+
+    private static Match tcpDst(OFFactory factory, int port) {
+        return factory.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.TCP_DST, TransportPort.of(port))
+                .build();
+    }
+
+    @Test
+    public void testCompile() {
+        Match match = ipv4Dst(factory, "10.0.0.0", 8);
+        CompiledMatch compiled = CompiledMatch.of(match);
+        assertThat(compiled.getFieldCount(), equalTo(2));
+        assertThat(compiled.isMatchingOn(MatchField.IPV4_DST), equalTo(true));
+        assertThat(compiled.isMatchingOn(MatchField.IPV4_SRC), equalTo(false));
+        assertThat(CompiledMatch.of(factory.buildMatch().build()), sameInstance(CompiledMatch.ALL));
+
+        // the generated matches cache their compiled form
+        assertThat(match.compile(), equalTo(compiled));
+        assertThat(match.compile(), sameInstance(match.compile()));
+        assertThat(ipv4Dst(OFFactories.getFactory(OFVersion.OF_10), "10.0.0.0", 8).compile(), equalTo(compiled));
+    }
+
+    @Test
+    public void testEquals() {
+        // a full mask is an exact match
+        Match exact = factory.buildMatch().setExact(MatchField.IN_PORT, OFPort.of(1)).build();
+        Match fullMask = factory.buildMatch().setMasked(MatchField.IN_PORT, OFPort.of(1), OFPort.NO_MASK).build();
+        assertThat(CompiledMatch.of(fullMask), equalTo(CompiledMatch.of(exact)));
+        assertThat(CompiledMatch.of(fullMask).hashCode(), equalTo(CompiledMatch.of(exact).hashCode()));
+
+        // bits outside of the mask do not matter
+        assertThat(CompiledMatch.of(ipv4Dst(factory, "10.1.2.3", 8)), equalTo(CompiledMatch.of(ipv4Dst(factory, "10.0.0.0", 8))));
+        assertThat(CompiledMatch.of(ipv4Dst(factory, "10.0.0.0", 16)), not(equalTo(CompiledMatch.of(ipv4Dst(factory, "10.0.0.0", 8)))));
+
+        // matches of different versions compile alike
+        OFFactory factory10 = OFFactories.getFactory(OFVersion.OF_10);
+        assertThat(CompiledMatch.of(ipv4Dst(factory10, "10.0.0.0", 8)), equalTo(CompiledMatch.of(ipv4Dst(factory, "10.0.0.0", 8))));
+        assertThat(CompiledMatch.of(tcpDst(factory10, 80)), equalTo(CompiledMatch.of(tcpDst(factory, 80))));
+
+        // masks cover the bits the field has on the wire: the flow label has 20 bits of 32
+        Match exactLabel = factory.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv6)
+                .setExact(MatchField.IPV6_FLABEL, IPv6FlowLabel.of(0x12345))
+                .build();
+        Match maskedLabel = factory.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv6)
+                .setMasked(MatchField.IPV6_FLABEL, IPv6FlowLabel.of(0x12345), IPv6FlowLabel.of(0xFFFFF))
+                .build();
+        assertThat(maskedLabel.compile(), equalTo(exactLabel.compile()));
+        assertThat(maskedLabel.subsumes(exactLabel), equalTo(true));
+        assertThat(exactLabel.subsumes(maskedLabel), equalTo(true));
+
+        // VLAN_VID has 13 bits of 16: the VLAN id and the present bit
+        Match exactVlan = factory.buildMatch()
+                .setExact(MatchField.VLAN_VID, OFVlanVidMatch.ofVlan(10))
+                .build();
+        Match maskedVlan = factory.buildMatch()
+                .setMasked(MatchField.VLAN_VID, OFVlanVidMatch.ofVlan(10), OFVlanVidMatch.ofRawVid((short) 0x1fff))
+                .build();
+        assertThat(maskedVlan.compile(), equalTo(exactVlan.compile()));
+        assertThat(maskedVlan.compile().hashCode(), equalTo(exactVlan.compile().hashCode()));
+    }
+
+    @Test
+    public void testOverlapsAndSubsumes() {
+        Match all = factory.buildMatch().build();
+        Match net8 = ipv4Dst(factory, "10.0.0.0", 8);
+        Match net16 = ipv4Dst(factory, "10.1.0.0", 16);
+        Match other8 = ipv4Dst(factory, "11.0.0.0", 8);
+        Match http = tcpDst(factory, 80);
+
+        assertThat(net8.overlaps(net16), equalTo(true));
+        assertThat(net16.overlaps(net8), equalTo(true));
+        assertThat(net8.overlaps(other8), equalTo(false));
+        assertThat(net16.overlaps(http), equalTo(true));
+        assertThat(tcpDst(factory, 22).overlaps(http), equalTo(false));
+
+        assertThat(net8.subsumes(net16), equalTo(true));
+        assertThat(net16.subsumes(net8), equalTo(false));
+        assertThat(net8.subsumes(other8), equalTo(false));
+        assertThat(all.subsumes(http), equalTo(true));
+        assertThat(http.subsumes(all), equalTo(false));
+        assertThat(net8.subsumes(http), equalTo(false));
+        assertThat(http.subsumes(http), equalTo(true));
+    }
+
+    @Test
+    public void testIntersect() {
+        Match net8 = ipv4Dst(factory, "10.0.0.0", 8);
+        Match net16 = ipv4Dst(factory, "10.1.0.0", 16);
+        Match http = tcpDst(factory, 80);
+
+        assertThat(net8.intersect(net16), equalTo(CompiledMatch.of(net16)));
+        assertThat(net8.intersect(ipv4Dst(factory, "11.0.0.0", 8)), nullValue());
+
+        Match expected = factory.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setMasked(MatchField.IPV4_DST, IPv4Address.of("10.0.0.0").withMaskOfLength(8))
+                .setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.TCP_DST, TransportPort.of(80))
+                .build();
+        assertThat(net8.intersect(http), equalTo(CompiledMatch.of(expected)));
+        assertThat(http.intersect(net8), equalTo(CompiledMatch.of(expected)));
+    }
+
+    @Test
+    public void testMatches() {
+        CompiledMatch net8 = CompiledMatch.of(ipv4Dst(factory, "10.0.0.0", 8));
+        PacketKey.Builder packet = PacketKey.builder().set(MatchField.ETH_TYPE, EthType.IPv4);
+        assertThat(net8.matches(packet.build()), equalTo(false));
+        assertThat(net8.matches(packet.set(MatchField.IPV4_DST, IPv4Address.of("10.9.8.7")).build()), equalTo(true));
+        assertThat(net8.matches(packet.set(MatchField.IPV4_DST, IPv4Address.of("11.9.8.7")).build()), equalTo(false));
+    }
+
+    @Test
+    public void testConsistency() {
+        Random random = new Random(7);
+        List<CompiledMatch> matches = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Match.Builder builder = factory.buildMatch().setExact(MatchField.ETH_TYPE, EthType.IPv4);
+            if (random.nextBoolean())
+                builder.setMasked(MatchField.IPV4_DST,
+                        IPv4Address.of(random.nextInt(4) << 24).withMaskOfLength(random.nextInt(3) * 4));
+            if (random.nextBoolean())
+                builder.setExact(MatchField.IN_PORT, OFPort.of(1 + random.nextInt(2)));
+            matches.add(CompiledMatch.of(builder.build()));
+        }
+        for (CompiledMatch a : matches) {
+            for (CompiledMatch b : matches) {
+                assertThat(a.overlaps(b), equalTo(b.overlaps(a)));
+                if (a.subsumes(b))
+                    assertThat(a.overlaps(b), equalTo(true));
+                assertThat(a.subsumes(b) && b.subsumes(a), equalTo(a.equals(b)));
+                CompiledMatch intersection = a.intersect(b);
+                if (intersection != null) {
+                    assertThat(a.subsumes(intersection), equalTo(true));
+                    assertThat(b.subsumes(intersection), equalTo(true));
+                    assertThat(intersection, equalTo(b.intersect(a)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.projectfloodlight.protocol.match;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.match.FlowClassifier;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.protocol.match.PacketKey;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.IpProtocol;
+import org.projectfloodlight.openflow.types.Masked;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OFValueType;
+import org.projectfloodlight.openflow.types.TransportPort;
+
+public class FlowClassifierTest {
+    private final OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+
+    private static PacketKey packet(int inPort, String ipv4Dst, int tcpDst) {
+        return PacketKey.builder()
+                .set(MatchField.IN_PORT, OFPort.of(inPort))
+                .set(MatchField.ETH_TYPE, EthType.IPv4)
+                .set(MatchField.IP_PROTO, IpProtocol.TCP)
+                .set(MatchField.IPV4_DST, IPv4Address.of(ipv4Dst))
+                .set(MatchField.TCP_DST, TransportPort.of(tcpDst))
+                .build();
+    }
+
+    private Match.Builder ipv4(OFFactory factory) {
+        return factory.buildMatch().setExact(MatchField.ETH_TYPE, EthType.IPv4);
+    }
+
+    @Test
+    public void testPriorities() {
+        FlowClassifier<String> classifier = new FlowClassifier<>();
+        classifier.insert(factory.buildMatch().build(), 0, "default");
+        classifier.insert(ipv4(factory).setMasked(MatchField.IPV4_DST, IPv4Address.of("10.0.0.0").withMaskOfLength(8)).build(),
+                10, "10/8");
+        classifier.insert(ipv4(factory).setMasked(MatchField.IPV4_DST, IPv4Address.of("10.1.0.0").withMaskOfLength(16)).build(),
+                20, "10.1/16");
+        classifier.insert(ipv4(factory).setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.TCP_DST, TransportPort.of(80)).build(), 15, "http");
+        assertThat(classifier.size(), equalTo(4));
+        assertThat(classifier.getTupleCount(), equalTo(4));
+
+        assertThat(classifier.classify(packet(1, "10.1.2.3", 80)), equalTo("10.1/16"));
+        assertThat(classifier.classify(packet(1, "10.2.2.3", 80)), equalTo("http"));
+        assertThat(classifier.classify(packet(1, "10.2.2.3", 22)), equalTo("10/8"));
+        assertThat(classifier.classify(packet(1, "192.168.0.1", 22)), equalTo("default"));
+        // rules on fields the packet has no value for do not match
+        assertThat(classifier.classify(PacketKey.builder().set(MatchField.IN_PORT, OFPort.of(1)).build()),
+                equalTo("default"));
+    }
+
+    @Test
+    public void testInsertAndRemove() {
+        FlowClassifier<String> classifier = new FlowClassifier<>();
+        Match http = ipv4(factory).setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.TCP_DST, TransportPort.of(80)).build();
+        Match https = ipv4(factory).setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.TCP_DST, TransportPort.of(443)).build();
+        assertThat(classifier.insert(http, 10, "a"), nullValue());
+        assertThat(classifier.insert(http, 10, "b"), equalTo("a"));
+        assertThat(classifier.insert(http, 20, "c"), nullValue());
+        assertThat(classifier.insert(https, 5, "d"), nullValue());
+        assertThat(classifier.size(), equalTo(3));
+        assertThat(classifier.getTupleCount(), equalTo(1));
+        assertThat(classifier.classify(packet(1, "1.2.3.4", 80)), equalTo("c"));
+
+        assertThat(classifier.remove(http, 20), equalTo("c"));
+        assertThat(classifier.remove(http, 20), nullValue());
+        assertThat(classifier.classify(packet(1, "1.2.3.4", 80)), equalTo("b"));
+        assertThat(classifier.remove(http, 10), equalTo("b"));
+        assertThat(classifier.classify(packet(1, "1.2.3.4", 80)), nullValue());
+        assertThat(classifier.classify(packet(1, "1.2.3.4", 443)), equalTo("d"));
+        assertThat(classifier.remove(https, 5), equalTo("d"));
+        assertThat(classifier.size(), equalTo(0));
+        assertThat(classifier.getTupleCount(), equalTo(0));
+    }
+
+    @Test
+    public void testOF10Match() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_10);
+        FlowClassifier<String> classifier = new FlowClassifier<>();
+        classifier.insert(ipv4(factory).setMasked(MatchField.IPV4_DST, IPv4Address.of("10.0.0.0").withMaskOfLength(8)).build(),
+                10, "10/8");
+        classifier.insert(factory.buildMatch().setExact(MatchField.IN_PORT, OFPort.of(3)).build(), 5, "port 3");
+        assertThat(classifier.classify(packet(3, "10.1.2.3", 80)), equalTo("10/8"));
+        assertThat(classifier.classify(packet(3, "11.1.2.3", 80)), equalTo("port 3"));
+    }
+
+    @Test
+    public void testPacketKeyOfMatch() {
+        Match match = ipv4(factory).setExact(MatchField.IPV4_DST, IPv4Address.of("10.0.0.1")).build();
+        PacketKey key = PacketKey.of(match);
+        assertThat(key.get(MatchField.IPV4_DST), equalTo(IPv4Address.of("10.0.0.1")));
+        assertThat(key.has(MatchField.IN_PORT), equalTo(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPacketKeyOfMaskedMatch() {
+        PacketKey.of(ipv4(factory).setMasked(MatchField.IPV4_DST, IPv4Address.of("10.0.0.0").withMaskOfLength(8)).build());
+    }
+
+    private static <F extends OFValueType<F>> boolean fieldMatches(Match match, MatchField<F> field, PacketKey packet) {
+        F value = packet.get(field);
+        if (match.isExact(field))
+            return match.get(field).equals(value);
+        Masked<F> masked = match.getMasked(field);
+        return masked == null || (value != null && masked.matches(value));
+    }
+
+    private static boolean matches(Match match, PacketKey packet) {
+        for (MatchField<?> field : match.getMatchFields()) {
+            if (!fieldMatches(match, field, packet))
+                return false;
+        }
+        return true;
+    }
+
+    /** @return an address from a small space, so that random rules and packets match */
+    private static IPv4Address randomAddress(Random random) {
+        int address = 0;
+        for (int i = 0; i < 4; i++)
+            address = address << 8 | random.nextInt(2);
+        return IPv4Address.of(address);
+    }
+
+    @Test
+    public void testAgainstLinearScan() {
+        Random random = new Random(42);
+        FlowClassifier<Integer> classifier = new FlowClassifier<>();
+        List<Match> matches = new ArrayList<>();
+        for (int priority = 0; priority < 2000; priority++) {
+            Match.Builder builder = ipv4(factory);
+            if (random.nextBoolean())
+                builder.setExact(MatchField.IN_PORT, OFPort.of(1 + random.nextInt(4)));
+            if (random.nextInt(4) != 0)
+                builder.setMasked(MatchField.IPV4_DST,
+                        randomAddress(random).withMaskOfLength(8 + random.nextInt(4) * 8));
+            if (random.nextBoolean())
+                builder.setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                        .setExact(MatchField.TCP_DST, TransportPort.of(random.nextInt(8)));
+            Match match = builder.build();
+            matches.add(match);
+            classifier.insert(match, priority, priority);
+        }
+        // remove a third of the rules
+        for (int priority = 0; priority < matches.size(); priority += 3) {
+            assertThat(classifier.remove(matches.get(priority), priority), equalTo(priority));
+            matches.set(priority, null);
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            PacketKey packet = packet(1 + random.nextInt(4),
+                    randomAddress(random).toString(), random.nextInt(8));
+            Integer expected = null;
+            for (int priority = matches.size() - 1; priority >= 0; priority--) {
+                Match match = matches.get(priority);
+                if (match != null && matches(match, packet)) {
+                    expected = priority;
+                    break;
+                }
+            }
+            assertThat(packet.toString(), classifier.classify(packet), equalTo(expected));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.projectfloodlight.protocol.match;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.match.CompiledMatch;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.protocol.match.MatchTranslator;
+import org.projectfloodlight.openflow.protocol.match.MatchTranslator.Translation;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.IPv6Address;
+import org.projectfloodlight.openflow.types.IpProtocol;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TransportPort;
+import org.projectfloodlight.openflow.types.U16;
+
+public class MatchTranslatorTest {
+    private final OFFactory factory13 = OFFactories.getFactory(OFVersion.OF_13);
+
+    private static Match tcp(OFFactory factory, int port) {
+        return factory.buildMatch()
+                .setExact(MatchField.IN_PORT, OFPort.of(1))
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setMasked(MatchField.IPV4_DST, IPv4Address.of("10.0.0.0").withMaskOfLength(8))
+                .setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.TCP_DST, TransportPort.of(port))
+                .build();
+    }
+
+    @Test
+    public void testTranslate() {
+        Match source = tcp(factory13, 80);
+        Translation translation = new MatchTranslator(OFVersion.OF_10).translate(source);
+        assertThat(translation.isExact(), equalTo(true));
+        Match match = translation.getMatch();
+        assertThat(match.getVersion(), equalTo(OFVersion.OF_10));
+        assertThat(match, equalTo(tcp(OFFactories.getFactory(OFVersion.OF_10), 80)));
+        assertThat(CompiledMatch.of(match), equalTo(CompiledMatch.of(source)));
+
+        // and back
+        translation = new MatchTranslator(OFVersion.OF_14).translate(match);
+        assertThat(translation.isExact(), equalTo(true));
+        assertThat(translation.getMatch(), equalTo(tcp(OFFactories.getFactory(OFVersion.OF_14), 80)));
+    }
+
+    @Test
+    public void testSameVersion() {
+        Match source = tcp(factory13, 80);
+        assertThat(new MatchTranslator(OFVersion.OF_13).translate(source).getMatch(), sameInstance(source));
+    }
+
+    @Test
+    public void testUnsupportedFields() {
+        MatchTranslator translator = new MatchTranslator(OFVersion.OF_10);
+        Match source = factory13.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv6)
+                .setExact(MatchField.IPV6_SRC, IPv6Address.of("2001:db8::1"))
+                .setExact(MatchField.IP_PROTO, IpProtocol.UDP)
+                .setExact(MatchField.UDP_DST, TransportPort.of(53))
+                .build();
+        Translation translation = translator.translate(source);
+        assertThat(translation.isExact(), equalTo(false));
+        assertThat(translation.getUnsupportedFields(), contains(MatchField.IPV6_SRC));
+        assertThat(translation.getMatch().get(MatchField.ETH_TYPE), equalTo(EthType.IPv6));
+
+        // OpenFlow 1.0 only supports CIDR masks
+        source = factory13.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setMasked(MatchField.IPV4_SRC, IPv4Address.of("10.0.0.1"), IPv4Address.of("255.0.255.0"))
+                .setMasked(MatchField.IPV4_DST, IPv4Address.of("10.0.0.0"), IPv4Address.of("255.0.0.0"))
+                .build();
+        translation = translator.translate(source);
+        assertThat(translation.getUnsupportedFields(), contains(MatchField.IPV4_SRC));
+        assertThat(translation.getMatch().get(MatchField.IPV4_SRC), nullValue());
+        assertThat(translation.getMatch().getMasked(MatchField.IPV4_DST),
+                equalTo(IPv4Address.of("10.0.0.0").withMaskOfLength(8)));
+
+        // an empty mask matches any address
+        source = factory13.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setMasked(MatchField.IPV4_DST, IPv4Address.of("10.0.0.0").withMaskOfLength(0))
+                .build();
+        translation = translator.translate(source);
+        assertThat(translation.isExact(), equalTo(true));
+        assertThat(translation.getMatch().isFullyWildcarded(MatchField.IPV4_DST), equalTo(true));
+
+        // the TCP_FLAGS OXM is only defined in OpenFlow 1.5
+        source = OFFactories.getFactory(OFVersion.OF_15).buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv4)
+                .setExact(MatchField.IP_PROTO, IpProtocol.TCP)
+                .setExact(MatchField.TCP_FLAGS, U16.of(0x02))
+                .setExact(MatchField.TCP_DST, TransportPort.of(80))
+                .build();
+        assertThat(factory13.buildMatch().supports(MatchField.TCP_FLAGS), equalTo(false));
+        translation = new MatchTranslator(OFVersion.OF_13).translate(source);
+        assertThat(translation.getUnsupportedFields(), containsInAnyOrder(MatchField.TCP_FLAGS));
+        assertThat(translation.getMatch().get(MatchField.TCP_DST), equalTo(TransportPort.of(80)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testTranslateExact() {
+        Match source = factory13.buildMatch()
+                .setExact(MatchField.ETH_TYPE, EthType.IPv6)
+                .setExact(MatchField.IPV6_SRC, IPv6Address.of("2001:db8::1"))
+                .build();
+        new MatchTranslator(OFVersion.OF_10).translateExact(source);
+    }
+
+    @Test
+    public void testCache() {
+        MatchTranslator translator = new MatchTranslator(OFVersion.OF_10, 2);
+        Translation translation = translator.translate(tcp(factory13, 80));
+        assertThat(translator.translate(tcp(factory13, 80)), sameInstance(translation));
+        assertThat(translator.translate(tcp(factory13, 443)), not(sameInstance(translation)));
+        assertThat(translator.getCacheSize(), equalTo(2));
+        translator.translate(tcp(factory13, 22));
+        assertThat(translator.getCacheSize(), equalTo(2));
+        // the least recently used translation was evicted
+        assertThat(translator.translate(tcp(factory13, 80)), not(sameInstance(translation)));
+        assertThat(translator.translate(tcp(factory13, 80)).getMatch(), equalTo(translation.getMatch()));
+
+        translator.clearCache();
+        assertThat(translator.getCacheSize(), equalTo(0));
+        assertThat(new MatchTranslator(OFVersion.OF_10).getCacheSize(), equalTo(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCacheSize() {
+        new MatchTranslator(OFVersion.OF_10, 0);
+    }
+}
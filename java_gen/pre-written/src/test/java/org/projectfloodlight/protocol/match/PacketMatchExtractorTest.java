@@ -0,0 +1,276 @@
+package org.projectfloodlight.protocol.match;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFPacketIn;
+import org.projectfloodlight.openflow.protocol.OFPacketInReason;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.match.Match;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.protocol.match.PacketMatchExtractor;
+import org.projectfloodlight.openflow.types.ArpOpcode;
+import org.projectfloodlight.openflow.types.EthType;
+import org.projectfloodlight.openflow.types.ICMPv4Type;
+import org.projectfloodlight.openflow.types.IPv4Address;
+import org.projectfloodlight.openflow.types.IPv6Address;
+import org.projectfloodlight.openflow.types.IPv6FlowLabel;
+import org.projectfloodlight.openflow.types.IpDscp;
+import org.projectfloodlight.openflow.types.IpEcn;
+import org.projectfloodlight.openflow.types.IpProtocol;
+import org.projectfloodlight.openflow.types.MacAddress;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.OFVlanVidMatch;
+import org.projectfloodlight.openflow.types.TransportPort;
+import org.projectfloodlight.openflow.types.U16;
+import org.projectfloodlight.openflow.types.U8;
+import org.projectfloodlight.openflow.types.VlanPcp;
+
+import com.google.common.io.BaseEncoding;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class PacketMatchExtractorTest {
+    private static final String ETH = "000000000002 000000000001";
+    /** VLAN 100, priority 5, IPv4 with DSCP EF, TCP SYN/ACK from port 8080 to 80 */
+    private static final String VLAN_TCP = ETH + " 8100 a064 0800"
+            + " 45b80028 00004000 40060000 0a000001 0a000002"
+            + " 1f900050 00000000 00000000 50122000 00000000";
+    /** IPv6 with ECN 1 and a hop-by-hop header, UDP from port 53 to 4660 */
+    private static final String IPV6_UDP = ETH + " 86dd"
+            + " 60112345 00100040 20010db8000000000000000000000001 20010db8000000000000000000000002"
+            + " 11000000 00000000"
+            + " 00351234 00080000";
+    private static final String ARP = ETH + " 0806"
+            + " 0001 0800 0604 0001 000000000001 0a000001 000000000000 0a000002";
+    /** neighbor solicitation for 2001:db8::2 */
+    private static final String NEIGHBOR_SOLICITATION = ETH + " 86dd"
+            + " 60000000 00203aff 20010db8000000000000000000000001 ff0200000000000000000001ff000002"
+            + " 87000000 00000000 20010db8000000000000000000000002 0101000000000001";
+
+    private static byte[] frame(String hex) {
+        return BaseEncoding.base16().lowerCase().decode(hex.replace(" ", ""));
+    }
+
+    private static Match extract(OFVersion version, String hex) {
+        PacketMatchExtractor extractor = new PacketMatchExtractor();
+        extractor.parse(frame(hex));
+        return extractor.fill(OFFactories.getFactory(version).buildMatch()).build();
+    }
+
+    @Test
+    public void testTcp() {
+        PacketMatchExtractor extractor = new PacketMatchExtractor();
+        assertThat(extractor.parse(frame(VLAN_TCP)), equalTo(true));
+        assertThat(extractor.getEthType(), equalTo(0x0800));
+        assertThat(extractor.getVlanVid(), equalTo(100));
+        assertThat(extractor.getIpv4Dst(), equalTo(IPv4Address.of("10.0.0.2").getInt()));
+        assertThat(extractor.getDstPort(), equalTo(80));
+        assertThat(extractor.has(MatchField.TCP_DST), equalTo(true));
+        assertThat(extractor.has(MatchField.UDP_DST), equalTo(false));
+        assertThat(extractor.has(MatchField.IPV6_SRC), equalTo(false));
+
+        Match match = extractor.fill(OFFactories.getFactory(OFVersion.OF_13).buildMatch()).build();
+        assertThat(match.get(MatchField.ETH_DST), equalTo(MacAddress.of("00:00:00:00:00:02")));
+        assertThat(match.get(MatchField.ETH_SRC), equalTo(MacAddress.of("00:00:00:00:00:01")));
+        assertThat(match.get(MatchField.ETH_TYPE), equalTo(EthType.IPv4));
+        assertThat(match.get(MatchField.VLAN_VID), equalTo(OFVlanVidMatch.ofVlan(100)));
+        assertThat(match.get(MatchField.VLAN_PCP), equalTo(VlanPcp.of((byte) 5)));
+        assertThat(match.get(MatchField.IP_DSCP), equalTo(IpDscp.DSCP_46));
+        assertThat(match.get(MatchField.IP_ECN), equalTo(IpEcn.ECN_00));
+        assertThat(match.get(MatchField.IP_PROTO), equalTo(IpProtocol.TCP));
+        assertThat(match.get(MatchField.IPV4_SRC), equalTo(IPv4Address.of("10.0.0.1")));
+        assertThat(match.get(MatchField.IPV4_DST), equalTo(IPv4Address.of("10.0.0.2")));
+        assertThat(match.get(MatchField.TCP_SRC), equalTo(TransportPort.of(8080)));
+        assertThat(match.get(MatchField.TCP_DST), equalTo(TransportPort.of(80)));
+
+        // TCP_FLAGS is only defined in OpenFlow 1.5
+        match = extractor.fill(OFFactories.getFactory(OFVersion.OF_15).buildMatch()).build();
+        assertThat(match.get(MatchField.TCP_FLAGS), equalTo(U16.of(0x012)));
+    }
+
+    @Test
+    public void testIpv6() {
+        Match match = extract(OFVersion.OF_13, IPV6_UDP);
+        assertThat(match.get(MatchField.ETH_TYPE), equalTo(EthType.IPv6));
+        assertThat(match.get(MatchField.VLAN_VID), equalTo(OFVlanVidMatch.UNTAGGED));
+        assertThat(match.get(MatchField.VLAN_PCP), nullValue());
+        assertThat(match.get(MatchField.IP_ECN), equalTo(IpEcn.ECN_01));
+        assertThat(match.get(MatchField.IPV6_FLABEL), equalTo(IPv6FlowLabel.of(0x12345)));
+        assertThat(match.get(MatchField.IPV6_SRC), equalTo(IPv6Address.of("2001:db8::1")));
+        assertThat(match.get(MatchField.IPV6_DST), equalTo(IPv6Address.of("2001:db8::2")));
+        // the protocol is the one after the hop-by-hop header
+        assertThat(match.get(MatchField.IP_PROTO), equalTo(IpProtocol.UDP));
+        assertThat(match.get(MatchField.UDP_SRC), equalTo(TransportPort.of(53)));
+        assertThat(match.get(MatchField.UDP_DST), equalTo(TransportPort.of(0x1234)));
+        assertThat(match.get(MatchField.IPV4_SRC), nullValue());
+    }
+
+    @Test
+    public void testNeighborSolicitation() {
+        Match match = extract(OFVersion.OF_13, NEIGHBOR_SOLICITATION);
+        assertThat(match.get(MatchField.IP_PROTO), equalTo(IpProtocol.IPv6_ICMP));
+        assertThat(match.get(MatchField.ICMPV6_TYPE), equalTo(U8.of((short) 135)));
+        assertThat(match.get(MatchField.ICMPV6_CODE), equalTo(U8.of((short) 0)));
+        assertThat(match.get(MatchField.IPV6_ND_TARGET), equalTo(IPv6Address.of("2001:db8::2")));
+        assertThat(match.get(MatchField.IPV6_ND_SLL), equalTo(MacAddress.of("00:00:00:00:00:01")));
+        assertThat(match.get(MatchField.IPV6_ND_TLL), nullValue());
+    }
+
+    @Test
+    public void testArp() {
+        Match match = extract(OFVersion.OF_13, ARP);
+        assertThat(match.get(MatchField.ETH_TYPE), equalTo(EthType.ARP));
+        assertThat(match.get(MatchField.ARP_OP), equalTo(ArpOpcode.REQUEST));
+        assertThat(match.get(MatchField.ARP_SHA), equalTo(MacAddress.of("00:00:00:00:00:01")));
+        assertThat(match.get(MatchField.ARP_SPA), equalTo(IPv4Address.of("10.0.0.1")));
+        assertThat(match.get(MatchField.ARP_THA), equalTo(MacAddress.NONE));
+        assertThat(match.get(MatchField.ARP_TPA), equalTo(IPv4Address.of("10.0.0.2")));
+        assertThat(match.get(MatchField.IP_PROTO), nullValue());
+    }
+
+    @Test
+    public void testIcmp() {
+        Match match = extract(OFVersion.OF_13, ETH + " 0800"
+                + " 45000054 00000000 40010000 0a000001 0a000002"
+                + " 0800f7ff 00000000");
+        assertThat(match.get(MatchField.IP_PROTO), equalTo(IpProtocol.ICMP));
+        assertThat(match.get(MatchField.ICMPV4_TYPE), equalTo(ICMPv4Type.ECHO));
+        assertThat(match.get(MatchField.TCP_SRC), nullValue());
+    }
+
+    @Test
+    public void testIcmpOverIpv6() {
+        // ICMPv4 is only defined over IPv4
+        PacketMatchExtractor extractor = new PacketMatchExtractor();
+        extractor.parse(frame(ETH + " 86dd"
+                + " 60000000 00080140 20010db8000000000000000000000001 20010db8000000000000000000000002"
+                + " 0800f7ff 00000000"));
+        assertThat(extractor.has(MatchField.IP_PROTO), equalTo(true));
+        assertThat(extractor.has(MatchField.ICMPV4_TYPE), equalTo(false));
+        assertThat(extractor.has(MatchField.ICMPV6_TYPE), equalTo(false));
+        Match match = extractor.fill(OFFactories.getFactory(OFVersion.OF_13).buildMatch()).build();
+        assertThat(match.get(MatchField.IP_PROTO), equalTo(IpProtocol.ICMP));
+        assertThat(match.isFullyWildcarded(MatchField.ICMPV4_TYPE), equalTo(true));
+        assertThat(match.isFullyWildcarded(MatchField.ICMPV4_CODE), equalTo(true));
+    }
+
+    @Test
+    public void testIcmpv6OverIpv4() {
+        // ICMPv6, and neighbor discovery, are only defined over IPv6
+        PacketMatchExtractor extractor = new PacketMatchExtractor();
+        extractor.parse(frame(ETH + " 0800"
+                + " 45000030 00000000 403a0000 0a000001 0a000002"
+                + " 87000000 00000000 20010db8000000000000000000000002 0101000000000001"));
+        assertThat(extractor.has(MatchField.IP_PROTO), equalTo(true));
+        assertThat(extractor.has(MatchField.ICMPV6_TYPE), equalTo(false));
+        assertThat(extractor.has(MatchField.IPV6_ND_TARGET), equalTo(false));
+        assertThat(extractor.has(MatchField.ICMPV4_TYPE), equalTo(false));
+        Match match = extractor.fill(OFFactories.getFactory(OFVersion.OF_13).buildMatch()).build();
+        assertThat(match.get(MatchField.IP_PROTO), equalTo(IpProtocol.IPv6_ICMP));
+        assertThat(match.isFullyWildcarded(MatchField.ICMPV6_TYPE), equalTo(true));
+        assertThat(match.isFullyWildcarded(MatchField.IPV6_ND_TARGET), equalTo(true));
+        assertThat(match.isFullyWildcarded(MatchField.IPV6_ND_SLL), equalTo(true));
+    }
+
+    @Test
+    public void testTruncated() {
+        PacketMatchExtractor extractor = new PacketMatchExtractor();
+        byte[] frame = frame(VLAN_TCP);
+        // no transport header
+        assertThat(extractor.parse(Arrays.copyOf(frame, 18 + 20)), equalTo(true));
+        assertThat(extractor.has(MatchField.IP_PROTO), equalTo(true));
+        assertThat(extractor.has(MatchField.IPV4_DST), equalTo(true));
+        assertThat(extractor.has(MatchField.TCP_DST), equalTo(false));
+        // ports, but no flags
+        assertThat(extractor.parse(Arrays.copyOf(frame, 18 + 20 + 4)), equalTo(true));
+        assertThat(extractor.has(MatchField.TCP_DST), equalTo(true));
+        assertThat(extractor.has(MatchField.TCP_FLAGS), equalTo(false));
+        // within the VLAN tag
+        assertThat(extractor.parse(Arrays.copyOf(frame, 16)), equalTo(true));
+        assertThat(extractor.has(MatchField.ETH_SRC), equalTo(true));
+        assertThat(extractor.has(MatchField.ETH_TYPE), equalTo(false));
+        assertThat(extractor.fill(OFFactories.getFactory(OFVersion.OF_13).buildMatch()).build()
+                .get(MatchField.ETH_TYPE), nullValue());
+        assertThat(extractor.parse(Arrays.copyOf(frame, 13)), equalTo(false));
+        assertThat(extractor.has(MatchField.ETH_SRC), equalTo(false));
+    }
+
+    @Test
+    public void testFragment() {
+        // a later fragment has no transport header
+        Match match = extract(OFVersion.OF_13, ETH + " 0800"
+                + " 45000028 00000010 40060000 0a000001 0a000002"
+                + " 1f900050 00000000 00000000 50122000 00000000");
+        assertThat(match.get(MatchField.IP_PROTO), equalTo(IpProtocol.TCP));
+        assertThat(match.get(MatchField.TCP_DST), nullValue());
+    }
+
+    @Test
+    public void testOF10() {
+        Match match = extract(OFVersion.OF_10, VLAN_TCP);
+        assertThat(match.get(MatchField.ETH_TYPE), equalTo(EthType.IPv4));
+        assertThat(match.get(MatchField.VLAN_VID), equalTo(OFVlanVidMatch.ofVlan(100)));
+        assertThat(match.get(MatchField.IPV4_SRC), equalTo(IPv4Address.of("10.0.0.1")));
+        assertThat(match.get(MatchField.TCP_DST), equalTo(TransportPort.of(80)));
+
+        // IPv6 fields are not supported
+        match = extract(OFVersion.OF_10, IPV6_UDP);
+        assertThat(match.get(MatchField.ETH_TYPE), equalTo(EthType.IPv6));
+        assertThat(match.get(MatchField.VLAN_VID), equalTo(OFVlanVidMatch.UNTAGGED));
+    }
+
+    @Test
+    public void testByteBuf() {
+        byte[] frame = frame(VLAN_TCP);
+        ByteBuf bb = Unpooled.directBuffer();
+        bb.writeZero(3);
+        bb.writeBytes(frame);
+        bb.readerIndex(3);
+        PacketMatchExtractor extractor = new PacketMatchExtractor();
+        assertThat(extractor.parse(bb), equalTo(true));
+        assertThat(bb.readerIndex(), equalTo(3));
+        assertThat(extractor.getDstPort(), equalTo(80));
+
+        ByteBuf heap = Unpooled.buffer();
+        heap.writeZero(5);
+        heap.writeBytes(frame);
+        heap.readerIndex(5);
+        assertThat(extractor.parse(heap), equalTo(true));
+        assertThat(extractor.getSrcPort(), equalTo(8080));
+    }
+
+    @Test
+    public void testExtractPacketIn() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_13);
+        OFPacketIn packetIn = factory.buildPacketIn()
+                .setReason(OFPacketInReason.NO_MATCH)
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setMatch(factory.buildMatch().setExact(MatchField.IN_PORT, OFPort.of(3)).build())
+                .setData(frame(VLAN_TCP))
+                .build();
+        Match match = PacketMatchExtractor.extract(packetIn);
+        assertThat(match.get(MatchField.IN_PORT), equalTo(OFPort.of(3)));
+        assertThat(match.get(MatchField.TCP_DST), equalTo(TransportPort.of(80)));
+
+        OFFactory factory10 = OFFactories.getFactory(OFVersion.OF_10);
+        packetIn = factory10.buildPacketIn()
+                .setReason(OFPacketInReason.NO_MATCH)
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setInPort(OFPort.of(4))
+                .setData(frame(VLAN_TCP))
+                .build();
+        match = PacketMatchExtractor.extract(packetIn);
+        assertThat(match.getVersion(), equalTo(OFVersion.OF_10));
+        assertThat(match.get(MatchField.IN_PORT), equalTo(OFPort.of(4)));
+        assertThat(match.get(MatchField.TCP_DST), equalTo(TransportPort.of(80)));
+    }
+}
@@ -0,0 +1,24 @@
+//:: import os
+        @Override
+        public ${msg.interface.name}.Builder reset() {
+//:: for prop in msg.data_members:
+            this.${prop.name}Set = false;
+//::    if not prop.java_type.is_primitive:
+            this.${prop.name} = null;
+//::    #endif
+//:: #endfor
+//:: if os.path.exists("%s/custom/%s.Builder_reset_stanza.java" % (template_dir, msg.name)):
+//:: include("custom/%s.Builder_reset_stanza.java" % msg.name, msg=msg, version=version, has_parent=has_parent)
+//:: #endif
+            return this;
+        }
+
+        @Override
+        public void writeTo(ByteBuf bb) {
+//:: include("_builder_resolve.java", msg=msg, version=version, has_parent=has_parent)
+//:: normalized = ""
+//:: for prop in msg.data_members:
+//::     normalized += ", " + prop.java_type.normalize_op(version, prop.name, pub_type=True)
+//:: #endfor
+            Writer.writeFields(bb${normalized});
+        }
@@ -0,0 +1,15 @@
+//:: for prop in msg.data_members:
+//:: if ignore_xid and prop.java_type.is_primitive and prop.name == 'xid':
+            // ignore XID
+//:: elif prop.java_type.pub_type == 'long':
+            result = prime * result + Long.hashCode(${prop.name});
+//:: elif prop.java_type.pub_type == 'boolean':
+            result = prime * result + (${prop.name} ? 1231 : 1237);
+//:: elif prop.java_type.is_primitive:
+            result = prime * result + ${prop.name};
+//:: elif prop.java_type.is_array:
+            result = prime * result + Arrays.hashCode(${prop.name});
+//:: else:
+            result = prime * result + ((${prop.name} == null) ? 0 : ${prop.name}.hashCode());
+//:: #endif
+//:: #endfor
@@ -0,0 +1,202 @@
+//:: import os
+    final static ViewReader VIEW_READER = new ViewReader();
+    static class ViewReader implements OFMessageReader<${msg.interface.name}> {
+        @Override
+        public ${msg.interface.name} readFrom(ByteBuf bb) throws OFParseError {
+//:: if msg.is_fixed_length:
+            if(bb.readableBytes() < LENGTH)
+//:: else:
+            if(bb.readableBytes() < MINIMUM_LENGTH)
+//:: #endif
+                return null;
+            int start = bb.readerIndex();
+//:: length_prop = None
+//:: for prop in msg.members:
+//::    if prop.is_virtual or prop.offset is None:
+//::        continue
+//::    #endif
+//::    if prop.is_length_value:
+//::        length_prop = prop
+            int ${prop.name} = ${prop.java_type.absolute_read_op(version, offset="start + %d" % prop.offset)};
+            //:: if prop.is_fixed_value:
+            if(${prop.name} != ${prop.value})
+                throw new OFParseError("Wrong ${prop.name}: Expected=${prop.enum_value}(${prop.value}), got="+${prop.name});
+            //:: else:
+            if(${prop.name} < MINIMUM_LENGTH)
+                throw new OFParseError("Wrong ${prop.name}: Expected to be >= " + MINIMUM_LENGTH + ", was: " + ${prop.name});
+            //:: #endif
+            if(bb.readableBytes() < ${prop.name}) {
+                // Buffer does not have all data yet
+                return null;
+            }
+//::    elif prop.is_fixed_value and prop.java_type.absolute_read_op(version, offset="0", pub_type=False):
+            // fixed value property ${prop.name} == ${prop.value}
+            ${prop.java_type.priv_type} ${prop.name} = ${prop.java_type.absolute_read_op(version, offset="start + %d" % prop.offset, pub_type=False)};
+            if(${prop.name} != ${prop.priv_value})
+                throw new OFParseError("Wrong ${prop.name}: Expected=${prop.enum_value}(${prop.value}), got="+${prop.name});
+//::    #endif
+//:: #endfor
+            return new View(bb.readRetainedSlice(${length_prop.name}));
+        }
+    }
+
+    /** Lazily decoded view of a ${msg.name}, see {@link OFMessageView}. */
+    static class View extends AbstractReferenceCounted implements ${msg.interface.name}, OFMessageView {
+        private final ByteBuf bb;
+        private volatile ${impl_class} message;
+
+        View(ByteBuf bb) {
+            this.bb = bb;
+        }
+
+        @Override
+        public ${impl_class} toMessage() {
+            ${impl_class} result = message;
+            if(result == null) {
+                try {
+                    result = (${impl_class}) READER.readFrom(bb.duplicate());
+                } catch (OFParseError e) {
+                    throw new IllegalStateException("${msg.name}: error decoding viewed message", e);
+                }
+                if(result == null)
+                    throw new IllegalStateException("${msg.name}: viewed message is truncated");
+                message = result;
+            }
+            return result;
+        }
+
+        @Override
+        public int getWireLength() {
+            return bb.readableBytes();
+        }
+
+//:: for prop in msg.interface.members:
+//::    if hasattr(prop, "custom_template") and prop.custom_template != None:
+//::        custom_getter = "%s/custom/%s" % (template_dir, prop.custom_template(builder=False))
+//::    else:
+//::        custom_getter = "%s/custom/%s_%s.java" % (template_dir, msg.name, prop.getter_name)
+//::    #endif
+//::    throws = "" if prop in msg.members else " throws UnsupportedOperationException"
+        @Override
+        public ${prop.java_type.public_type} ${prop.getter_name}()${throws} {
+//::    if prop not in msg.members:
+            throw new UnsupportedOperationException("Property ${prop.name} not supported in version #{version}");
+//::    else:
+//::        version_prop = msg.member_by_name(prop.name)
+//::        absolute = version_prop.offset is not None and version_prop.java_type.absolute_read_op(version, offset=str(version_prop.offset))
+//::        if os.path.exists(custom_getter):
+            return toMessage().${prop.getter_name}();
+//::        elif version_prop.is_fixed_value:
+            return ${version_prop.enum_value};
+//::        elif version_prop.is_data and absolute and version_prop.java_type.is_enum:
+            try {
+                return ${absolute};
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("${msg.name}: error decoding viewed message", e);
+            }
+//::        elif version_prop.is_data and absolute:
+            return ${absolute};
+//::        elif version_prop.is_data and version_prop.offset is not None and version_prop.member.oftype == "of_match_t":
+            // decode the match only, from a duplicate positioned at its fixed offset
+            ByteBuf bb = this.bb.duplicate();
+            bb.readerIndex(${version_prop.offset});
+            try {
+                return ${version_prop.java_type.read_op(version)};
+            } catch (OFParseError e) {
+                throw new IllegalStateException("${msg.name}: error decoding viewed message", e);
+            }
+//::        elif version_prop is msg.data_buf and msg.data_offset_op:
+            // copy the payload only
+            ByteBuf data = getDataBuf();
+            byte[] bytes = new byte[data.readableBytes()];
+            data.getBytes(data.readerIndex(), bytes);
+            return bytes;
+//::        else:
+            return toMessage().${prop.getter_name}();
+//::        #endif
+//::    #endif
+        }
+
+//:: #endfor
+//:: if msg.data_buf:
+        @Override
+        public ByteBuf getDataBuf() {
+//::    if msg.data_offset_op:
+            int start = bb.readerIndex();
+            int offset = ${msg.data_offset_op};
+            if(offset > bb.writerIndex())
+                throw new IllegalStateException("${msg.name}: viewed message is truncated");
+            return bb.slice(offset, bb.writerIndex() - offset).asReadOnly();
+//::    else:
+            return toMessage().getDataBuf();
+//::    #endif
+        }
+
+//:: #endif
+        @Override
+        public ${msg.interface.name}.Builder createBuilder() {
+            return toMessage().createBuilder();
+        }
+
+        @Override
+        public void writeTo(ByteBuf out) {
+            out.writeBytes(bb, bb.readerIndex(), bb.readableBytes());
+        }
+
+        @Override
+        public void putTo(PrimitiveSink sink) {
+            toMessage().putTo(sink);
+        }
+
+        @Override
+        protected void deallocate() {
+            bb.release();
+        }
+
+        @Override
+        public View touch(Object hint) {
+            bb.touch(hint);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return toMessage().toString();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof View))
+                return false;
+            // ByteBuf equality compares the readable bytes
+            return bb.equals(((View) obj).bb);
+        }
+
+        @Override
+        public int hashCode() {
+            return bb.hashCode();
+        }
+//:: if any(m.name == "xid" for m in msg.data_members):
+
+        @Override
+        public boolean equalsIgnoreXid(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof View))
+                return false;
+            ByteBuf other = ((View) obj).bb;
+            int length = bb.readableBytes();
+            // compare all bytes but the xid, at offset 4 of the header
+            return length == other.readableBytes()
+                    && ByteBufUtil.equals(bb, bb.readerIndex(), other, other.readerIndex(), 4)
+                    && ByteBufUtil.equals(bb, bb.readerIndex() + 8, other, other.readerIndex() + 8, length - 8);
+        }
+
+        @Override
+        public int hashCodeIgnoreXid() {
+            return 31 * bb.getInt(bb.readerIndex()) + ByteBufUtil.hashCode(bb.slice(bb.readerIndex() + 8, bb.readableBytes() - 8));
+        }
+//:: #endif
+    }
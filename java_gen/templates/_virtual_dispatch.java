@@ -0,0 +1,57 @@
+//:: # Dispatches on the discriminator 'disc' of the virtual class 'clazz', whose value has been
+//:: # stored in the Java variable 'var'. Subclasses that are virtual themselves and have a
+//:: # peekable discriminator are dispatched inline, so that a message is handed to the reader of
+//:: # its concrete class directly; the inlined code performs the same header checks as the
+//:: # reader of the subclass would (fixed values, and the length against the minimum length of
+//:: # the subclass), so that the subclass discriminator is never read from beyond the end of
+//:: # the object. Expects the message start in 'start' and the reader index of bb positioned
+//:: # there.
+${ind}            switch(${var}) {
+//:: for sub in clazz.subclasses:
+//::     if not model.generate_class(sub):
+${ind}               // skip ${sub.name} - excluded from generation
+//::         continue
+//::     #endif
+//::     m = sub.member_by_name(disc.name)
+//::     if not m.is_fixed_value:
+//::         raise Exception("subtype %s of %s does not have fixed value for discriminator %s" %
+//::                  (sub.name, clazz.name, disc.name))
+//::     #endif
+${ind}               case ${m.priv_value}:
+${ind}                   // discriminator value ${m.enum_value}=${m.value} for class ${sub.name}
+//::     sub_disc = sub.peekable_discriminator if sub.is_virtual else None
+//::     if sub_disc is not None:
+//::         sub_var = sub_disc.name if sub_disc.name not in used_vars else "%s%d" % (sub_disc.name, len(used_vars))
+${ind}                   {
+${ind}                       if(bb.readableBytes() < ${sub.length if sub.is_fixed_length else sub.min_length})
+${ind}                           return null;
+//::         for prop in sub.members:
+//::             if prop.is_discriminator:
+//::                 break
+//::             elif prop.name == disc.name or not (prop.is_fixed_value or prop.is_length_value) or prop.offset is None:
+//::                 continue
+//::             elif prop.java_type.absolute_read_op(version, offset="0", pub_type=False) is None:
+//::                 continue
+//::             #endif
+//::             prop_var = "%s%d" % (prop.name, len(used_vars))
+//::             if prop.is_fixed_value:
+${ind}                       // fixed value property ${prop.name} == ${prop.value}
+${ind}                       ${prop.java_type.priv_type} ${prop_var} = ${prop.java_type.absolute_read_op(version, offset="start + %d" % prop.offset, pub_type=False)};
+${ind}                       if(${prop_var} != ${prop.priv_value})
+${ind}                           throw new OFParseError("Wrong ${prop.name}: Expected=${prop.enum_value}(${prop.value}), got="+${prop_var});
+//::             else:
+${ind}                       ${prop.java_type.public_type} ${prop_var} = ${prop.java_type.absolute_read_op(version, offset="start + %d" % prop.offset)};
+${ind}                       if(${prop_var} < ${sub.min_length})
+${ind}                           throw new OFParseError("Wrong ${prop.name}: Expected to be >= ${sub.min_length}, was: " + ${prop_var});
+//::             #endif
+//::         #endfor
+${ind}                       ${sub_disc.java_type.priv_type} ${sub_var} = ${sub_disc.java_type.absolute_read_op(version, offset="start + %d" % sub_disc.offset, pub_type=False)};
+//::         include("_virtual_dispatch.java", clazz=sub, disc=sub_disc, var=sub_var, reader_field=reader_field, ind=ind + "           ", used_vars=used_vars + [sub_var])
+${ind}                   }
+//::     else:
+${ind}                   return ${sub.name}.${reader_field}.readFrom(bb);
+//::     #endif
+//:: #endfor
+${ind}               default:
+${ind}                   throw new OFParseError("Unknown value for discriminator ${disc.name} of class ${clazz.name}: " + ${var});
+${ind}            }
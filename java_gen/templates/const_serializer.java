@@ -77,6 +77,12 @@ public class ${class_name} {
         }
     }
 
+    /** @return the value at the absolute index of bb, leaving its reader index untouched
+     *  @throws IllegalArgumentException if the wire value is illegal */
+    public static ${enum.name} ofWireValue(ByteBuf bb, int index) {
+        return ofWireValue(${wire_type.absolute_read_op(version, offset="index")});
+    }
+
 
     public static ${int_wire_type} toWireValue(${enum.name} e) {
         switch(e) {
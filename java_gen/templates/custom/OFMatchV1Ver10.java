@@ -412,3 +412,16 @@
             builder.add(MatchField.IP_DSCP);
         return builder.build();
     }
+
+    // compiled form, computed on first use (racy single-check, as CompiledMatch is immutable)
+    private CompiledMatch compiled;
+
+    @Override
+    public CompiledMatch compile() {
+        CompiledMatch result = compiled;
+        if (result == null) {
+            result = CompiledMatch.of(this);
+            compiled = result;
+        }
+        return result;
+    }
@@ -8,7 +8,7 @@
 
         OFOxm<F> oxm = this.oxmList.get(field);
 
-        if (oxm == null || !field.arePrerequisitesOK(this))
+        if (oxm == null || !this.oxmList.arePrerequisitesOK(field))
             return null;
 
         return oxm.getValue();
@@ -22,7 +22,7 @@
 
         OFOxm<F> oxm = this.oxmList.get(field);
 
-        if (oxm == null || !field.arePrerequisitesOK(this))
+        if (oxm == null || !this.oxmList.arePrerequisitesOK(field))
             return null;
 
         if (oxm.getMask() == null)
@@ -34,7 +34,13 @@
 
     private static boolean supportsField(MatchField<?> field) {
         switch (field.id) {
-            //:: for id_constant in sorted(set(id_constant for _, id_constant, _ in model.oxm_map.values())):
+            //:: id_constants = set()
+            //:: for oxm_name, oxm_entry in model.oxm_map.items():
+            //::     if model.interface_by_name(oxm_name).has_version(msg.version):
+            //::         id_constants.add(oxm_entry.value)
+            //::     #endif
+            //:: #endfor
+            //:: for id_constant in sorted(id_constants):
             case ${id_constant}:
             //:: #endfor
                 return true;
@@ -58,36 +64,21 @@
         if (!supports(field))
             throw new UnsupportedOperationException("${msg.name} does not support matching on field " + field.getName());
 
-        if(!field.arePrerequisitesOK(this))
-            return false;
-
-        OFOxm<?> oxm = this.oxmList.get(field);
-
-        return oxm != null && !oxm.isMasked();
+        return this.oxmList.arePrerequisitesOK(field) && !this.oxmList.get(field).isMasked();
     }
 
     @Override
     public boolean isFullyWildcarded(MatchField<?> field) {
         if (!supports(field))
             throw new UnsupportedOperationException("${msg.name} does not support matching on field " + field.getName());
-        if(!field.arePrerequisitesOK(this))
-            return true;
-
-        OFOxm<?> oxm = this.oxmList.get(field);
-
-        return oxm == null;
+        return !this.oxmList.arePrerequisitesOK(field);
     }
 
     @Override
     public boolean isPartiallyMasked(MatchField<?> field) {
         if (!supports(field))
             throw new UnsupportedOperationException("${msg.name} does not support matching on field " + field.getName());
-        if(!field.arePrerequisitesOK(this))
-            return false;
-
-        OFOxm<?> oxm = this.oxmList.get(field);
-
-        return oxm != null && oxm.isMasked();
+        return this.oxmList.arePrerequisitesOK(field) && this.oxmList.get(field).isMasked();
     }
 
     private class MatchFieldIterator extends AbstractIterator<MatchField<?>> {
@@ -101,7 +92,7 @@
         protected MatchField<?> computeNext() {
             while(oxmIterator.hasNext()) {
                 OFOxm<?> oxm = oxmIterator.next();
-                if(oxm.getMatchField().arePrerequisitesOK(${msg.name}.this))
+                if(oxmList.arePrerequisitesOK(oxm.getMatchField()))
                    return oxm.getMatchField();
             }
             endOfData();
@@ -117,3 +108,16 @@
             }
         };
     }
+
+    // compiled form, computed on first use (racy single-check, as CompiledMatch is immutable)
+    private CompiledMatch compiled;
+
+    @Override
+    public CompiledMatch compile() {
+        CompiledMatch result = compiled;
+        if (result == null) {
+            result = CompiledMatch.of(this);
+            compiled = result;
+        }
+        return result;
+    }
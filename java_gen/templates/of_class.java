@@ -63,6 +63,17 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
 //:: for prop in msg.data_members:
     private final ${prop.java_type.public_type} ${prop.name};
 //:: #endfor
+//:: if msg.memoizes_wire_length:
+    // wire length, computed on first use (racy single-check, as the value is deterministic)
+    private int wireLength;
+//:: #endif
+//:: if msg.data_members:
+    // hash codes, computed on first use (racy single-check, as the values are deterministic)
+    private int hash;
+//::   if any(m.name == "xid" for m in msg.data_members):
+    private int hashIgnoreXid;
+//::   #endif
+//:: #endif
 //
 //:: if all(prop.default_value for prop in msg.data_members):
     // Immutable default instance
@@ -95,6 +106,13 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
 
     // Accessors for OF message fields
     //:: include("_field_accessors.java", msg=msg, generate_setters=False, builder=False, has_parent=False)
+    //:: if msg.data_buf:
+
+    @Override
+    public ByteBuf getDataBuf() {
+        return Unpooled.wrappedBuffer(data).asReadOnly();
+    }
+    //:: #endif
 
     //:: if os.path.exists("%s/custom/%s.java" % (template_dir, msg.name)):
     //:: include("custom/%s.java" % msg.name, msg=msg, version=version)
@@ -119,29 +137,28 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
         }
 
 //:: include("_field_accessors.java", msg=msg, generate_setters=True, builder=True, has_parent=True)
+//:: if msg.data_buf:
+    @Override
+    public ${msg.interface.name}.Builder setData(ByteBuf data) {
+        return setData(ChannelUtils.getReadableBytes(data));
+    }
+//:: #endif
 
 
         @Override
         public ${msg.interface.name} build() {
-                //:: for prop in msg.data_members:
-                ${prop.java_type.public_type} ${prop.name} = this.${prop.name}Set ? this.${prop.name} : parentMessage.${prop.name};
-                //::    if not prop.is_nullable and not prop.java_type.is_primitive:
-                if(${prop.name} == null)
-                    throw new NullPointerException("Property ${prop.name} must not be null");
-                //::    #endif
-                //:: #endfor
-
-                //
-                //:: if os.path.exists("%s/custom/%s.Builder_normalize_stanza.java" % (template_dir, msg.name)):
-                //:: include("custom/%s.Builder_normalize_stanza.java" % msg.name, msg=msg, version=version, has_parent=False)
-                //:: #endif
-                return new ${impl_class}(
+//:: include("_builder_resolve.java", msg=msg, version=version, has_parent=True)
+            return new ${impl_class}(
                 //:: for i, prop in enumerate(msg.data_members):
                 //::    comma = "," if i < len(msg.data_members)-1 else ""
                     ${prop.name}${comma}
                 //:: #endfor
                 );
         }
+//:: if msg.is_message:
+
+//:: include("_builder_reuse.java", msg=msg, version=version, has_parent=True)
+//:: #endif
         //:: if os.path.exists("%s/custom/%s.Builder.java" % (template_dir, msg.name)):
         //:: include("custom/%s.Builder.java" % msg.name, msg=msg, version=version, has_parent=True)
         //:: #endif
@@ -156,26 +173,16 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
 //:: #endfor
 
 //:: include("_field_accessors.java", msg=msg, generate_setters=True, builder=True, has_parent=False)
+//:: if msg.data_buf:
+    @Override
+    public ${msg.interface.name}.Builder setData(ByteBuf data) {
+        return setData(ChannelUtils.getReadableBytes(data));
+    }
+//:: #endif
 //
         @Override
         public ${msg.interface.name} build() {
-            //:: for prop in msg.data_members:
-            //::    if prop.default_value:
-            ${prop.java_type.public_type} ${prop.name} = this.${prop.name}Set ? this.${prop.name} : ${prop.default_name};
-            //:: else:
-            if(!this.${prop.name}Set)
-                throw new IllegalStateException("Property ${prop.name} doesn't have default value -- must be set");
-            //::    #endif
-            //::    if not prop.is_nullable and not prop.java_type.is_primitive:
-            if(${prop.name} == null)
-                throw new NullPointerException("Property ${prop.name} must not be null");
-            //::    #endif
-            //:: #endfor
-
-            //:: if os.path.exists("%s/custom/%s.Builder_normalize_stanza.java" % (template_dir, msg.name)):
-            //:: include("custom/%s.Builder_normalize_stanza.java" % msg.name, msg=msg, version=version, has_parent=False)
-            //:: #endif
-
+//:: include("_builder_resolve.java", msg=msg, version=version, has_parent=False)
             return new ${impl_class}(
                 //:: for i, prop in enumerate(msg.data_members):
                 //::    comma = "," if i < len(msg.data_members)-1 else ""
@@ -183,6 +190,10 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
                 //:: #endfor
                 );
         }
+//:: if msg.is_message:
+
+//:: include("_builder_reuse.java", msg=msg, version=version, has_parent=False)
+//:: #endif
         //:: if os.path.exists("%s/custom/%s.Builder.java" % (template_dir, msg.name)):
         //:: include("custom/%s.Builder.java" % msg.name, msg=msg, version=version, has_parent=False)
         //:: #endif
@@ -196,10 +207,43 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
     //:: #endif
 
 
+//:: if msg.element_length_op:
+    final static LazyOFList.ElementLength ELEMENT_LENGTH = (bb, index) -> ${msg.element_length_op};
+
+//:: #endif
+//:: if msg.has_lazy_lists:
+    final static Reader READER = new Reader(false);
+    // reads list members into LazyOFLists, see OFFactory.getLazyListReader()
+    final static Reader LAZY_READER = new Reader(true);
+//:: else:
     final static Reader READER = new Reader();
+//::     if msg.is_message:
+    final static Reader LAZY_READER = READER;
+//::     #endif
+//:: #endif
+//:: stream_prop = msg.streamable_entries
+//:: if stream_prop:
+    static class Reader implements OFMessageReader<${msg.interface.name}>, OFEntryStreamReader<${msg.interface.name}, ${stream_prop.java_type.element_type}> {
+//:: else:
     static class Reader implements OFMessageReader<${msg.interface.name}> {
+//:: #endif
+//:: if msg.has_lazy_lists:
+        private final boolean lazyLists;
+
+        Reader(boolean lazyLists) {
+            this.lazyLists = lazyLists;
+        }
+
+//:: #endif
+//:: for streaming in ([False, True] if stream_prop else [False]):
+//::   if streaming:
+
+        @Override
+        public ${msg.interface.name} readEntries(ByteBuf bb, Consumer<? super ${stream_prop.java_type.element_type}> consumer) throws OFParseError {
+//::   else:
         @Override
         public ${msg.interface.name} readFrom(ByteBuf bb) throws OFParseError {
+//::   #endif
 //:: for prop in msg.members:
 //:: if not prop.is_virtual and (prop.is_length_value or prop.is_field_length_value):
             int start = bb.readerIndex();
@@ -210,6 +254,16 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
 //:: for prop in msg.members:
 //:: if prop.is_virtual:
 //::    continue
+//:: elif streaming and prop == stream_prop:
+            ${prop.java_type.public_type} ${prop.name} = ${prop.default_name};
+            ${prop.java_type.stream_op(version, "consumer",
+                    length=fields_with_length_member[prop.c_name] if prop.c_name in fields_with_length_member else None)};
+//:: elif prop.is_data and msg.has_lazy_lists and prop.lazy_read_op(version):
+            ${prop.java_type.public_type} ${prop.name} = lazyLists
+                    ? ${prop.lazy_read_op(version,
+                    length=fields_with_length_member[prop.c_name] if prop.c_name in fields_with_length_member else None)}
+                    : ${prop.java_type.read_op(version, pub_type=True,
+                    length=fields_with_length_member[prop.c_name] if prop.c_name in fields_with_length_member else None)};
 //:: elif prop.is_data:
             ${prop.java_type.public_type} ${prop.name} = ${prop.java_type.read_op(version, pub_type=True,
                     length=fields_with_length_member[prop.c_name] if prop.c_name in fields_with_length_member else None)};
@@ -277,8 +331,13 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
             return INSTANCE;
             //:: #endif
         }
+//:: #endfor
     }
 
+//:: if msg.is_message:
+//:: include("_message_view.java", msg=msg, version=version, impl_class=impl_class)
+//:: #endif
+
     public void putTo(PrimitiveSink sink) {
         FUNNEL.funnel(this, sink);
     }
@@ -310,10 +369,49 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
         WRITER.write(bb, this);
     }
 
+    @Override
+    public int getWireLength() {
+//:: if msg.is_fixed_length:
+        return LENGTH;
+//:: elif not msg.variable_length_members:
+        return ${msg.fixed_wire_length};
+//:: elif not msg.memoizes_wire_length:
+        int length = ${msg.fixed_wire_length};
+//:: for prop in msg.variable_length_members:
+        length += ${prop.java_type.wire_length_op(version, prop.name, pub_type=True)};
+//:: #endfor
+//:: if msg.align and msg.has_length_member:
+        // aligned to ${msg.align} bytes
+        length = (length + ${msg.align-1})/${msg.align} * ${msg.align};
+//:: #endif
+        return length;
+//:: else:
+        int result = wireLength;
+        if (result == 0) {
+            int length = ${msg.fixed_wire_length};
+//:: for prop in msg.variable_length_members:
+            length += ${prop.java_type.wire_length_op(version, prop.name, pub_type=True)};
+//:: #endfor
+//:: if msg.align and msg.has_length_member:
+            // aligned to ${msg.align} bytes
+            length = (length + ${msg.align-1})/${msg.align} * ${msg.align};
+//:: #endif
+            result = length;
+            wireLength = result;
+        }
+        return result;
+//:: #endif
+    }
+
     final static Writer WRITER = new Writer();
     static class Writer implements OFMessageWriter<${impl_class}> {
         @Override
         public void write(ByteBuf bb, ${impl_class} message) {
+            writeFields(bb${"".join(", message." + prop.name for prop in msg.data_members)});
+        }
+
+        /** writes an object with the given (normalized) fields; also used by the builders */
+        static void writeFields(ByteBuf bb${"".join(", %s %s" % (prop.java_type.public_type, prop.name) for prop in msg.data_members)}) {
 //:: if not msg.is_fixed_length:
             int startIndex = bb.writerIndex();
 //:: #endif
@@ -326,7 +424,7 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
 //:: if prop.is_virtual:
 //::    continue
 //:: elif prop.is_data:
-            ${prop.java_type.write_op(version, "message." + prop.name, pub_type=True)};
+            ${prop.java_type.write_op(version, prop.name, pub_type=True)};
 //:: elif prop.is_pad:
             // pad: ${prop.length} bytes
             bb.writeZero(${prop.length});
@@ -461,50 +559,32 @@ class ${impl_class} implements ${msg.interface.inherited_declaration()} {
     //:: #endif
     @Override
     public int hashCode() {
-        //:: if len(msg.data_members) > 0:
-        final int prime = 31;
-        //:: #endif
-        int result = 1;
-
-        //:: for prop in msg.data_members:
-        //:: if prop.java_type.pub_type == 'long':
-        result = prime *  (int) (${prop.name} ^ (${prop.name} >>> 32));
-        //:: elif prop.java_type.pub_type == 'boolean':
-        result = prime * result + (${prop.name} ? 1231 : 1237);
-        //:: elif prop.java_type.is_primitive:
-        result = prime * result + ${prop.name};
-        //:: elif prop.java_type.is_array:
-        result = prime * result + Arrays.hashCode(${prop.name});
+        //:: if msg.data_members:
+        int result = hash;
+        if (result == 0) {
+            final int prime = 31;
+            result = 1;
+
+            //:: include("_hash_fields.java", msg=msg, ignore_xid=False)
+            hash = result;
+        }
+        return result;
         //:: else:
-        result = prime * result + ((${prop.name} == null) ? 0 : ${prop.name}.hashCode());
+        return 1;
         //:: #endif
-        //:: #endfor
-        return result;
     }
 
     //:: if any(m.name == "xid" for m in msg.data_members):
     @Override
     public int hashCodeIgnoreXid() {
-        //:: if len(msg.data_members) > 0:
-        final int prime = 31;
-        //:: #endif
-        int result = 1;
+        int result = hashIgnoreXid;
+        if (result == 0) {
+            final int prime = 31;
+            result = 1;
 
-        //:: for prop in msg.data_members:
-        //:: if prop.java_type.is_primitive and prop.name == 'xid':
-        // ignore XID
-        //:: elif prop.java_type.pub_type == 'long':
-        result = prime *  (int) (${prop.name} ^ (${prop.name} >>> 32));
-        //:: elif prop.java_type.pub_type == 'boolean':
-        result = prime * result + (${prop.name} ? 1231 : 1237);
-        //:: elif prop.java_type.is_primitive:
-        result = prime * result + ${prop.name};
-        //:: elif prop.java_type.is_array:
-        result = prime * result + Arrays.hashCode(${prop.name});
-        //:: else:
-        result = prime * result + ((${prop.name} == null) ? 0 : ${prop.name}.hashCode());
-        //:: #endif
-        //:: #endfor
+            //:: include("_hash_fields.java", msg=msg, ignore_xid=True)
+            hashIgnoreXid = result;
+        }
         return result;
     }
 
@@ -95,6 +95,15 @@ public class ${factory.name} implements ${factory.interface.name} {
         //:: #endif
     }
     //:: #endif
+    //:: if i.streamable_entries:
+    public OFEntryStreamReader<${i.name}, ${i.streamable_entries.java_type.element_type}> ${factory.interface.entry_reader_method_name(i)}() {
+        //:: if i.has_version(factory.version) and model.generate_class(i.versioned_class(factory.version)) and i.versioned_class(factory.version).streamable_entries:
+        return ${i.versioned_class(factory.version).name}.READER;
+        //:: else:
+        throw new UnsupportedOperationException("Streaming the entries of ${i.name} not supported in version ${factory.version}");
+        //:: #endif
+    }
+    //:: #endif
 //:: #endfor
 
     public OFMessageReader<${factory.base_class}> getReader() {
@@ -106,6 +115,21 @@ public class ${factory.name} implements ${factory.interface.name} {
     }
 
 //:: if factory.interface.name == "OFFactory":
+    @Override
+    public OFMessageReader<OFMessage> getViewReader() {
+        return ${factory.versioned_base_class.name}.VIEW_READER;
+    }
+
+    @Override
+    public OFMessageReader<OFMessage> getLazyListReader() {
+        return ${factory.versioned_base_class.name}.LAZY_READER;
+    }
+
+    @Override
+    public <B extends OFMessage.Builder> OFBuilderPool<B> builderPool(Function<? super OFFactory, ? extends B> creator) {
+        return new OFBuilderPool<>(this, creator);
+    }
+
     @Override
     public Stat.Builder buildStat() {
             return buildStatV6();
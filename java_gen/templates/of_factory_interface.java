@@ -51,11 +51,27 @@ public interface ${factory.name}${" extends XidGenerator" if factory.xid_generat
     //:: if len(i.writeable_members) <= 2:
     ${i.name} ${factory.method_name(i, builder=False )}(${", ".join("%s %s" % (p.java_type.public_type, p.name) for p in i.writeable_members if p.name != "xid" )});
     //:: #endif
+    //:: if i.streamable_entries:
+    OFEntryStreamReader<${i.name}, ${i.streamable_entries.java_type.element_type}> ${factory.entry_reader_method_name(i)}()${ "" if i.is_universal else " throws UnsupportedOperationException"};
+    //:: #endif
 //:: #endfor
 //:: if factory.name == 'OFFactory':
     Match.Builder buildMatch();
     Match matchWildcardAll();
     Stat.Builder buildStat();
+
+    /** Returns a reader that produces lazily decoded {@link OFMessageView}s instead of
+     *  fully decoded messages. The caller must release each view returned. */
+    OFMessageReader<OFMessage> getViewReader();
+
+    /** Returns a reader that decodes messages like {@link #getReader()}, except that list
+     *  fields (e.g., the entries of multipart replies) are read into {@link LazyOFList}s,
+     *  whose elements are decoded on first access. */
+    OFMessageReader<OFMessage> getLazyListReader();
+
+    /** Returns a pool of reusable builders, one per thread, created by creator from this
+     *  factory (e.g., {@code builderPool(OFFactory::buildFlowAdd)}). */
+    <B extends OFMessage.Builder> OFBuilderPool<B> builderPool(Function<? super OFFactory, ? extends B> creator);
 //:: #endif
 
     OFMessageReader<${factory.base_class}> getReader();
@@ -40,6 +40,21 @@ public interface ${msg.name}${ "<%s>" % msg.type_annotation if msg.type_annotati
 //:: for prop in msg.members:
     ${prop.java_type.public_type} ${prop.getter_name}()${ "" if prop.is_universal else " throws UnsupportedOperationException"};
 //:: #endfor
+//:: if msg.has_data_buf:
+
+    /**
+     * Returns the data of this message as a read-only buffer, without copying it.
+     *
+     * For a message read via a view reader (see {@link OFMessageView}), the buffer is a slice
+     * of the buffer the message was read from, and shares its reference count: it is valid
+     * only as long as the view has not been released. Call {@link ByteBuf#retain()} to keep
+     * it beyond that, and release it when done. For all other messages, the buffer wraps the
+     * data array of the message, and need not be released.
+     *
+     * @return the data, as a read-only buffer
+     */
+    ByteBuf getDataBuf();
+//:: #endif
 //:: if os.path.exists("%s/custom/interface/%s.java" % (template_dir, msg.name)):
 //:: include("custom/interface/%s.java" % msg.name, msg=msg)
 //:: #endif
@@ -50,11 +65,48 @@ public interface ${msg.name}${ "<%s>" % msg.type_annotation if msg.type_annotati
     //:: simple_type, annotation = re.match(r'(\w+)(<.*>)?', msg.parent_interface).groups() if msg.parent_interface else ("", "")
     public interface Builder${ "<%s>" % msg.type_annotation if msg.type_annotation else ""} ${"extends %s.Builder" % simple_type if msg.parent_interface else ""}${annotation if annotation else ""} {
         ${msg.name}${msg.type_variable} build();
+//:: if msg.is_message and not msg.parent_interface:
+
+        /**
+         * Unsets all properties of this builder, returning it to the state it was created in:
+         * a builder created via {@code createBuilder()} of a message again defaults to the
+         * properties of that message, all other builders to the default values of the
+         * properties. See {@link OFBuilderPool} for per-thread reuse of builders.
+         *
+         * @return this builder
+         */
+        Builder${msg.type_variable} reset();
+
+        /**
+         * Serializes the message described by this builder, exactly as
+         * {@code build().writeTo(bb)} would, but without creating the message. Properties
+         * are validated as by {@code build()}.
+         *
+         * @param bb the buffer to write to
+         * @throws IllegalStateException if a property without default value has not been set
+         * @throws NullPointerException if a property has been set to null
+         */
+        void writeTo(ByteBuf bb);
+
+//:: elif msg.is_message:
+        Builder${msg.type_variable} reset();
+//:: #endif
 //:: for prop in msg.members:
         ${prop.java_type.public_type} ${prop.getter_name}()${ "" if prop.is_universal else " throws UnsupportedOperationException"};
 //:: if prop.needs_setter:
         Builder${msg.type_variable} ${prop.setter_name}(${prop.java_type.public_type} ${prop.name})${ "" if prop.is_universal else " throws UnsupportedOperationException"};
 //:: #endif
 //:: #endfor
+//:: if msg.has_data_buf:
+        /**
+         * Sets the data to the readable bytes of the given buffer, without modifying its
+         * indexes or its reference count. The caller retains ownership of the buffer, and may
+         * release or modify it after this call; the readable bytes are always copied.
+         *
+         * @param data the buffer holding the data
+         * @return this builder
+         */
+        Builder${msg.type_variable} setData(ByteBuf data);
+//:: #endif
     }
 }
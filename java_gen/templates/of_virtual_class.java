@@ -45,10 +45,20 @@ abstract class ${msg.name} {
     final static int MINIMUM_LENGTH = ${msg.min_length};
 //:: #endif
 
+//:: if msg.element_length_op:
+    final static LazyOFList.ElementLength ELEMENT_LENGTH = (bb, index) -> ${msg.element_length_op};
 
-    public final static ${msg.name}.Reader READER = new Reader();
+//:: #endif
+//:: readers = [ ("Reader", "READER") ]
+//:: if msg.is_message:
+//::     readers.append(("ViewReader", "VIEW_READER"))
+//::     readers.append(("LazyReader", "LAZY_READER"))
+//:: #endif
+//:: for reader_class, reader_field in readers:
 
-    static class Reader implements OFMessageReader<${msg.interface.inherited_declaration()}> {
+    public final static ${msg.name}.${reader_class} ${reader_field} = new ${reader_class}();
+
+    static class ${reader_class} implements OFMessageReader<${msg.interface.inherited_declaration()}> {
         @Override
         public ${msg.interface.inherited_declaration()} readFrom(ByteBuf bb) throws OFParseError {
 //:: if msg.is_fixed_length:
@@ -58,6 +68,30 @@ abstract class ${msg.name} {
 //:: #endif
                 return null;
             int start = bb.readerIndex();
+//:: disc = msg.peekable_discriminator
+//:: if disc is not None:
+//::    # peek at the header fields and the discriminator without moving the reader index
+//::    for prop in msg.members:
+//::       if prop.is_discriminator:
+//::          break
+//::       elif not (prop.is_fixed_value or prop.is_length_value) or prop.offset is None:
+//::          continue
+//::       elif prop.java_type.absolute_read_op(version, offset="0", pub_type=False) is None:
+//::          continue
+//::       elif prop.is_fixed_value:
+            // fixed value property ${prop.name} == ${prop.value}
+            ${prop.java_type.priv_type} ${prop.name} = ${prop.java_type.absolute_read_op(version, offset="start + %d" % prop.offset, pub_type=False)};
+            if(${prop.name} != ${prop.priv_value})
+                throw new OFParseError("Wrong ${prop.name}: Expected=${prop.enum_value}(${prop.value}), got="+${prop.name});
+//::       elif prop.is_length_value:
+            ${prop.java_type.public_type} ${prop.name} = ${prop.java_type.absolute_read_op(version, offset="start + %d" % prop.offset)};
+            if(${prop.name} < MINIMUM_LENGTH)
+                throw new OFParseError("Wrong ${prop.name}: Expected to be >= " + MINIMUM_LENGTH + ", was: " + ${prop.name});
+//::       #endif
+//::    #endfor
+            ${disc.java_type.priv_type} ${disc.name} = ${disc.java_type.absolute_read_op(version, offset="start + %d" % disc.offset, pub_type=False)};
+//::    include("_virtual_dispatch.java", clazz=msg, disc=disc, var=disc.name, reader_field=reader_field, ind="", used_vars=[disc.name])
+//:: else:
 //:: fields_with_length_member = {}
 //::    for prop in msg.members:
 //::       if prop.is_data:
@@ -81,27 +115,12 @@ abstract class ${msg.name} {
 //:: elif prop.is_discriminator:
             ${prop.java_type.priv_type} ${prop.name} = ${prop.java_type.read_op(version, pub_type=False)};
             bb.readerIndex(start);
-            switch(${prop.name}) {
-//::     for sub in msg.subclasses:
-//::           if not model.generate_class(sub):
-               // skip ${sub.name} - excluded from generation
-//::           else:
-//::           m = sub.member_by_name(prop.name)
-//::           if not m.is_fixed_value:
-//::                  raise Exception("subtype %s of %s does not have fixed value for discriminator %s" %
-//::                           (sub.name, msg.name, prop.name))
-//::           #endif
-               case ${m.priv_value}:
-                   // discriminator value ${m.enum_value}=${m.value} for class ${sub.name}
-                   return ${sub.name}.READER.readFrom(bb);
-//:: #endif    # generate_class
-//:: #endfor
-               default:
-                   throw new OFParseError("Unknown value for discriminator ${prop.name} of class ${msg.name}: " + ${prop.name});
-            }
+//::        include("_virtual_dispatch.java", clazz=msg, disc=prop, var=prop.name, reader_field=reader_field, ind="", used_vars=[prop.name])
 //::        break
 //:: #endif
 //:: #endfor
+//:: #endif
         }
     }
+//:: #endfor
 }
@@ -69,6 +69,7 @@ public class ${test.name} {
         //:: else:
         ${var_type} ${var_name} = factory.${factory_method}();
         //:: #endif
+        assertEquals(${msg.constant_name}_SERIALIZED.length, ${var_name}.getWireLength());
         ByteBuf bb = Unpooled.buffer();
         ${var_name}.writeTo(bb);
         byte[] written = new byte[bb.readableBytes()];
@@ -106,6 +107,7 @@ public class ${test.name} {
        // FIXME should invoke the overall reader once implemented
        ${var_type} ${var_name} = ${msg.name}.READER.readFrom(input);
        assertEquals(${msg.constant_name}_SERIALIZED.length, input.readerIndex());
+       assertEquals(${msg.constant_name}_SERIALIZED.length, ${var_name}.getWireLength());
 
        // write message again
        ByteBuf bb = Unpooled.buffer();